@@ -0,0 +1,76 @@
+package com.farmguardian.farmguardian.config.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청당 JWT 인증 비용 비교 (변경 전 4회 파싱 / 파서 재사용 1회 파싱 / 검증 캐시 적중)
+ * ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "BenchmarkJwtSecretKeyForFarmGuardianAuthentication0000";
+
+    private Key secretKey;
+    private String token;
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        // 두 provider 가 같은 서명 키를 써야 서로 발급한 토큰을 검증할 수 있다
+        JwtKeyStore keyStore = new JwtKeyStore("", 0);
+        uncachedProvider = new JwtTokenProvider(SECRET, 1_800_000, 604_800_000,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), false, 0), keyStore);
+        cachedProvider = new JwtTokenProvider(SECRET, 1_800_000, 604_800_000,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), true, 10_000), keyStore);
+        token = cachedProvider.createAccessToken("farmer@example.com", "USER", 42L);
+    }
+
+    // 변경 전 구현: validateToken + 이메일/역할/userId 조회마다 파서를 새로 만들어 파싱/검증
+    @Benchmark
+    public Object legacyFourParses() {
+        parseWithNewParser(token);
+        String email = parseWithNewParser(token).getSubject();
+        String role = parseWithNewParser(token).get("role", String.class);
+        Long userId = parseWithNewParser(token).get("userId", Long.class);
+        return email.length() + role.length() + userId;
+    }
+
+    @Benchmark
+    public Authentication singleParse() {
+        return uncachedProvider.authenticate(token);
+    }
+
+    @Benchmark
+    public Authentication cachedVerification() {
+        return cachedProvider.authenticate(token);
+    }
+
+    private Claims parseWithNewParser(String value) {
+        return Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build()
+                .parseClaimsJws(value)
+                .getBody();
+    }
+}
@@ -0,0 +1,88 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.util.BinaryFrameCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 촬영 명령 페이로드 인코딩 비용 / 크기 비교
+ * ./gradlew jmh  (gc 프로파일러의 gc.alloc.rate.norm 으로 연산당 할당량 확인)
+ *
+ * binaryEncode 는 코덱 자체(배열 재사용)의 비용이고, 실제 발행 경로는 명령마다 새 배열을 만드는 binaryPublish 와 같다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CapturePayloadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(CapturePayloadBenchmark.class);
+
+    private String deviceUuid;
+    private String correlationId;
+    private byte[] frameBuffer;
+    private byte[] encodedFrame;
+    private BinaryFrameCodec.Frame frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        deviceUuid = UUID.randomUUID().toString();
+        correlationId = UUID.randomUUID().toString();
+        frameBuffer = new byte[BinaryFrameCodec.CAPTURE_LENGTH];
+        encodedFrame = new byte[BinaryFrameCodec.CAPTURE_LENGTH];
+        BinaryFrameCodec.encodeCapture(encodedFrame, 0, correlationId, System.currentTimeMillis());
+        frame = new BinaryFrameCodec.Frame();
+
+        log.info("Payload bytes - LegacyJson: {}, Json: {}, Binary: {}",
+                legacyJson().length,
+                json().length,
+                BinaryFrameCodec.CAPTURE_LENGTH);
+    }
+
+    // 변경 전 구현 (String.format + LocalTime.format)
+    @Benchmark
+    public byte[] legacyJson() {
+        return String.format("{\"command\":\"capture\",\"deviceUuid\":\"%s\",\"correlationId\":\"%s\",\"timestamp\":\"%s\"}",
+                deviceUuid,
+                correlationId,
+                LocalTime.now().format(DateTimeFormatter.ISO_LOCAL_TIME)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return MqttService.createCapturePayload(deviceUuid, correlationId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        BinaryFrameCodec.encodeCapture(frameBuffer, 0, correlationId, System.currentTimeMillis());
+        return frameBuffer;
+    }
+
+    // MqttService.publishCapture 와 같이 명령마다 새 배열 (비동기 발행이라 배열을 재사용할 수 없다)
+    @Benchmark
+    public byte[] binaryPublish() {
+        byte[] frame = new byte[BinaryFrameCodec.CAPTURE_LENGTH];
+        BinaryFrameCodec.encodeCapture(frame, 0, correlationId, System.currentTimeMillis());
+        return frame;
+    }
+
+    @Benchmark
+    public long binaryDecode() {
+        BinaryFrameCodec.decode(encodedFrame, 0, encodedFrame.length, frame);
+        return frame.getTimestampMillis();
+    }
+}
@@ -0,0 +1,60 @@
+package com.farmguardian.farmguardian.config;
+
+import com.farmguardian.farmguardian.service.CacheInvalidationBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.core.MessageProducer;
+import org.springframework.integration.mqtt.core.MqttPahoClientFactory;
+import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
+import org.springframework.integration.mqtt.support.DefaultPahoMessageConverter;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+
+/**
+ * 캐시 무효화 토픽 구독 설정
+ * 모든 인스턴스가 받아야 하므로 디바이스 수신(mqtt.inbound)과 별도의 클라이언트로 일반 구독한다.
+ * 메시지가 작고 처리(로컬 캐시 삭제)가 가벼워 워커 풀 없이 수신 스레드에서 바로 처리한다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationConfig {
+
+    @Value("${mqtt.client-id}")
+    private String clientId;
+
+    @Value("${mqtt.inbound.completion-timeout:30000}")
+    private long completionTimeout;
+
+    @Bean
+    public MessageChannel cacheInvalidationChannel() {
+        return new DirectChannel();
+    }
+
+    @Bean
+    public MessageProducer cacheInvalidationInbound(MqttPahoClientFactory mqttClientFactory,
+                                                    MessageChannel cacheInvalidationChannel) {
+        MqttPahoMessageDrivenChannelAdapter adapter = new MqttPahoMessageDrivenChannelAdapter(
+                clientId + "-cache", mqttClientFactory, CacheInvalidationBus.TOPIC);
+        DefaultPahoMessageConverter converter = new DefaultPahoMessageConverter();
+        converter.setPayloadAsBytes(true);
+        adapter.setConverter(converter);
+        adapter.setCompletionTimeout(completionTimeout);
+        adapter.setQos(1);
+        adapter.setOutputChannel(cacheInvalidationChannel);
+
+        log.info("Cache invalidation subscriber initialized - Topic: {}", CacheInvalidationBus.TOPIC);
+        return adapter;
+    }
+
+    @Bean
+    @ServiceActivator(inputChannel = "cacheInvalidationChannel")
+    public MessageHandler cacheInvalidationHandler(CacheInvalidationBus cacheInvalidationBus) {
+        return message -> cacheInvalidationBus.onMessage(message.getPayload());
+    }
+}
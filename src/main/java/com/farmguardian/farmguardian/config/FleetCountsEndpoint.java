@@ -0,0 +1,24 @@
+package com.farmguardian.farmguardian.config;
+
+import com.farmguardian.farmguardian.dto.response.FleetCountsResponseDto;
+import com.farmguardian.farmguardian.service.FleetCounters;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/fleet : 상태 × 작물별 디바이스 수 (메모리 카운터, DB 조회 없음)
+ */
+@Component
+@Endpoint(id = "fleet")
+@RequiredArgsConstructor
+public class FleetCountsEndpoint {
+
+    private final FleetCounters fleetCounters;
+
+    @ReadOperation
+    public FleetCountsResponseDto fleet() {
+        return fleetCounters.snapshot();
+    }
+}
@@ -1,8 +1,13 @@
 package com.farmguardian.farmguardian.config;
 
+import com.farmguardian.farmguardian.gateway.ShardedMqttMessageHandler;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.mqttv5.client.MqttConnectionOptions;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.annotation.ServiceActivator;
@@ -12,9 +17,26 @@ import org.springframework.integration.config.EnableIntegration;
 import org.springframework.integration.mqtt.core.DefaultMqttPahoClientFactory;
 import org.springframework.integration.mqtt.core.MqttPahoClientFactory;
 import org.springframework.integration.mqtt.outbound.MqttPahoMessageHandler;
+import org.springframework.integration.mqtt.outbound.Mqttv5PahoMessageHandler;
+import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
-
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MQTT 연결/발행 설정
+ * mqtt.version 으로 환경별 프로토콜을 고른다.
+ * - 3 : Paho v3 (기본값)
+ * - 5 : Paho v5, 공유 구독($share)으로 인스턴스 간 수신 분산, 명령 만료(Message Expiry), Topic Alias 사용
+ */
 @Slf4j
 @Configuration
 @EnableIntegration
@@ -45,41 +67,121 @@ public class MqttConfig {
     @Value("${mqtt.automatic-reconnect}")
     private boolean automaticReconnect;
 
-    // MQTT 연결 설정
+    @Value("${mqtt.outbound.clients:1}")
+    private int outboundClients;
+
+    @Value("${mqtt.outbound.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${mqtt.outbound.max-inflight:100}")
+    private int maxInflight;
+
+    @Value("${mqtt.version:3}")
+    private int version;
+
+    // 브로커가 보관만 하고 전달하지 못한 명령을 버리는 시간 (v5, 0 이면 만료 없음)
+    @Value("${mqtt.v5.message-expiry-seconds:0}")
+    private long messageExpirySeconds;
+
+    @Value("${mqtt.v5.topic-alias-maximum:0}")
+    private int topicAliasMaximum;
+
+    // MQTT 연결 설정 (broker-url 에 쉼표로 여러 브로커를 적으면 연결 실패 시 다음 브로커로 넘어간다)
     @Bean
     public MqttPahoClientFactory mqttClientFactory() {
         DefaultMqttPahoClientFactory factory = new DefaultMqttPahoClientFactory();
         MqttConnectOptions options = new MqttConnectOptions();
+        String[] serverUris = StringUtils.tokenizeToStringArray(brokerUrl, ",");
 
-        options.setServerURIs(new String[]{brokerUrl});
+        options.setServerURIs(serverUris);
         options.setUserName(username);
         options.setPassword(password.toCharArray());
         options.setConnectionTimeout(connectionTimeout);
         options.setKeepAliveInterval(keepAliveInterval);
         options.setAutomaticReconnect(automaticReconnect);
         options.setCleanSession(true);
+        options.setMaxInflight(maxInflight);
 
         factory.setConnectionOptions(options);
 
-        log.info("MQTT Client Factory initialized - Broker: {}, ClientId: {}", brokerUrl, clientId);
+        log.info("MQTT Client Factory initialized - Brokers: {}, ClientId: {}", Arrays.toString(serverUris), clientId);
         return factory;
     }
 
-    // 메시지 발행용 채널
+    // MQTT v5 연결 설정 (v5 모드에서만 생성)
+    @Bean
+    @ConditionalOnProperty(name = "mqtt.version", havingValue = "5")
+    public MqttConnectionOptions mqttConnectionOptions() {
+        MqttConnectionOptions options = new MqttConnectionOptions();
+        String[] serverUris = StringUtils.tokenizeToStringArray(brokerUrl, ",");
+
+        options.setServerURIs(serverUris);
+        options.setUserName(username);
+        options.setPassword(password.getBytes(StandardCharsets.UTF_8));
+        options.setConnectionTimeout(connectionTimeout);
+        options.setKeepAliveInterval(keepAliveInterval);
+        options.setAutomaticReconnect(automaticReconnect);
+        options.setCleanStart(true);
+        options.setReceiveMaximum(maxInflight);
+        // 브로커가 긴 토픽 이름 대신 2바이트 별칭을 보낼 수 있도록 허용
+        options.setTopicAliasMaximum(topicAliasMaximum);
+
+        log.info("MQTT v5 Connection Options initialized - Brokers: {}, TopicAliasMaximum: {}",
+                Arrays.toString(serverUris), topicAliasMaximum);
+        return options;
+    }
+
+    // 메시지 발행용 채널 (v5 는 만료 시간이 없는 메시지에 기본 만료 시간을 붙인다)
     @Bean
     public MessageChannel mqttOutboundChannel() {
-        return new DirectChannel();
+        DirectChannel channel = new DirectChannel();
+        if (version == 5 && messageExpirySeconds > 0) {
+            channel.addInterceptor(new ChannelInterceptor() {
+                @Override
+                public Message<?> preSend(Message<?> message, MessageChannel messageChannel) {
+                    if (message.getHeaders().containsKey(MqttHeaders.MESSAGE_EXPIRY_INTERVAL)) {
+                        return message;
+                    }
+                    return MessageBuilder.fromMessage(message)
+                            .setHeader(MqttHeaders.MESSAGE_EXPIRY_INTERVAL, messageExpirySeconds)
+                            .build();
+                }
+            });
+        }
+        return channel;
     }
 
-    // MQTT 메시지 발행 핸들러
+    // MQTT 메시지 발행 핸들러 (클라이언트 N개에 디바이스 UUID 기준으로 분산)
     @Bean
     @ServiceActivator(inputChannel = "mqttOutboundChannel")
-    public MessageHandler mqttOutbound() {
-        MqttPahoMessageHandler messageHandler = new MqttPahoMessageHandler(clientId, mqttClientFactory());
+    public MessageHandler mqttOutbound(MeterRegistry meterRegistry,
+                                       ObjectProvider<MqttConnectionOptions> mqttConnectionOptions) {
+        Map<String, MessageHandler> handlers = new LinkedHashMap<>();
+        for (int i = 0; i < outboundClients; i++) {
+            String outboundClientId = clientId + "-" + i;
+            handlers.put(outboundClientId, version == 5
+                    ? createV5Handler(outboundClientId, mqttConnectionOptions.getObject())
+                    : createV3Handler(outboundClientId));
+        }
+
+        log.info("MQTT Outbound Handler initialized - Version: {}, Clients: {}, QoS: {}, MaxInflight: {}",
+                version, outboundClients, qos, maxInflight);
+        return new ShardedMqttMessageHandler(handlers, virtualNodes, meterRegistry);
+    }
+
+    private MessageHandler createV3Handler(String outboundClientId) {
+        MqttPahoMessageHandler messageHandler = new MqttPahoMessageHandler(outboundClientId, mqttClientFactory());
         messageHandler.setAsync(true);
+        messageHandler.setAsyncEvents(true);
         messageHandler.setDefaultQos(qos);
+        return messageHandler;
+    }
 
-        log.info("MQTT Outbound Handler initialized - QoS: {}", qos);
+    private MessageHandler createV5Handler(String outboundClientId, MqttConnectionOptions options) {
+        Mqttv5PahoMessageHandler messageHandler = new Mqttv5PahoMessageHandler(options, outboundClientId);
+        messageHandler.setAsync(true);
+        messageHandler.setAsyncEvents(true);
+        messageHandler.setDefaultQos(qos);
         return messageHandler;
     }
 }
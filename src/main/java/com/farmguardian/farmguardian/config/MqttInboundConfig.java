@@ -0,0 +1,164 @@
+package com.farmguardian.farmguardian.config;
+
+import com.farmguardian.farmguardian.service.MqttInboundService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.mqttv5.client.MqttConnectionOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.core.MessageProducer;
+import org.springframework.integration.mqtt.core.MqttPahoClientFactory;
+import org.springframework.integration.mqtt.inbound.AbstractMqttMessageDrivenChannelAdapter;
+import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
+import org.springframework.integration.mqtt.inbound.Mqttv5PahoMessageDrivenChannelAdapter;
+import org.springframework.integration.mqtt.support.DefaultPahoMessageConverter;
+import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 디바이스 → 서버 방향 MQTT 수신 설정
+ * 업로드/텔레메트리/접속 상태 토픽을 구독하고, 업로드/텔레메트리만 제한된 크기의 워커 풀을 통해 분석 파이프라인으로 전달한다.
+ * 하트비트/상태/ack 는 메모리만 갱신하므로 Paho 콜백 스레드에서 바로 처리한다.
+ * 워커 큐가 가득 차면 콜백 스레드가 분석을 떠안지 않고 메시지를 버린다 (mqtt.inbound.rejected).
+ * 콜백 스레드가 막히면 같은 클라이언트의 하트비트/ack 도 멈춰 정상 디바이스가 오프라인으로 보이기 때문이다.
+ *
+ * MQTT v5 모드에서는 업로드/텔레메트리를 공유 구독($share/{group}/...)으로 받아 인스턴스 중 한 곳에서만 처리한다.
+ * 하트비트/상태/ack 는 모든 인스턴스가 알아야 하므로 (접속 상태, 발행한 인스턴스의 명령 추적) 일반 구독을 유지한다.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "mqtt.inbound.enabled", havingValue = "true")
+public class MqttInboundConfig {
+
+    @Value("${mqtt.client-id}")
+    private String clientId;
+
+    @Value("${mqtt.qos}")
+    private int qos;
+
+    @Value("${mqtt.inbound.worker-threads:4}")
+    private int workerThreads;
+
+    @Value("${mqtt.inbound.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${mqtt.inbound.completion-timeout:30000}")
+    private long completionTimeout;
+
+    @Value("${mqtt.version:3}")
+    private int version;
+
+    @Value("${mqtt.v5.shared-group:farmguardian}")
+    private String sharedGroup;
+
+    // 업로드/텔레메트리 처리용 워커 풀 (bounded, 가득 차면 거절)
+    @Bean
+    public ThreadPoolTaskExecutor mqttInboundExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workerThreads);
+        executor.setMaxPoolSize(workerThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mqtt-inbound-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+
+        Gauge.builder("mqtt.inbound.queue.size", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("분석 대기 중인 MQTT 수신 메시지 수 (consumer lag)")
+                .register(meterRegistry);
+        Gauge.builder("mqtt.inbound.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("처리 중인 MQTT 수신 메시지 수")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // 메시지 수신용 채널 (Paho 콜백 스레드에서 바로 분기)
+    @Bean
+    public MessageChannel mqttInboundChannel() {
+        return new DirectChannel();
+    }
+
+    // MQTT 구독 어댑터
+    @Bean
+    public MessageProducer mqttInbound(MqttPahoClientFactory mqttClientFactory,
+                                       ObjectProvider<MqttConnectionOptions> mqttConnectionOptions,
+                                       MessageChannel mqttInboundChannel) {
+        AbstractMqttMessageDrivenChannelAdapter<?, ?> adapter = version == 5
+                ? createV5Adapter(mqttConnectionOptions.getObject())
+                : createV3Adapter(mqttClientFactory);
+        adapter.setCompletionTimeout(completionTimeout);
+        adapter.setQos(qos);
+        adapter.setOutputChannel(mqttInboundChannel);
+
+        log.info("MQTT Inbound Adapter initialized - Version: {}, Topics: {}, Workers: {}, QueueCapacity: {}",
+                version, String.join(", ", adapter.getTopic()), workerThreads, queueCapacity);
+        return adapter;
+    }
+
+    private AbstractMqttMessageDrivenChannelAdapter<?, ?> createV3Adapter(MqttPahoClientFactory mqttClientFactory) {
+        MqttPahoMessageDrivenChannelAdapter adapter = new MqttPahoMessageDrivenChannelAdapter(
+                clientId + "-inbound",
+                mqttClientFactory,
+                MqttInboundService.UPLOAD_TOPIC,
+                MqttInboundService.TELEMETRY_TOPIC,
+                MqttInboundService.HEARTBEAT_TOPIC,
+                MqttInboundService.STATUS_TOPIC,
+                MqttInboundService.ACK_TOPIC
+        );
+        // 바이너리 프레임이 깨지지 않도록 페이로드를 byte[] 그대로 넘긴다 (JSON 은 서비스에서 UTF-8 로 해석)
+        DefaultPahoMessageConverter converter = new DefaultPahoMessageConverter();
+        converter.setPayloadAsBytes(true);
+        adapter.setConverter(converter);
+        return adapter;
+    }
+
+    // v5 어댑터는 기본적으로 byte[] 페이로드를 넘긴다
+    private AbstractMqttMessageDrivenChannelAdapter<?, ?> createV5Adapter(MqttConnectionOptions options) {
+        String sharedPrefix = "$share/" + sharedGroup + "/";
+        return new Mqttv5PahoMessageDrivenChannelAdapter(
+                options,
+                clientId + "-inbound",
+                sharedPrefix + MqttInboundService.UPLOAD_TOPIC,
+                sharedPrefix + MqttInboundService.TELEMETRY_TOPIC,
+                MqttInboundService.HEARTBEAT_TOPIC,
+                MqttInboundService.STATUS_TOPIC,
+                MqttInboundService.ACK_TOPIC
+        );
+    }
+
+    // MQTT 메시지 수신 핸들러 (업로드/텔레메트리는 워커 풀로, 나머지는 콜백 스레드에서 처리)
+    @Bean
+    @ServiceActivator(inputChannel = "mqttInboundChannel")
+    public MessageHandler mqttInboundHandler(MqttInboundService mqttInboundService,
+                                             ThreadPoolTaskExecutor mqttInboundExecutor,
+                                             MeterRegistry meterRegistry) {
+        Counter rejectedCounter = Counter.builder("mqtt.inbound.rejected")
+                .description("워커 큐가 가득 차 처리하지 못하고 버린 업로드/텔레메트리 수")
+                .register(meterRegistry);
+        return message -> {
+            if (!MqttInboundService.isWorkerMessage(message)) {
+                mqttInboundService.handleMessage(message);
+                return;
+            }
+            try {
+                mqttInboundExecutor.execute(() -> mqttInboundService.handleMessage(message));
+            } catch (TaskRejectedException e) {
+                rejectedCounter.increment();
+                log.warn("MQTT inbound queue full, message dropped - Topic: {}",
+                        message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC));
+            }
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.farmguardian.farmguardian.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * 여러 인스턴스로 배포될 때 현재 애플리케이션 인스턴스를 구분하는 식별자
+ * node-id 를 지정하지 않으면 호스트명 + 임의 접미사로 생성한다. (재시작 시 새 식별자)
+ */
+@Slf4j
+@Getter
+@Component
+public class NodeIdentity {
+
+    private final String nodeId;
+
+    public NodeIdentity(@Value("${farmguardian.node-id:}") String configuredNodeId) {
+        this.nodeId = StringUtils.hasText(configuredNodeId) ? configuredNodeId : generateNodeId();
+        log.info("Node identity initialized - NodeId: {}", nodeId);
+    }
+
+    private static String generateNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -2,7 +2,9 @@ package com.farmguardian.farmguardian.config;
 
 import com.farmguardian.farmguardian.config.jwt.JwtFilter;
 import com.farmguardian.farmguardian.config.jwt.JwtTokenProvider;
+import com.farmguardian.farmguardian.service.AccessTokenRevocationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -18,10 +20,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final AccessTokenRevocationService accessTokenRevocationService;
 
+    // cost 는 환경별로 조정 (기본 10, 올리면 기존 해시는 로그인 성공 시 다시 해시된다)
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder(){
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder bCryptPasswordEncoder(@Value("${auth.password.bcrypt-strength:10}") int strength){
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -36,7 +40,10 @@ public class SecurityConfig {
 
                 // 3. authorizeHttpRequests로 요청별 권한 설정
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/",
+                                "/.well-known/jwks.json",
                                 "/api/fcm/**",
                                 "/api/auth/**",
                                 "/api/images/**",
@@ -46,7 +53,7 @@ public class SecurityConfig {
                 )
 
                 // 4. JwtFilter를 UsernamePasswordAuthenticationFilter 앞에 추가
-                .addFilterBefore(new JwtFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtFilter(jwtTokenProvider, accessTokenRevocationService), UsernamePasswordAuthenticationFilter.class);
 
         return httpSecurity.build();
     }
@@ -12,11 +12,21 @@ public class UserDetailsImpl implements UserDetails {
     private final Long userId;
     private final String email;
     private final Collection<? extends GrantedAuthority> authorities;
+    // 인증에 사용한 액세스 토큰의 jti / 만료 시각 (폐기 확인용, jti 없는 토큰이면 null)
+    private final String tokenId;
+    private final long tokenExpiresAtMillis;
 
     public UserDetailsImpl(Long userId, String email, Collection<? extends GrantedAuthority> authorities) {
+        this(userId, email, authorities, null, 0);
+    }
+
+    public UserDetailsImpl(Long userId, String email, Collection<? extends GrantedAuthority> authorities,
+                           String tokenId, long tokenExpiresAtMillis) {
         this.userId = userId;
         this.email = email;
         this.authorities = authorities;
+        this.tokenId = tokenId;
+        this.tokenExpiresAtMillis = tokenExpiresAtMillis;
     }
 
     @Override
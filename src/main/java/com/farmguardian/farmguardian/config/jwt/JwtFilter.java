@@ -1,5 +1,7 @@
 package com.farmguardian.farmguardian.config.jwt;
 
+import com.farmguardian.farmguardian.config.auth.UserDetailsImpl;
+import com.farmguardian.farmguardian.service.AccessTokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +18,7 @@ import java.io.IOException;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final AccessTokenRevocationService accessTokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -24,16 +27,23 @@ public class JwtFilter extends OncePerRequestFilter {
         // 1. Authorization 헤더에서 JWT 토큰 추출
         String token = resolveToken(request);
 
-        // 2. 토큰 검증 및 인증 정보 설정
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-            Authentication authentication = jwtTokenProvider.getAuthentication(token);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        // 2. 토큰 검증 및 인증 정보 설정 (파싱/검증은 한 번만 수행, 폐기된 토큰 제외)
+        if (StringUtils.hasText(token)) {
+            Authentication authentication = jwtTokenProvider.authenticate(token);
+            if (authentication != null && !isRevoked(authentication)) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         // 3. 다음 필터로 진행
         filterChain.doFilter(request, response);
     }
 
+    private boolean isRevoked(Authentication authentication) {
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        return accessTokenRevocationService.isRevoked(principal.getTokenId(), principal.getTokenExpiresAtMillis());
+    }
+
     // Authorization 헤더에서 Bearer 토큰 추출
     private String resolveToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
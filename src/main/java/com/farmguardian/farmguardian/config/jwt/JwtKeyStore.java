@@ -0,0 +1,192 @@
+package com.farmguardian.farmguardian.config.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * JWT 서명/검증 키 모음 (ES256, kid 로 구분)
+ *
+ * jwt.keys.dir 디렉터리의 PEM 파일을 읽는다.
+ * - {kid}.pub : 공개키 (X.509). 검증과 JWKS 에 사용하며, 이 파일이 있는 kid 만 검증된다.
+ * - {kid}.key : 개인키 (PKCS#8). 있으면 서명 후보가 된다.
+ * 서명에는 파일을 둔 지 activation-delay 가 지난 개인키 중 kid 가 가장 큰 것을 쓴다 (그런 키가 없으면 kid 가 가장 작은 키).
+ * 새 키를 두면 다른 노드/서비스가 JWKS 로 공개키를 받아 갈 시간 동안은 이전 키로 계속 서명하고,
+ * 교체 후 이전 키의 .key 를 지우고 .pub 는 액세스 토큰 유효 기간이 지날 때까지 남겨 두면 로그아웃 없이 교체된다.
+ * 디렉터리는 reload-millis 마다 다시 읽는다.
+ *
+ * 디렉터리를 지정하지 않으면 시작할 때 임시 키를 만든다 (로컬/테스트용, 재시작하면 이전 토큰은 검증되지 않는다).
+ */
+@Slf4j
+@Component
+public class JwtKeyStore {
+
+    private static final String PUBLIC_KEY_SUFFIX = ".pub";
+    private static final String PRIVATE_KEY_SUFFIX = ".key";
+
+    private final Path keysDir;
+    private final long activationDelayMillis;
+    private volatile KeySet keySet;
+
+    public JwtKeyStore(@Value("${jwt.keys.dir:}") String keysDir,
+                       @Value("${jwt.keys.activation-delay-millis:600000}") long activationDelayMillis) {
+        this.keysDir = StringUtils.hasText(keysDir) ? Path.of(keysDir) : null;
+        this.activationDelayMillis = activationDelayMillis;
+        this.keySet = this.keysDir != null ? load() : ephemeral();
+    }
+
+    public String getSigningKeyId() {
+        return keySet.signingKeyId;
+    }
+
+    public PrivateKey getSigningKey() {
+        return keySet.signingKey;
+    }
+
+    /**
+     * kid 에 해당하는 공개키 (모르는 kid 면 null)
+     */
+    public ECPublicKey getVerificationKey(String kid) {
+        return keySet.verificationKeys.get(kid);
+    }
+
+    // kid → 공개키 (kid 순)
+    public Map<String, ECPublicKey> getVerificationKeys() {
+        return keySet.verificationKeys;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-millis:60000}")
+    public void reload() {
+        if (keysDir == null) {
+            return;
+        }
+        try {
+            KeySet loaded = load();
+            if (!loaded.signingKeyId.equals(keySet.signingKeyId)
+                    || !loaded.verificationKeys.keySet().equals(keySet.verificationKeys.keySet())) {
+                log.info("JWT keys reloaded - SigningKid: {}, VerificationKids: {}",
+                        loaded.signingKeyId, loaded.verificationKeys.keySet());
+            }
+            keySet = loaded;
+        } catch (RuntimeException e) {
+            // 파일을 교체하는 중일 수 있으므로 기존 키를 유지한다
+            log.warn("Failed to reload JWT keys, keeping current keys - Dir: {}, Reason: {}", keysDir, e.getMessage());
+        }
+    }
+
+    private KeySet load() {
+        Map<String, ECPublicKey> publicKeys = new TreeMap<>();
+        Map<String, Path> privateKeyFiles = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(keysDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PUBLIC_KEY_SUFFIX)) {
+                    publicKeys.put(kidOf(name, PUBLIC_KEY_SUFFIX), (ECPublicKey) readPublicKey(file));
+                } else if (name.endsWith(PRIVATE_KEY_SUFFIX)) {
+                    privateKeyFiles.put(kidOf(name, PRIVATE_KEY_SUFFIX), file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read JWT keys from " + keysDir, e);
+        }
+
+        long activeBefore = System.currentTimeMillis() - activationDelayMillis;
+        String signingKid = null;
+        for (Map.Entry<String, Path> entry : privateKeyFiles.entrySet()) {
+            if (!publicKeys.containsKey(entry.getKey())) {
+                continue;
+            }
+            if (signingKid == null || lastModified(entry.getValue()) <= activeBefore) {
+                signingKid = entry.getKey();
+            }
+        }
+        if (signingKid == null) {
+            throw new IllegalStateException("No JWT signing key (both {kid}.key and {kid}.pub) in " + keysDir);
+        }
+        PrivateKey signingKey = readPrivateKey(privateKeyFiles.get(signingKid));
+        return new KeySet(signingKid, signingKey, Collections.unmodifiableMap(publicKeys));
+    }
+
+    private static KeySet ephemeral() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair keyPair = generator.generateKeyPair();
+            String kid = "ephemeral-" + UUID.randomUUID();
+            log.warn("jwt.keys.dir is not set, using an ephemeral signing key - Kid: {}", kid);
+            return new KeySet(kid, keyPair.getPrivate(), Map.of(kid, (ECPublicKey) keyPair.getPublic()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate ephemeral JWT key", e);
+        }
+    }
+
+    private static String kidOf(String fileName, String suffix) {
+        return fileName.substring(0, fileName.length() - suffix.length());
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PublicKey readPublicKey(Path file) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(readPem(file)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid EC public key: " + file, e);
+        }
+    }
+
+    private static PrivateKey readPrivateKey(Path file) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(readPem(file)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid EC private key (PKCS#8 expected): " + file, e);
+        }
+    }
+
+    // PEM 의 -----BEGIN/END----- 줄을 빼고 Base64 본문만 디코딩
+    private static byte[] readPem(Path file) {
+        try {
+            StringBuilder body = new StringBuilder();
+            for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+                if (!line.startsWith("-----")) {
+                    body.append(line.trim());
+                }
+            }
+            return Base64.getDecoder().decode(body.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record KeySet(String signingKeyId, PrivateKey signingKey, Map<String, ECPublicKey> verificationKeys) {
+    }
+}
@@ -1,50 +1,82 @@
 package com.farmguardian.farmguardian.config.jwt;
 
 import com.farmguardian.farmguardian.config.auth.UserDetailsImpl;
+import com.farmguardian.farmguardian.config.jwt.VerifiedTokenCache.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-
+import java.util.UUID;
+
+/**
+ * JWT 발급/검증
+ * 토큰은 JwtKeyStore 의 현재 키로 ES256 서명하고 헤더에 kid 를 넣는다.
+ * 검증은 kid 로 메모리의 공개키를 찾아 하므로 공유 비밀키나 외부 호출이 필요 없다 (다른 서비스는 /.well-known/jwks.json 사용).
+ * kid 가 없는 토큰은 이전 HS256 방식으로 발급된 것으로 보고 jwt.secret 이 설정된 경우에만 검증한다 (전환 기간용).
+ */
 @Component
 public class JwtTokenProvider {
 
-    private final Key secretKey;
+    private final JwtKeyStore jwtKeyStore;
+    // 이전 HS256 토큰 검증용 (jwt.secret 이 없으면 null)
+    private final Key legacySecretKey;
+    // 키는 kid 로 그때그때 찾으므로 파서는 한 번만 만들어 재사용한다 (스레드 안전)
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final long accessTokenExpiration;
     private final long refreshTokenExpiration;
 
     public JwtTokenProvider(
-            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.secret:}") String secret,
             @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
-            @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes((StandardCharsets.UTF_8)));
+            @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration,
+            VerifiedTokenCache verifiedTokenCache,
+            JwtKeyStore jwtKeyStore) {
+        this.jwtKeyStore = jwtKeyStore;
+        this.legacySecretKey = StringUtils.hasText(secret) ? Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)) : null;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+        this.verifiedTokenCache = verifiedTokenCache;
         this.accessTokenExpiration = accessTokenExpiration;
         this.refreshTokenExpiration = refreshTokenExpiration;
     }
 
-    // 액세스 토큰 생성 (role, userId 포함)
+    // 액세스 토큰 생성 (role, userId 포함, 폐기 확인용 jti 부여)
     public String createAccessToken(String email, String role, Long userId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .claim("role", role)
                 .claim("userId", userId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeyStore.getSigningKeyId())
+                .signWith(jwtKeyStore.getSigningKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
@@ -57,13 +89,28 @@ public class JwtTokenProvider {
                 .setSubject(email)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(secretKey,SignatureAlgorithm.HS256)
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeyStore.getSigningKeyId())
+                .signWith(jwtKeyStore.getSigningKey(), SignatureAlgorithm.ES256)
                 .compact();
     }
 
-    // 토큰에서 이메일 추출
-    public String getEmailFromToken(String token) {
-        return getClaims(token).getSubject();
+    private Key resolveVerificationKey(String kid) {
+        if (kid == null) {
+            if (legacySecretKey == null) {
+                throw new JwtException("Token without kid is not accepted");
+            }
+            return legacySecretKey;
+        }
+        Key key = jwtKeyStore.getVerificationKey(kid);
+        if (key == null) {
+            throw new JwtException("Unknown kid: " + kid);
+        }
+        return key;
+    }
+
+    // 리프레시 토큰 유효 기간 (ms)
+    public long getRefreshTokenExpiration() {
+        return refreshTokenExpiration;
     }
 
     // 토큰 검증
@@ -79,36 +126,45 @@ public class JwtTokenProvider {
 
     // Claims 추출
     private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
-    // 토큰에서 Role 추출
-    public String getRoleFromToken(String token) {
-        return getClaims(token).get("role", String.class);
-    }
-
-    // 토큰에서 userId 추출
-    public Long getUserIdFromToken(String token) {
-        return getClaims(token).get("userId", Long.class);
+    /**
+     * 액세스 토큰 인증 (유효하지 않으면 null)
+     * 토큰당 한 번만 파싱/서명 검증하고, 같은 토큰이 다시 오면 exp 전까지 캐시된 값을 쓴다. (exp 가 없는 토큰은 캐시하지 않는다)
+     */
+    public Authentication authenticate(String token) {
+        VerifiedToken verified = verifiedTokenCache.get(token);
+        if (verified == null) {
+            Claims claims;
+            try {
+                claims = getClaims(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+            if (claims.getExpiration() == null) {
+                return toAuthentication(claims.getSubject(), claims.get("role", String.class), claims.get("userId", Long.class),
+                        claims.getId(), 0);
+            }
+            verified = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("userId", Long.class),
+                    claims.getId(),
+                    claims.getExpiration().getTime());
+            verifiedTokenCache.put(token, verified);
+        }
+        return toAuthentication(verified.email(), verified.role(), verified.userId(), verified.tokenId(), verified.expiresAtMillis());
     }
 
-    // Authentication 객체 생성 (AccessToken 에 대해, RefreshToken X)
-    public Authentication getAuthentication(String token) {
-        String email = getEmailFromToken(token);
-        String role = getRoleFromToken(token);
-        Long userId = getUserIdFromToken(token);
-
+    private Authentication toAuthentication(String email, String role, Long userId, String tokenId, long expiresAtMillis) {
         // ROLE_ prefix 형식 추가
         List<SimpleGrantedAuthority> authorities = Collections.singletonList(
                 new SimpleGrantedAuthority("ROLE_" + role)
         );
 
         // UserDetailsImpl 사용 (userId 포함)
-        UserDetailsImpl userDetails = new UserDetailsImpl(userId, email, authorities);
+        UserDetailsImpl userDetails = new UserDetailsImpl(userId, email, authorities, tokenId, expiresAtMillis);
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 }
@@ -0,0 +1,124 @@
+package com.farmguardian.farmguardian.config.jwt;
+
+import com.farmguardian.farmguardian.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 폐기된 액세스 토큰 jti 의 메모리 Bloom filter (시간 파티션)
+ *
+ * - 토큰 만료 시각(exp)을 partitionMillis 단위 구간으로 나누고, 구간마다 Bloom filter 를 하나씩 둔다.
+ *   조회 시에는 토큰의 exp 가 속한 구간 하나만 확인하므로 요청당 해시 계산은 한 번이다.
+ * - 살아 있는 토큰의 exp 는 최대 access-token-expiration 범위라 partitions + 1 개 슬롯을 돌려 쓰고,
+ *   구간이 끝난(그 안의 토큰이 모두 만료된) 파티션은 통째로 버린다. Bloom filter 는 삭제가 안 되지만 이렇게 비운다.
+ * - true 는 "폐기됐을 수 있음"이라 호출자가 DB 로 확인해야 한다.
+ */
+@Component
+public class RevokedTokenFilter {
+
+    private final AtomicReferenceArray<Partition> slots;
+    private final long partitionMillis;
+    private final int expectedPerPartition;
+    private final double fpp;
+
+    public RevokedTokenFilter(MeterRegistry meterRegistry,
+                              @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
+                              @Value("${jwt.revocation.partitions:4}") int partitions,
+                              @Value("${jwt.revocation.expected-per-partition:10000}") int expectedPerPartition,
+                              @Value("${jwt.revocation.fpp:0.001}") double fpp) {
+        this.partitionMillis = Math.max(1000, (accessTokenExpiration + partitions - 1) / partitions);
+        this.slots = new AtomicReferenceArray<>(partitions + 1);
+        this.expectedPerPartition = expectedPerPartition;
+        this.fpp = fpp;
+
+        Gauge.builder("jwt.revocation.filter.bytes", this, filter -> filter.totalBits() / 8.0)
+                .description("폐기 토큰 Bloom filter 가 차지하는 메모리 (바이트)")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revocation.filter.entries", this, RevokedTokenFilter::totalInsertions)
+                .description("폐기 토큰 Bloom filter 에 들어 있는 jti 수")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revocation.filter.fpp", this, RevokedTokenFilter::maxExpectedFpp)
+                .description("파티션 중 가장 높은 예상 오탐률")
+                .register(meterRegistry);
+    }
+
+    public void add(String jti, long expiresAtMillis) {
+        long bucket = expiresAtMillis / partitionMillis;
+        int slot = (int) Math.floorMod(bucket, (long) slots.length());
+        while (true) {
+            Partition partition = slots.get(slot);
+            if (partition != null && partition.bucket == bucket) {
+                partition.filter.put(jti);
+                return;
+            }
+            if (partition != null && partition.bucket > bucket) {
+                // 이미 다음 구간이 슬롯을 쓰고 있음 = 이 토큰은 만료됨
+                return;
+            }
+            Partition created = new Partition(bucket, new BloomFilter(expectedPerPartition, fpp));
+            if (slots.compareAndSet(slot, partition, created)) {
+                created.filter.put(jti);
+                return;
+            }
+        }
+    }
+
+    public boolean mightBeRevoked(String jti, long expiresAtMillis) {
+        long bucket = expiresAtMillis / partitionMillis;
+        Partition partition = slots.get((int) Math.floorMod(bucket, (long) slots.length()));
+        return partition != null && partition.bucket == bucket && partition.filter.mightContain(jti);
+    }
+
+    // 구간 안의 토큰이 모두 만료된 파티션 제거
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-millis:60000}")
+    public void evictExpired() {
+        long currentBucket = System.currentTimeMillis() / partitionMillis;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Partition partition = slots.get(slot);
+            if (partition != null && partition.bucket < currentBucket) {
+                slots.compareAndSet(slot, partition, null);
+            }
+        }
+    }
+
+    private long totalBits() {
+        long bits = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Partition partition = slots.get(slot);
+            if (partition != null) {
+                bits += partition.filter.bitSize();
+            }
+        }
+        return bits;
+    }
+
+    private long totalInsertions() {
+        long insertions = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Partition partition = slots.get(slot);
+            if (partition != null) {
+                insertions += partition.filter.insertions();
+            }
+        }
+        return insertions;
+    }
+
+    private double maxExpectedFpp() {
+        double max = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            Partition partition = slots.get(slot);
+            if (partition != null) {
+                max = Math.max(max, partition.filter.expectedFpp());
+            }
+        }
+        return max;
+    }
+
+    private record Partition(long bucket, BloomFilter filter) {
+    }
+}
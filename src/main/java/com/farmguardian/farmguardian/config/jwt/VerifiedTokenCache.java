@@ -0,0 +1,95 @@
+package com.farmguardian.farmguardian.config.jwt;
+
+import com.farmguardian.farmguardian.util.StripedLruCache;
+import com.farmguardian.farmguardian.util.TokenDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 서명 검증을 마친 액세스 토큰의 인증 정보 캐시
+ *
+ * - 토큰 원문 대신 SHA-256 다이제스트를 키로 보관한다.
+ * - 항목은 토큰의 exp 시각에 만료되므로, 캐시를 거쳐도 만료된 토큰이 통과하지 않는다.
+ * - 약 max-size 개까지 보관하고, 넘치면 가장 오래 쓰이지 않은 토큰을 버린다 (stripe 별 LRU, 새 토큰은 항상 캐시).
+ * - 만료 항목 정리는 sweep-millis 마다 한 번만 하고, 요청 경로에서는 전체를 훑지 않는다.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final int STRIPES = 16;
+
+    private final StripedLruCache<TokenDigest, VerifiedToken> entries;
+    private final boolean enabled;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.enabled = enabled;
+        this.entries = new StripedLruCache<>(STRIPES, maxSize);
+        this.hitCounter = Counter.builder("jwt.cache.requests")
+                .description("인증 정보 캐시 조회 수")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("jwt.cache.requests")
+                .description("인증 정보 캐시 조회 수")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("jwt.cache.size", entries, StripedLruCache::size)
+                .description("캐시된 액세스 토큰 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.evicted", entries, StripedLruCache::evictions)
+                .description("크기 제한으로 버린 액세스 토큰 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 인증 정보 (없거나 만료됐으면 null)
+     */
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken verified = entries.get(digest);
+        if (verified == null) {
+            missCounter.increment();
+            return null;
+        }
+        if (verified.isExpired(System.currentTimeMillis())) {
+            entries.remove(digest, verified);
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return verified;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (!enabled) {
+            return;
+        }
+        entries.put(TokenDigest.of(token), verified);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.cache.sweep-millis:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.removeIf(verified -> verified.isExpired(now));
+    }
+
+    /**
+     * 검증을 마친 토큰의 인증에 필요한 값
+     */
+    public record VerifiedToken(String email, String role, Long userId, String tokenId, long expiresAtMillis) {
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.farmguardian.farmguardian.controller;
+
+import com.farmguardian.farmguardian.dto.response.DeviceImportResponseDto;
+import com.farmguardian.farmguardian.service.DeviceImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/devices")
+@RequiredArgsConstructor
+public class AdminDeviceController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final DeviceImportService deviceImportService;
+
+    // 디바이스 일괄 등록 (본문을 @RequestBody 로 받지 않고 스트림으로 읽는다)
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<DeviceImportResponseDto> importDevices(HttpServletRequest request) throws IOException {
+        DeviceImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? DeviceImportService.Format.NDJSON
+                : DeviceImportService.Format.CSV;
+        DeviceImportResponseDto response = deviceImportService.importDevices(request.getInputStream(), format);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -7,6 +7,7 @@ import com.farmguardian.farmguardian.dto.request.SignOutRequestDto;
 import com.farmguardian.farmguardian.dto.request.SignUpRequestDto;
 import com.farmguardian.farmguardian.dto.response.TokenResponseDto;
 import com.farmguardian.farmguardian.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -29,8 +30,10 @@ public class AuthController {
 
     // 로그인
     @PostMapping("/signin")
-    public ResponseEntity<TokenResponseDto> signIn(@Valid @RequestBody SignInRequestDto request) {
-        TokenResponseDto response = authService.signIn(request);
+    public ResponseEntity<TokenResponseDto> signIn(@Valid @RequestBody SignInRequestDto request,
+                                                   HttpServletRequest httpRequest) {
+        // 신뢰하는 프록시 뒤라면 RemoteIpValve 가 X-Forwarded-For 의 클라이언트 IP 로 바꿔 둔다
+        TokenResponseDto response = authService.signIn(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
@@ -40,7 +43,8 @@ public class AuthController {
             @AuthenticationPrincipal UserDetailsImpl userDetails,
             @Valid @RequestBody SignOutRequestDto request) {
         Long userId = userDetails.getUserId();
-        authService.signOut(userId, request.getRefreshToken(), request.getClientUuid());
+        authService.signOut(userId, request.getRefreshToken(), request.getClientUuid(),
+                userDetails.getTokenId(), userDetails.getTokenExpiresAtMillis());
         return ResponseEntity.ok().build();
     }
 
@@ -48,7 +52,7 @@ public class AuthController {
     @DeleteMapping("/withdraw")
     public ResponseEntity<Void> withdraw(@AuthenticationPrincipal UserDetailsImpl userDetails) {
         Long userId = userDetails.getUserId();
-        authService.withdraw(userId);
+        authService.withdraw(userId, userDetails.getTokenId(), userDetails.getTokenExpiresAtMillis());
         return ResponseEntity.ok().build();
     }
 
@@ -1,15 +1,21 @@
 package com.farmguardian.farmguardian.controller;
 
 import com.farmguardian.farmguardian.config.auth.UserDetailsImpl;
+import com.farmguardian.farmguardian.dto.request.CaptureScheduleRequestDto;
 import com.farmguardian.farmguardian.dto.request.DeviceConnectRequestDto;
 import com.farmguardian.farmguardian.dto.request.DeviceUpdateRequestDto;
+import com.farmguardian.farmguardian.dto.response.CaptureScheduleResponseDto;
 import com.farmguardian.farmguardian.dto.response.DeviceResponseDto;
+import com.farmguardian.farmguardian.dto.response.DeviceWhitelistResponseDto;
+import com.farmguardian.farmguardian.service.CaptureScheduleService;
 import com.farmguardian.farmguardian.service.DeviceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,6 +25,7 @@ import java.util.List;
 public class DeviceController {
 
     private final DeviceService deviceService;
+    private final CaptureScheduleService captureScheduleService;
 
     // 디바이스 연결
     @PostMapping("/connect")
@@ -30,12 +37,24 @@ public class DeviceController {
         return ResponseEntity.ok(response);
     }
 
-    // 연결 가능한 디바이스 목록 조회 (화이트리스트)
+    // 연결 가능한 디바이스 목록 조회 (화이트리스트, cursor 페이징)
+    // 목록이 바뀌지 않았으면 조회 없이 304 (If-None-Match)
     @GetMapping("/available")
-    public ResponseEntity<List<DeviceResponseDto>> getAvailableDevices() {
-        List<DeviceResponseDto> responses = deviceService.getAvailableDevices();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<DeviceWhitelistResponseDto> getAvailableDevices(
+            @RequestParam(name = "cursor", required = false) Long cursor,
+            @RequestParam(name = "size", defaultValue = "100") int size,
+            WebRequest webRequest) {
+        String eTag = "\"" + deviceService.getAvailableDevicesVersion() + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        DeviceWhitelistResponseDto response = deviceService.getAvailableDevices(cursor, size);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
+
     // 내 디바이스 목록 조회
     @GetMapping
     public ResponseEntity<List<DeviceResponseDto>> getMyDevices(
@@ -76,4 +95,34 @@ public class DeviceController {
         return ResponseEntity.ok().build();
     }
 
-}
\ No newline at end of file
+    // 주기 촬영 스케줄 등록/수정
+    @PutMapping("/{deviceId}/capture-schedule")
+    public ResponseEntity<CaptureScheduleResponseDto> upsertCaptureSchedule(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable("deviceId") Long deviceId,
+            @Valid @RequestBody CaptureScheduleRequestDto request) {
+        Long userId = userDetails.getUserId();
+        CaptureScheduleResponseDto response = captureScheduleService.upsertSchedule(userId, deviceId, request);
+        return ResponseEntity.ok(response);
+    }
+
+    // 주기 촬영 스케줄 조회
+    @GetMapping("/{deviceId}/capture-schedule")
+    public ResponseEntity<CaptureScheduleResponseDto> getCaptureSchedule(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable("deviceId") Long deviceId) {
+        Long userId = userDetails.getUserId();
+        CaptureScheduleResponseDto response = captureScheduleService.getSchedule(userId, deviceId);
+        return ResponseEntity.ok(response);
+    }
+
+    // 주기 촬영 스케줄 해제
+    @DeleteMapping("/{deviceId}/capture-schedule")
+    public ResponseEntity<Void> disableCaptureSchedule(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable("deviceId") Long deviceId) {
+        Long userId = userDetails.getUserId();
+        captureScheduleService.disableSchedule(userId, deviceId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.farmguardian.farmguardian.controller;
+
+import com.farmguardian.farmguardian.config.jwt.JwtKeyStore;
+import com.farmguardian.farmguardian.dto.response.JwksResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyStore jwtKeyStore;
+
+    // JWT 검증용 공개키 목록 (다른 서비스가 kid 로 찾아 로컬에서 검증)
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<JwksResponseDto> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(JwksResponseDto.from(jwtKeyStore.getVerificationKeys()));
+    }
+}
@@ -1,7 +1,12 @@
 package com.farmguardian.farmguardian.controller;
 
 import com.farmguardian.farmguardian.config.auth.UserDetailsImpl;
+import com.farmguardian.farmguardian.dto.request.FleetCaptureRequestDto;
+import com.farmguardian.farmguardian.dto.response.CaptureCommandResponseDto;
+import com.farmguardian.farmguardian.dto.response.FleetCaptureResponseDto;
+import com.farmguardian.farmguardian.service.CaptureRequestCoalescer;
 import com.farmguardian.farmguardian.service.MqttService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,20 +18,30 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final MqttService mqttService;
+    private final CaptureRequestCoalescer captureRequestCoalescer;
 
     @GetMapping("/")
     public String home() {
         return "Welcome to API!";
     }
 
-    // 디바이스 촬영 요청
+    // 디바이스 촬영 요청 (진행 중인 촬영이 있으면 새로 발행하지 않고 그 명령에 합친다)
     @PostMapping("/{userId}/devices/{deviceId}/capture")
-    public ResponseEntity<String> requestCapture(
+    public ResponseEntity<CaptureCommandResponseDto> requestCapture(
             @PathVariable("userId") Long userId,
             @PathVariable("deviceId") Long deviceId) {
         //Long userId = userDetails.getUserId();
-        mqttService.requestCapture(userId, deviceId);
-        return ResponseEntity.ok("Capture command sent successfully");
+        CaptureCommandResponseDto response = captureRequestCoalescer.requestCapture(userId, deviceId);
+        return ResponseEntity.ok(response);
+    }
+
+    // 여러 디바이스 일괄 촬영 요청 (전체, 작물별, 디바이스 목록)
+    @PostMapping("/{userId}/devices/capture")
+    public ResponseEntity<FleetCaptureResponseDto> requestFleetCapture(
+            @PathVariable("userId") Long userId,
+            @Valid @RequestBody FleetCaptureRequestDto request) {
+        FleetCaptureResponseDto response = mqttService.requestFleetCapture(userId, request);
+        return ResponseEntity.ok(response);
     }
 
 }
@@ -0,0 +1,77 @@
+package com.farmguardian.farmguardian.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+/**
+ * 디바이스별 주기 촬영 스케줄
+ * 삭제 대신 비활성화(enabled=false)하여, 다른 인스턴스가 updated_at 기준 증분 동기화로 변경을 감지할 수 있게 한다.
+ */
+@Entity
+@Table(name = "capture_schedules",
+        indexes = @Index(name = "idx_capture_schedules_updated_at", columnList = "updated_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CaptureSchedule extends BaseDate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "capture_schedule_id")
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "device_id", nullable = false, unique = true)
+    private Device device;
+
+    // 촬영 명령 토픽 생성용 (발행 시 Device 조회 없이 사용)
+    @Column(name = "device_uuid", nullable = false)
+    private String deviceUuid;
+
+    @Column(name = "interval_minutes", nullable = false)
+    private Integer intervalMinutes;
+
+    // 촬영 허용 시간대 (null 이면 종일, 야간 제한은 항상 적용)
+    @Column(name = "active_start")
+    private LocalTime activeStart;
+
+    @Column(name = "active_end")
+    private LocalTime activeEnd;
+
+    @Column(name = "enabled", nullable = false)
+    private boolean enabled;
+
+    // 최근 분석 결과에 따른 촬영 빈도 배율 (해충 감지 시 증가, 정상이면 1.0으로 감쇠, null 이면 1.0)
+    @Column(name = "rate_multiplier")
+    private Double rateMultiplier;
+
+    @Builder
+    public CaptureSchedule(Device device, Integer intervalMinutes, LocalTime activeStart, LocalTime activeEnd) {
+        this.device = device;
+        this.deviceUuid = device.getDeviceUuid();
+        this.intervalMinutes = intervalMinutes;
+        this.activeStart = activeStart;
+        this.activeEnd = activeEnd;
+        this.enabled = true;
+    }
+
+    public void update(Integer intervalMinutes, LocalTime activeStart, LocalTime activeEnd, boolean enabled) {
+        this.deviceUuid = device.getDeviceUuid();
+        this.intervalMinutes = intervalMinutes;
+        this.activeStart = activeStart;
+        this.activeEnd = activeEnd;
+        this.enabled = enabled;
+    }
+
+    public void disable() {
+        this.enabled = false;
+    }
+
+    public double getEffectiveRateMultiplier() {
+        return rateMultiplier != null ? rateMultiplier : 1.0;
+    }
+}
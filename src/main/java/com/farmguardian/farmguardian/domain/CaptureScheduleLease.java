@@ -0,0 +1,33 @@
+package com.farmguardian.farmguardian.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주기 촬영 스케줄 파티션 임대(lease)
+ * 디바이스는 device_id % 파티션 수 로 파티션에 배정되고, 각 파티션은 한 시점에 한 인스턴스만 소유한다.
+ */
+@Entity
+@Table(name = "capture_schedule_leases")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CaptureScheduleLease {
+
+    @Id
+    @Column(name = "partition_no")
+    private Integer partitionNo;
+
+    @Column(name = "owner_id")
+    private String owner;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    public CaptureScheduleLease(Integer partitionNo) {
+        this.partitionNo = partitionNo;
+    }
+}
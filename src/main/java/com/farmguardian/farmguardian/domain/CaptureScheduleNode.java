@@ -0,0 +1,31 @@
+package com.farmguardian.farmguardian.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 주기 촬영 스케줄을 나눠 맡는 인스턴스 목록 (heartbeat)
+ * 살아있는 인스턴스 수로 파티션 공정 분배량을 계산한다.
+ */
+@Entity
+@Table(name = "capture_schedule_nodes")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CaptureScheduleNode {
+
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public CaptureScheduleNode(String nodeId, LocalDateTime expiresAt) {
+        this.nodeId = nodeId;
+        this.expiresAt = expiresAt;
+    }
+}
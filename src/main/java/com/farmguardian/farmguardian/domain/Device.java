@@ -12,10 +12,11 @@ import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
-@Table(name = "devices")
+@Table(name = "devices",
+        indexes = @Index(name = "idx_devices_status_id", columnList = "status, device_id"))
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@SQLDelete(sql = "UPDATE devices SET deleted_at = CURRENT_TIMESTAMP WHERE device_id = ?")
+@SQLDelete(sql = "UPDATE devices SET deleted_at = CURRENT_TIMESTAMP WHERE device_id = ? AND version = ?")
 @SQLRestriction("deleted_at IS NULL")
 public class Device extends BaseDate {
 
@@ -47,6 +48,11 @@ public class Device extends BaseDate {
     @Column(name = "longitude", precision = 10, scale = 7)
     private BigDecimal longitude;
 
+    // 수정/해제는 버전으로 동시 변경을 막는다 (연결은 DeviceRepository.claim 의 조건부 UPDATE 로 선점)
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Builder
     public Device(String deviceUuid, TargetCrop targetCrop, User user, BigDecimal latitude, BigDecimal longitude) {
         this.deviceUuid = deviceUuid != null ? deviceUuid : UUID.randomUUID().toString();
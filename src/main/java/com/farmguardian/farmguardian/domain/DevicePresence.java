@@ -0,0 +1,7 @@
+package com.farmguardian.farmguardian.domain;
+
+public enum DevicePresence {
+    ONLINE,   // 최근 하트비트 수신
+    OFFLINE,  // Last Will 수신 또는 하트비트 끊김
+    UNKNOWN   // 서버 시작 후 아직 상태를 받지 못함
+}
@@ -5,10 +5,13 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Getter
 @Table(name = "refresh_tokens",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "client_uuid"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "client_uuid"}),
+        indexes = @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class RefreshToken {
 
@@ -20,20 +23,26 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // 토큰 원문 대신 SHA-256 다이제스트(32바이트)만 저장한다
+    @Column(name = "token_hash", nullable = false, unique = true, length = 32)
+    private byte[] tokenHash;
 
     @Column(name = "client_uuid", nullable = false)
     private String clientUuid;
 
-    public RefreshToken(User user, String token, String clientUuid) {
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public RefreshToken(User user, byte[] tokenHash, String clientUuid, LocalDateTime expiresAt) {
         this.user = user;
-        this.token = token;
+        this.tokenHash = tokenHash;
         this.clientUuid = clientUuid;
+        this.expiresAt = expiresAt;
     }
 
-    public RefreshToken updateToken(String newToken){
-        this.token = newToken;
+    public RefreshToken updateToken(byte[] newTokenHash, LocalDateTime newExpiresAt) {
+        this.tokenHash = newTokenHash;
+        this.expiresAt = newExpiresAt;
         return this;
     }
 }
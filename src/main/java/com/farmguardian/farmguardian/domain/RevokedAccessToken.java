@@ -0,0 +1,40 @@
+package com.farmguardian.farmguardian.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 만료 전에 폐기(로그아웃/탈퇴)된 액세스 토큰
+ * 메모리 Bloom filter 가 "폐기됐을 수 있음"이라고 답한 토큰만 이 테이블로 확인한다. 만료된 행은 주기적으로 지운다.
+ */
+@Entity
+@Getter
+@Table(name = "revoked_access_tokens",
+        indexes = @Index(name = "idx_revoked_access_tokens_expires_at", columnList = "expires_at"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class RevokedAccessToken {
+
+    @Id
+    @Column(name = "jti", length = 36)
+    private String jti;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    public RevokedAccessToken(String jti, Long userId, LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = LocalDateTime.now();
+    }
+}
@@ -34,4 +34,9 @@ public class User extends BaseDate {
         this.password = password;
         this.role = role;
     }
+
+    // 비밀번호 해시 교체 (BCrypt cost 변경 시 재해시)
+    public void changePassword(String encodedPassword) {
+        this.password = encodedPassword;
+    }
 }
@@ -0,0 +1,27 @@
+package com.farmguardian.farmguardian.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CaptureScheduleRequestDto {
+
+    @NotNull(message = "촬영 주기는 필수입니다")
+    @Min(value = 5, message = "촬영 주기는 5분 이상이어야 합니다")
+    @Max(value = 1440, message = "촬영 주기는 1440분 이하여야 합니다")
+    private Integer intervalMinutes;
+
+    // 촬영 허용 시간대 (미지정 시 종일, 야간 19:00 ~ 06:00 은 항상 제외)
+    private LocalTime activeStart;
+    private LocalTime activeEnd;
+
+    private Boolean enabled;
+}
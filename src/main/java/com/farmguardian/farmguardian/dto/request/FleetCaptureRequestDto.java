@@ -0,0 +1,29 @@
+package com.farmguardian.farmguardian.dto.request;
+
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class FleetCaptureRequestDto {
+
+    // 지정 시 해당 디바이스만 촬영 (미지정 시 사용자의 연결된 전체 디바이스)
+    @Size(max = 1000, message = "한 번에 최대 1000개의 디바이스만 지정할 수 있습니다")
+    private List<Long> deviceIds;
+
+    // 지정 시 해당 작물의 디바이스만 촬영
+    private TargetCrop targetCrop;
+
+    // 디바이스 간 명령 전송 간격(ms), 업로드가 분석 서버에 한꺼번에 몰리지 않도록 분산
+    @PositiveOrZero(message = "전송 간격은 0 이상이어야 합니다")
+    @Max(value = 60000, message = "전송 간격은 60000ms 이하여야 합니다")
+    private Long staggerMillis;
+}
@@ -20,4 +20,7 @@ public class ImageMetadataRequestDto {
     private Double temperature;
 
     private Double humidity;
+
+    // 촬영 명령의 correlationId (명령에 의한 촬영이 아니거나 구버전 펌웨어면 없음)
+    private String correlationId;
 }
@@ -0,0 +1,19 @@
+package com.farmguardian.farmguardian.dto.response;
+
+import com.farmguardian.farmguardian.dto.response.FleetCaptureResponseDto.DispatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CaptureCommandResponseDto {
+    private Long deviceId;
+    private String deviceUuid;
+    private String correlationId;   // 업로드/분석 결과와 촬영 명령을 연결하는 ID (대기열에 보관했으면 재접속 후 발행할 때 정해지므로 null)
+    private DispatchStatus status;  // SENT(즉시 전송) 또는 QUEUED(오프라인이라 보관했다가 재접속 시 전송)
+    private boolean coalesced;      // 진행 중인 촬영 명령에 합쳐져 새로 발행하지 않았는지 여부
+
+    public CaptureCommandResponseDto asCoalesced() {
+        return new CaptureCommandResponseDto(deviceId, deviceUuid, correlationId, status, true);
+    }
+}
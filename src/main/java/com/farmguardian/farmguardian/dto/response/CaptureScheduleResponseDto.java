@@ -0,0 +1,38 @@
+package com.farmguardian.farmguardian.dto.response;
+
+import com.farmguardian.farmguardian.domain.CaptureSchedule;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class CaptureScheduleResponseDto {
+    private Long deviceId;
+    private Integer intervalMinutes;
+    private LocalTime activeStart;
+    private LocalTime activeEnd;
+    private Boolean enabled;
+    // 최근 분석 결과에 따른 촬영 빈도 배율
+    private Double rateMultiplier;
+    // 배율과 추론 예산을 반영한 실제 촬영 주기 (초)
+    private Long effectiveIntervalSeconds;
+    private LocalDateTime updatedAt;
+
+    public static CaptureScheduleResponseDto from(CaptureSchedule schedule, long effectiveIntervalMillis) {
+        return CaptureScheduleResponseDto.builder()
+                .deviceId(schedule.getDevice().getId())
+                .intervalMinutes(schedule.getIntervalMinutes())
+                .activeStart(schedule.getActiveStart())
+                .activeEnd(schedule.getActiveEnd())
+                .enabled(schedule.isEnabled())
+                .rateMultiplier(schedule.getEffectiveRateMultiplier())
+                .effectiveIntervalSeconds(effectiveIntervalMillis / 1000)
+                .updatedAt(schedule.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.farmguardian.farmguardian.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 디바이스 일괄 등록 결과
+ * errors 는 앞에서부터 device.import.max-reported-errors 개까지만 담는다 (넘치면 errorsTruncated).
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class DeviceImportResponseDto {
+    private long read;          // 빈 줄/헤더를 뺀 행 수
+    private long inserted;      // 새로 등록한 디바이스 수
+    private long duplicates;    // 이미 등록됐거나 파일 안에서 반복된 UUID
+    private long invalid;       // 형식이 잘못된 행
+    private long failed;        // 다른 등록과 계속 겹쳐 저장하지 못한 행 (다시 올리면 등록된다)
+    private long elapsedMillis;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String reason;
+    }
+}
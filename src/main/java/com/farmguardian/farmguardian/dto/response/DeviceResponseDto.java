@@ -1,6 +1,7 @@
 package com.farmguardian.farmguardian.dto.response;
 
 import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.domain.DevicePresence;
 import com.farmguardian.farmguardian.domain.TargetCrop;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,6 +25,9 @@ public class DeviceResponseDto {
     private BigDecimal longitude;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // MQTT 하트비트/Last Will 기반 접속 상태
+    private DevicePresence presence;
+    private LocalDateTime lastSeenAt;
 
     public static DeviceResponseDto from(Device device) {
         return DeviceResponseDto.builder()
@@ -38,4 +42,11 @@ public class DeviceResponseDto {
                 .updatedAt(device.getUpdatedAt())
                 .build();
     }
+
+    public static DeviceResponseDto from(Device device, DevicePresence presence, LocalDateTime lastSeenAt) {
+        DeviceResponseDto response = from(device);
+        response.setPresence(presence);
+        response.setLastSeenAt(lastSeenAt);
+        return response;
+    }
 }
\ No newline at end of file
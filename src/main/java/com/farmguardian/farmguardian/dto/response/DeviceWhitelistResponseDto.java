@@ -0,0 +1,20 @@
+package com.farmguardian.farmguardian.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 연결 가능한 디바이스 목록 한 페이지
+ * 다음 페이지는 nextCursor 를 cursor 로 넘겨 조회한다 (마지막 페이지면 null).
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class DeviceWhitelistResponseDto {
+    private List<DeviceResponseDto> devices;
+    private Long nextCursor;
+    private boolean hasNext;
+}
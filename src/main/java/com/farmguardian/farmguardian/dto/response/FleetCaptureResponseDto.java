@@ -0,0 +1,59 @@
+package com.farmguardian.farmguardian.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class FleetCaptureResponseDto {
+    private int requested;
+    private int sent;
+    private int scheduled;
+    private int queued;
+    private int offline;
+    private int failed;
+    private List<DeviceDispatchResult> results;
+
+    public static FleetCaptureResponseDto from(List<DeviceDispatchResult> results) {
+        return FleetCaptureResponseDto.builder()
+                .requested(results.size())
+                .sent(count(results, DispatchStatus.SENT))
+                .scheduled(count(results, DispatchStatus.SCHEDULED))
+                .queued(count(results, DispatchStatus.QUEUED))
+                .offline(count(results, DispatchStatus.OFFLINE))
+                .failed(results.size()
+                        - count(results, DispatchStatus.SENT)
+                        - count(results, DispatchStatus.SCHEDULED)
+                        - count(results, DispatchStatus.QUEUED)
+                        - count(results, DispatchStatus.OFFLINE))
+                .results(results)
+                .build();
+    }
+
+    private static int count(List<DeviceDispatchResult> results, DispatchStatus status) {
+        return (int) results.stream()
+                .filter(result -> result.getStatus() == status)
+                .count();
+    }
+
+    public enum DispatchStatus {
+        SENT,       // 즉시 전송됨
+        SCHEDULED,  // 전송 간격에 따라 예약됨
+        QUEUED,     // 디바이스가 오프라인이라 보관했다가 재접속 시 전송
+        OFFLINE,    // 디바이스가 오프라인이고 대기열이 가득 차 전송하지 않음
+        FAILED,     // 전송 실패
+        REJECTED    // 존재하지 않거나 권한이 없거나 연결되지 않은 디바이스
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class DeviceDispatchResult {
+        private Long deviceId;
+        private String deviceUuid;
+        private DispatchStatus status;
+    }
+}
@@ -0,0 +1,21 @@
+package com.farmguardian.farmguardian.dto.response;
+
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 상태 × 작물별 디바이스 수 (작물이 없으면 NONE)
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class FleetCountsResponseDto {
+    private long total;
+    private Map<DeviceStatus, Long> byStatus;
+    private Map<String, Long> byCrop;
+    private Map<DeviceStatus, Map<String, Long>> byStatusAndCrop;
+}
@@ -0,0 +1,54 @@
+package com.farmguardian.farmguardian.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigInteger;
+import java.security.interfaces.ECPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JWT 검증용 공개키 목록 (RFC 7517 JWK Set, P-256 / ES256)
+ */
+@Getter
+@AllArgsConstructor
+public class JwksResponseDto {
+
+    private List<Jwk> keys;
+
+    public static JwksResponseDto from(Map<String, ECPublicKey> publicKeys) {
+        return new JwksResponseDto(publicKeys.entrySet().stream()
+                .map(entry -> Jwk.from(entry.getKey(), entry.getValue()))
+                .toList());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Jwk {
+        private String kty;
+        private String crv;
+        private String kid;
+        private String use;
+        private String alg;
+        private String x;
+        private String y;
+
+        static Jwk from(String kid, ECPublicKey publicKey) {
+            return new Jwk("EC", "P-256", kid, "sig", "ES256",
+                    coordinate(publicKey.getW().getAffineX()),
+                    coordinate(publicKey.getW().getAffineY()));
+        }
+
+        // 좌표는 32바이트 big-endian 으로 맞춘 뒤 base64url (패딩 없음)
+        private static String coordinate(BigInteger value) {
+            byte[] bytes = value.toByteArray();
+            byte[] fixed = new byte[32];
+            int length = Math.min(bytes.length, 32);
+            System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+        }
+    }
+}
@@ -17,12 +17,15 @@ public enum ErrorCode {
     UNAUTHORIZED(HttpStatus.UNAUTHORIZED, "AUTH_006", "인증이 필요합니다"),
     REFRESH_TOKEN_NOT_FOUND(HttpStatus.UNAUTHORIZED, "AUTH_007", "리프레시 토큰을 찾을 수 없습니다"),
     CLIENT_UUID_MISMATCH(HttpStatus.UNAUTHORIZED, "AUTH_008", "디바이스 정보가 일치하지 않습니다"),
+    AUTH_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "AUTH_009", "로그인 요청이 많습니다. 잠시 후 다시 시도해주세요"),
+    TOO_MANY_LOGIN_ATTEMPTS(HttpStatus.TOO_MANY_REQUESTS, "AUTH_010", "로그인 시도가 너무 많습니다. 잠시 후 다시 시도해주세요"),
 
     // Device
     DEVICE_NOT_FOUND(HttpStatus.NOT_FOUND, "DEVICE_001", "존재하지 않는 디바이스입니다"),
     DEVICE_ALREADY_CONNECTED(HttpStatus.CONFLICT, "DEVICE_002", "이미 연결된 디바이스입니다"),
     UNAUTHORIZED_DEVICE_ACCESS(HttpStatus.FORBIDDEN, "DEVICE_003", "디바이스 접근 권한이 없습니다"),
     DEVICE_NOT_CONNECTED(HttpStatus.BAD_REQUEST, "DEVICE_004", "연결되지 않은 디바이스입니다"),
+    DEVICE_OFFLINE(HttpStatus.CONFLICT, "DEVICE_005", "디바이스가 오프라인 상태입니다"),
 
     // Image
     IMAGE_NOT_FOUND(HttpStatus.NOT_FOUND, "IMAGE_001", "이미지를 찾을 수 없습니다"),
@@ -37,8 +40,12 @@ public enum ErrorCode {
     MQTT_SEND_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "MQTT_001", "MQTT 메시지 전송에 실패했습니다"),
     NIGHT_TIME_CAPTURE_NOT_ALLOWED(HttpStatus.BAD_REQUEST, "MQTT_002", "야간 시간대에는 촬영할 수 없습니다 (19:00 ~ 06:00)"),
 
+    // Schedule
+    CAPTURE_SCHEDULE_NOT_FOUND(HttpStatus.NOT_FOUND, "SCHEDULE_001", "촬영 스케줄을 찾을 수 없습니다"),
+
     // Validation
     VALIDATION_ERROR(HttpStatus.BAD_REQUEST, "COMMON_001", "입력값이 올바르지 않습니다"),
+    CONCURRENT_MODIFICATION(HttpStatus.CONFLICT, "COMMON_002", "다른 요청이 먼저 변경했습니다. 다시 시도해주세요"),
 
     // 일반 에러
     INTERNAL_SERVER_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "COMMON_999", "서버 내부 오류가 발생했습니다");
@@ -2,6 +2,7 @@ package com.farmguardian.farmguardian.exception;
 
 import com.farmguardian.farmguardian.dto.response.ErrorResponseDto;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -131,6 +132,18 @@ public class GlobalExceptionHandler {
                 .body(response);
     }
 
+    // 낙관적 잠금(@Version) 충돌 처리 (같은 엔티티를 동시에 수정)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.warn("Optimistic locking failure: {}", ex.getMessage());
+
+        ErrorResponseDto response = ErrorResponseDto.of(ErrorCode.CONCURRENT_MODIFICATION);
+
+        return ResponseEntity
+                .status(ErrorCode.CONCURRENT_MODIFICATION.getStatus())
+                .body(response);
+    }
+
     // 예상치 못한 예외 처리
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleException(Exception ex) {
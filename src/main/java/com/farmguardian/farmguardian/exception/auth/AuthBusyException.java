@@ -0,0 +1,10 @@
+package com.farmguardian.farmguardian.exception.auth;
+
+import com.farmguardian.farmguardian.exception.BusinessException;
+import com.farmguardian.farmguardian.exception.ErrorCode;
+
+public class AuthBusyException extends BusinessException {
+    public AuthBusyException() {
+        super(ErrorCode.AUTH_BUSY);
+    }
+}
@@ -0,0 +1,10 @@
+package com.farmguardian.farmguardian.exception.auth;
+
+import com.farmguardian.farmguardian.exception.BusinessException;
+import com.farmguardian.farmguardian.exception.ErrorCode;
+
+public class TooManyLoginAttemptsException extends BusinessException {
+    public TooManyLoginAttemptsException() {
+        super(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+    }
+}
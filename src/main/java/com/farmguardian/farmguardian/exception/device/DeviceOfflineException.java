@@ -0,0 +1,10 @@
+package com.farmguardian.farmguardian.exception.device;
+
+import com.farmguardian.farmguardian.exception.BusinessException;
+import com.farmguardian.farmguardian.exception.ErrorCode;
+
+public class DeviceOfflineException extends BusinessException {
+    public DeviceOfflineException() {
+        super(ErrorCode.DEVICE_OFFLINE);
+    }
+}
@@ -0,0 +1,10 @@
+package com.farmguardian.farmguardian.exception.schedule;
+
+import com.farmguardian.farmguardian.exception.BusinessException;
+import com.farmguardian.farmguardian.exception.ErrorCode;
+
+public class CaptureScheduleNotFoundException extends BusinessException {
+    public CaptureScheduleNotFoundException() {
+        super(ErrorCode.CAPTURE_SCHEDULE_NOT_FOUND);
+    }
+}
@@ -1,5 +1,6 @@
 package com.farmguardian.farmguardian.gateway;
 
+import com.farmguardian.farmguardian.service.CaptureCommandTracker;
 import org.springframework.integration.annotation.MessagingGateway;
 import org.springframework.integration.mqtt.support.MqttHeaders;
 import org.springframework.messaging.handler.annotation.Header;
@@ -14,4 +15,24 @@ public interface MqttGateway {
      * @param payload 발행할 메시지 내용
      */
     void sendToMqtt(@Header(MqttHeaders.TOPIC) String topic, @Payload String payload);
+
+    /**
+     * 디바이스 대상 MQTT 메시지 발행 (같은 디바이스의 메시지는 같은 클라이언트로 나간다)
+     * @param topic 발행할 토픽
+     * @param deviceUuid 발행 클라이언트를 고르는 샤드 키
+     * @param correlationId 명령 추적용 ID (브로커 전달 완료 이벤트와 매칭)
+     * @param payload 발행할 메시지 내용
+     */
+    void sendToDevice(@Header(MqttHeaders.TOPIC) String topic,
+                      @Header(ShardedMqttMessageHandler.SHARD_KEY) String deviceUuid,
+                      @Header(CaptureCommandTracker.CORRELATION_ID) String correlationId,
+                      @Payload String payload);
+
+    /**
+     * 디바이스 대상 바이너리 프레임 발행 (BinaryFrameCodec 으로 협상된 디바이스)
+     */
+    void sendToDevice(@Header(MqttHeaders.TOPIC) String topic,
+                      @Header(ShardedMqttMessageHandler.SHARD_KEY) String deviceUuid,
+                      @Header(CaptureCommandTracker.CORRELATION_ID) String correlationId,
+                      @Payload byte[] payload);
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.farmguardian.farmguardian.gateway;
+
+/**
+ * 디바이스별 MQTT 페이로드 형식 (하트비트/상태 메시지의 "codec" 값으로 협상)
+ */
+public enum PayloadCodec {
+    JSON("json"),    // 기본값, 협상 전이거나 구버전 펌웨어
+    BINARY("fgb1");  // BinaryFrameCodec 버전 1
+
+    private final String wireName;
+
+    PayloadCodec(String wireName) {
+        this.wireName = wireName;
+    }
+
+    public String getWireName() {
+        return wireName;
+    }
+
+    // 알 수 없는 값이면 null
+    public static PayloadCodec fromWireName(String wireName) {
+        for (PayloadCodec codec : values()) {
+            if (codec.wireName.equalsIgnoreCase(wireName)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,188 @@
+package com.farmguardian.farmguardian.gateway;
+
+import com.farmguardian.farmguardian.util.ConsistentHashRing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.Lifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.integration.mqtt.event.MqttIntegrationEvent;
+import org.springframework.integration.mqtt.event.MqttMessageDeliveredEvent;
+import org.springframework.integration.mqtt.event.MqttMessageSentEvent;
+import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 MQTT 클라이언트에 발행을 나눠 싣는 핸들러
+ *
+ * - 메시지는 샤드 키(디바이스 UUID, 없으면 토픽)의 Consistent Hash 로 클라이언트를 고르므로, 같은 디바이스의 명령은 같은 연결로 순서대로 나간다.
+ * - 고른 클라이언트가 연결되지 않아 발행에 실패하면 다음 클라이언트로 넘긴다.
+ * - 내부 핸들러(MQTT v3/v5 Paho 핸들러)는 빈이 아니므로 초기화/시작/중지를 이 클래스가 대신 호출한다.
+ */
+@Slf4j
+public class ShardedMqttMessageHandler implements MessageHandler, SmartLifecycle, BeanFactoryAware,
+        ApplicationEventPublisherAware, InitializingBean, ApplicationListener<MqttIntegrationEvent> {
+
+    public static final String SHARD_KEY = "mqtt_shardKey";
+
+    private final List<Shard> shards;
+    private final Map<String, Shard> shardsByClientId;
+    private final ConsistentHashRing ring;
+    private final Counter failoverCounter;
+    private volatile boolean running;
+
+    /**
+     * @param handlers clientId → 발행 핸들러 (순서가 샤드 번호가 되므로 순서 있는 Map 을 넘긴다)
+     */
+    public ShardedMqttMessageHandler(Map<String, ? extends MessageHandler> handlers, int virtualNodes,
+                                     MeterRegistry meterRegistry) {
+        this.shards = handlers.entrySet().stream()
+                .map(entry -> new Shard(entry.getKey(), entry.getValue(), meterRegistry))
+                .toList();
+        this.shardsByClientId = shards.stream()
+                .collect(Collectors.toMap(shard -> shard.clientId, Function.identity()));
+        this.ring = new ConsistentHashRing(shards.size(), virtualNodes);
+        this.failoverCounter = Counter.builder("mqtt.outbound.failover")
+                .description("담당 클라이언트 발행 실패로 다른 클라이언트가 대신 발행한 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void handleMessage(Message<?> message) throws MessagingException {
+        int primary = ring.nodeFor(shardKey(message));
+
+        MessagingException lastFailure = null;
+        for (int attempt = 0; attempt < shards.size(); attempt++) {
+            Shard shard = shards.get((primary + attempt) % shards.size());
+            try {
+                shard.handler.handleMessage(message);
+                shard.publishedCounter.increment();
+                if (attempt > 0) {
+                    failoverCounter.increment();
+                }
+                return;
+            } catch (MessagingException e) {
+                shard.failedCounter.increment();
+                lastFailure = e;
+                log.warn("MQTT publish failed, trying next client - ClientId: {}, Reason: {}",
+                        shard.clientId, e.getMessage());
+            }
+        }
+        throw lastFailure;
+    }
+
+    private String shardKey(Message<?> message) {
+        String key = message.getHeaders().get(SHARD_KEY, String.class);
+        return key != null ? key : String.valueOf(message.getHeaders().get(MqttHeaders.TOPIC));
+    }
+
+    // 클라이언트별 in-flight 수 (발행 후 브로커 전달 완료 전)
+    @Override
+    public void onApplicationEvent(MqttIntegrationEvent event) {
+        if (event instanceof MqttMessageSentEvent sent) {
+            Shard shard = shardsByClientId.get(sent.getClientId());
+            if (shard != null) {
+                shard.inFlight.incrementAndGet();
+            }
+        } else if (event instanceof MqttMessageDeliveredEvent delivered) {
+            Shard shard = shardsByClientId.get(delivered.getClientId());
+            if (shard != null) {
+                shard.inFlight.updateAndGet(count -> Math.max(0, count - 1));
+            }
+        }
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        for (Shard shard : shards) {
+            if (shard.handler instanceof BeanFactoryAware aware) {
+                aware.setBeanFactory(beanFactory);
+            }
+        }
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        for (Shard shard : shards) {
+            if (shard.handler instanceof ApplicationEventPublisherAware aware) {
+                aware.setApplicationEventPublisher(applicationEventPublisher);
+            }
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        for (Shard shard : shards) {
+            if (shard.handler instanceof InitializingBean initializing) {
+                initializing.afterPropertiesSet();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        for (Shard shard : shards) {
+            if (shard.handler instanceof Lifecycle lifecycle) {
+                lifecycle.start();
+            }
+        }
+        running = true;
+        log.info("MQTT outbound clients started - Clients: {}", shardsByClientId.keySet());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Shard shard : shards) {
+            if (shard.handler instanceof Lifecycle lifecycle) {
+                lifecycle.stop();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static final class Shard {
+        private final String clientId;
+        private final MessageHandler handler;
+        private final Counter publishedCounter;
+        private final Counter failedCounter;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        Shard(String clientId, MessageHandler handler, MeterRegistry meterRegistry) {
+            this.clientId = clientId;
+            this.handler = handler;
+            this.publishedCounter = Counter.builder("mqtt.outbound.published")
+                    .description("클라이언트별 MQTT 발행 수")
+                    .tag("client", clientId)
+                    .register(meterRegistry);
+            this.failedCounter = Counter.builder("mqtt.outbound.failed")
+                    .description("클라이언트별 MQTT 발행 실패 수")
+                    .tag("client", clientId)
+                    .register(meterRegistry);
+            Gauge.builder("mqtt.outbound.inflight", inFlight, AtomicInteger::get)
+                    .description("클라이언트별 브로커 전달 완료를 기다리는 메시지 수")
+                    .tag("client", clientId)
+                    .register(meterRegistry);
+        }
+    }
+}
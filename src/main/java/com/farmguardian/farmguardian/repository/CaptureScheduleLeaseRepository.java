@@ -0,0 +1,49 @@
+package com.farmguardian.farmguardian.repository;
+
+import com.farmguardian.farmguardian.domain.CaptureScheduleLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CaptureScheduleLeaseRepository extends JpaRepository<CaptureScheduleLease, Integer> {
+
+    // 비어 있거나 만료된 파티션만 조건부로 획득 (영향받은 행 수로 성공 여부 판단)
+    @Transactional
+    @Modifying
+    @Query("UPDATE CaptureScheduleLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+            "WHERE l.partitionNo = :partitionNo AND (l.owner IS NULL OR l.expiresAt < :now)")
+    int acquire(@Param("partitionNo") int partitionNo, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // 아직 만료되지 않은 내 임대만 연장
+    @Transactional
+    @Modifying
+    @Query("UPDATE CaptureScheduleLease l SET l.expiresAt = :expiresAt " +
+            "WHERE l.owner = :owner AND l.expiresAt >= :now")
+    int renew(@Param("owner") String owner, @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CaptureScheduleLease l SET l.owner = NULL, l.expiresAt = NULL " +
+            "WHERE l.partitionNo = :partitionNo AND l.owner = :owner")
+    int release(@Param("partitionNo") int partitionNo, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CaptureScheduleLease l SET l.owner = NULL, l.expiresAt = NULL WHERE l.owner = :owner")
+    int releaseAll(@Param("owner") String owner);
+
+    @Query("SELECT l.partitionNo FROM CaptureScheduleLease l WHERE l.owner = :owner AND l.expiresAt >= :now")
+    List<Integer> findPartitionNosOwnedBy(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Query("SELECT l.partitionNo FROM CaptureScheduleLease l WHERE l.owner IS NULL OR l.expiresAt < :now")
+    List<Integer> findAcquirablePartitionNos(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package com.farmguardian.farmguardian.repository;
+
+import com.farmguardian.farmguardian.domain.CaptureScheduleNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CaptureScheduleNodeRepository extends JpaRepository<CaptureScheduleNode, String> {
+
+    long countByExpiresAtAfter(LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CaptureScheduleNode n WHERE n.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
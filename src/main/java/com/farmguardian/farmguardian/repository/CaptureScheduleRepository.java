@@ -0,0 +1,52 @@
+package com.farmguardian.farmguardian.repository;
+
+import com.farmguardian.farmguardian.domain.CaptureSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CaptureScheduleRepository extends JpaRepository<CaptureSchedule, Long> {
+
+    Optional<CaptureSchedule> findByDeviceId(Long deviceId);
+
+    // 파티션에 속한 활성 스케줄 조회 (파티션 임대 획득 시)
+    @Query("SELECT s FROM CaptureSchedule s WHERE s.enabled = true AND MOD(s.device.id, :partitions) = :partitionNo")
+    List<CaptureSchedule> findAllEnabledByPartition(@Param("partitions") int partitions,
+                                                    @Param("partitionNo") int partitionNo);
+
+    // 증분 동기화 (비활성화된 스케줄 포함)
+    List<CaptureSchedule> findAllByUpdatedAtAfter(LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE CaptureSchedule s SET s.enabled = false, s.updatedAt = :now WHERE s.device.id IN :deviceIds AND s.enabled = true")
+    int disableAllByDeviceIds(@Param("deviceIds") Collection<Long> deviceIds, @Param("now") LocalDateTime now);
+
+    // 해충 감지 시 촬영 빈도 배율 증가 (상한 도달 시에는 쓰지 않는다)
+    @Transactional
+    @Modifying
+    @Query("UPDATE CaptureSchedule s SET s.rateMultiplier = " +
+            "CASE WHEN COALESCE(s.rateMultiplier, 1.0) * :boost > :max THEN :max ELSE COALESCE(s.rateMultiplier, 1.0) * :boost END, " +
+            "s.updatedAt = :now " +
+            "WHERE s.device.id = :deviceId AND s.enabled = true AND COALESCE(s.rateMultiplier, 1.0) < :max")
+    int boostRateMultiplier(@Param("deviceId") Long deviceId, @Param("boost") double boost,
+                            @Param("max") double max, @Param("now") LocalDateTime now);
+
+    // 정상 결과 시 배율을 1.0 쪽으로 감쇠 (이미 기본값이면 쓰지 않는다)
+    @Transactional
+    @Modifying
+    @Query("UPDATE CaptureSchedule s SET s.rateMultiplier = " +
+            "CASE WHEN (s.rateMultiplier - 1.0) * :decay < :epsilon THEN 1.0 ELSE 1.0 + (s.rateMultiplier - 1.0) * :decay END, " +
+            "s.updatedAt = :now " +
+            "WHERE s.device.id = :deviceId AND s.enabled = true AND s.rateMultiplier > 1.0")
+    int decayRateMultiplier(@Param("deviceId") Long deviceId, @Param("decay") double decay,
+                            @Param("epsilon") double epsilon, @Param("now") LocalDateTime now);
+}
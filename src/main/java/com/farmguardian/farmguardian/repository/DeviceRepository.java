@@ -2,9 +2,18 @@ package com.farmguardian.farmguardian.repository;
 
 import com.farmguardian.farmguardian.domain.Device;
 import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +26,98 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
 
     Optional<Device> findByDeviceUuid(String deviceUuid);
 
-    List<Device> findAllByStatus(DeviceStatus status);
+    /**
+     * 디바이스 선점 (AVAILABLE 일 때만 연결, 동시에 요청하면 한 요청만 1을 반환하고 나머지는 0)
+     * 벌크 UPDATE 라 감사(updatedAt)와 버전을 직접 갱신한다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Device d SET d.user = :user, d.alias = :alias, " +
+            "d.status = com.farmguardian.farmguardian.domain.DeviceStatus.CONNECTED, d.targetCrop = :targetCrop, " +
+            "d.latitude = :latitude, d.longitude = :longitude, d.updatedAt = :now, d.version = d.version + 1 " +
+            "WHERE d.deviceUuid = :deviceUuid " +
+            "AND d.status = com.farmguardian.farmguardian.domain.DeviceStatus.AVAILABLE AND d.deletedAt IS NULL")
+    int claim(@Param("deviceUuid") String deviceUuid,
+              @Param("user") User user,
+              @Param("alias") String alias,
+              @Param("targetCrop") TargetCrop targetCrop,
+              @Param("latitude") BigDecimal latitude,
+              @Param("longitude") BigDecimal longitude,
+              @Param("now") LocalDateTime now);
 
+    // 화이트리스트 조회 ((status, device_id) 인덱스로 keyset 페이징, 엔티티 대신 필요한 컬럼만)
+    @Query("SELECT d.id AS id, d.deviceUuid AS deviceUuid, d.createdAt AS createdAt, d.updatedAt AS updatedAt " +
+            "FROM Device d WHERE d.status = :status AND d.id > :afterId ORDER BY d.id")
+    List<DeviceWhitelistView> findWhitelistViewsAfter(@Param("status") DeviceStatus status, @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    // 일괄 촬영 대상 조회
+    List<Device> findAllByUserIdAndStatus(Long userId, DeviceStatus status);
+
+    List<Device> findAllByUserIdAndStatusAndTargetCrop(Long userId, DeviceStatus status, TargetCrop targetCrop);
+
+    List<Device> findAllByIdInAndUserIdAndStatus(Collection<Long> ids, Long userId, DeviceStatus status);
+
+    // 디바이스 인덱스 적재용 (id 순 keyset 페이징, 엔티티 대신 필요한 컬럼만)
+    @Query("SELECT d.id AS id, d.deviceUuid AS deviceUuid, d.user.id AS userId, d.status AS status, d.targetCrop AS targetCrop " +
+            "FROM Device d WHERE d.id > :afterId ORDER BY d.id")
+    List<DeviceIndexView> findIndexViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT d.id AS id, d.deviceUuid AS deviceUuid, d.user.id AS userId, d.status AS status, d.targetCrop AS targetCrop " +
+            "FROM Device d WHERE d.deviceUuid = :deviceUuid")
+    Optional<DeviceIndexView> findIndexViewByDeviceUuid(@Param("deviceUuid") String deviceUuid);
+
+    @Query("SELECT d.id AS id, d.deviceUuid AS deviceUuid, d.user.id AS userId, d.status AS status, d.targetCrop AS targetCrop " +
+            "FROM Device d WHERE d.id = :id")
+    Optional<DeviceIndexView> findIndexViewById(@Param("id") Long id);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    // 소유권 인덱스 적재용 (사용자에게 연결된 디바이스만, id 순 keyset 페이징)
+    @Query("SELECT d.id AS id, d.user.id AS userId FROM Device d " +
+            "WHERE d.id > :afterId AND d.user IS NOT NULL ORDER BY d.id")
+    List<DeviceOwnershipView> findOwnershipViewsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT d.id FROM Device d WHERE d.user.id = :userId ORDER BY d.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    // 상태 × 작물별 디바이스 수 (FleetCounters 적재/보정용)
+    @Query("SELECT d.status AS status, d.targetCrop AS targetCrop, COUNT(d) AS count " +
+            "FROM Device d GROUP BY d.status, d.targetCrop")
+    List<FleetCountView> countByStatusAndTargetCrop();
+
+    interface FleetCountView {
+        DeviceStatus getStatus();
+
+        TargetCrop getTargetCrop();
+
+        Long getCount();
+    }
+
+    interface DeviceWhitelistView {
+        Long getId();
+
+        String getDeviceUuid();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface DeviceOwnershipView {
+        Long getId();
+
+        Long getUserId();
+    }
+
+    interface DeviceIndexView {
+        Long getId();
+
+        String getDeviceUuid();
+
+        Long getUserId();
+
+        DeviceStatus getStatus();
+
+        TargetCrop getTargetCrop();
+    }
 }
@@ -4,27 +4,52 @@ import com.farmguardian.farmguardian.domain.RefreshToken;
 import com.farmguardian.farmguardian.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") byte[] tokenHash);
 
     List<RefreshToken> findAllByUser(User user);
 
     Optional<RefreshToken> findByUserAndClientUuid(User user, String clientUuid);
 
-    Optional<RefreshToken> findByTokenAndUser(String token, User user);
-
-    boolean existsByToken(String token);
-
     @Modifying
     void deleteByUser(User user);
 
     @Modifying
     void deleteByUserAndClientUuid(User user, String clientUuid);
+
+    /**
+     * 토큰 교체 (현재 해시가 일치할 때만, 이미 교체/삭제된 토큰이면 0 반환)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.tokenHash = :newTokenHash, r.expiresAt = :expiresAt " +
+            "WHERE r.id = :id AND r.tokenHash = :currentTokenHash")
+    int rotate(@Param("id") Long id,
+               @Param("currentTokenHash") byte[] currentTokenHash,
+               @Param("newTokenHash") byte[] newTokenHash,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 정리 대상 (만료됐거나 사용자가 탈퇴한) 토큰 ID를 최대 limit 개 조회
+     */
+    @Query(value = "SELECT r.id FROM refresh_tokens r LEFT JOIN users u ON u.user_id = r.user_id " +
+            "WHERE r.expires_at < :now OR u.user_id IS NULL OR u.deleted_at IS NOT NULL LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findPurgeableIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
 }
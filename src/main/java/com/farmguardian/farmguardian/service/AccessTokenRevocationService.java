@@ -0,0 +1,121 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.config.jwt.RevokedTokenFilter;
+import com.farmguardian.farmguardian.domain.RevokedAccessToken;
+import com.farmguardian.farmguardian.repository.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 액세스 토큰 폐기 (jti 기준)
+ *
+ * - 폐기 시 revoked_access_tokens 에 저장하고, 커밋 후 CacheInvalidationBus 로 모든 인스턴스의 Bloom filter 에 jti 를 추가한다.
+ * - 요청마다 Bloom filter 만 확인하고, "폐기됐을 수 있음"일 때만 DB 로 확인한다 (오탐은 jwt.revocation.checks{result=false_positive}).
+ * - 시작 시 아직 만료되지 않은 폐기 목록을 DB 에서 읽어 필터를 채운다.
+ * - jti 가 없는 토큰(이 기능 이전 발급분)은 폐기 대상이 아니며 만료 시까지 유효하다.
+ */
+@Slf4j
+@Service
+public class AccessTokenRevocationService {
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final RevokedTokenFilter revokedTokenFilter;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Counter negativeCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter revokedCounter;
+
+    public AccessTokenRevocationService(RevokedAccessTokenRepository revokedAccessTokenRepository,
+                                        RevokedTokenFilter revokedTokenFilter,
+                                        CacheInvalidationBus cacheInvalidationBus,
+                                        MeterRegistry meterRegistry) {
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.revokedTokenFilter = revokedTokenFilter;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+
+        this.negativeCounter = checkCounter(meterRegistry, "negative");
+        this.falsePositiveCounter = checkCounter(meterRegistry, "false_positive");
+        this.revokedCounter = checkCounter(meterRegistry, "revoked");
+
+        // 키 형식: "{jti}:{expiresAtMillis}", 전체 무효화면 DB 의 폐기 목록을 다시 읽어 필터에 더한다
+        cacheInvalidationBus.register(CacheInvalidationBus.REVOKED_ACCESS_TOKEN, this::onRevoked, this::loadActiveRevocations);
+    }
+
+    /**
+     * 토큰 폐기 (호출한 트랜잭션이 커밋된 뒤 필터에 반영)
+     */
+    public void revoke(String jti, Long userId, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedAccessTokenRepository.save(new RevokedAccessToken(jti, userId, toLocalDateTime(expiresAtMillis)));
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.REVOKED_ACCESS_TOKEN, jti + ":" + expiresAtMillis);
+    }
+
+    public boolean isRevoked(String jti, long expiresAtMillis) {
+        if (jti == null || !revokedTokenFilter.mightBeRevoked(jti, expiresAtMillis)) {
+            negativeCounter.increment();
+            return false;
+        }
+        if (revokedAccessTokenRepository.existsById(jti)) {
+            revokedCounter.increment();
+            return true;
+        }
+        falsePositiveCounter.increment();
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveRevocations() {
+        List<RevokedAccessToken> revoked = revokedAccessTokenRepository.findAllByExpiresAtAfter(LocalDateTime.now());
+        revoked.forEach(token -> revokedTokenFilter.add(token.getJti(), toEpochMillis(token.getExpiresAt())));
+        log.info("Revoked access tokens loaded - Count: {}", revoked.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-millis:3600000}",
+            initialDelayString = "${jwt.revocation.purge-initial-delay-millis:60000}")
+    public void purgeExpired() {
+        int purged = revokedAccessTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Expired access token revocations purged - Count: {}", purged);
+        }
+    }
+
+    private void onRevoked(String key) {
+        int separator = key.lastIndexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        try {
+            revokedTokenFilter.add(key.substring(0, separator), Long.parseLong(key.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Malformed access token revocation ignored - Key: {}", key);
+        }
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("jwt.revocation.checks")
+                .description("액세스 토큰 폐기 여부 확인 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
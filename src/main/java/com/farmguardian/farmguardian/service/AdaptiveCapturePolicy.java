@@ -0,0 +1,136 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.repository.CaptureScheduleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 분석 결과 기반 촬영 빈도 조절 정책
+ *
+ * - 해충이 기준 개수 이상 감지되면 디바이스의 촬영 빈도 배율을 올리고, 정상 결과가 나오면 1.0(기본 주기) 쪽으로 감쇠시킨다.
+ * - 배율은 capture_schedules 에 저장되어, 스케줄을 소유한 인스턴스가 증분 동기화로 반영한다.
+ * - 인스턴스별 추론 예산(분당 촬영 수)을 넘으면 모든 스케줄의 주기를 같은 비율로 늘린다.
+ */
+@Slf4j
+@Component
+public class AdaptiveCapturePolicy {
+
+    private static final double EPSILON = 0.01;
+
+    private final CaptureScheduleRepository captureScheduleRepository;
+    private final boolean enabled;
+    private final int pestThreshold;
+    private final double boostFactor;
+    private final double maxMultiplier;
+    private final double decayFactor;
+    private final long minIntervalMillis;
+    private final double budgetPerMinute;
+    private final Counter boostedCounter;
+    private final Counter decayedCounter;
+
+    // 예산 초과 시 적용되는 빈도 축소 비율 (1.0 이면 제한 없음)
+    private volatile double budgetScale = 1.0;
+    // 배율 적용 후, 예산 적용 전 이 인스턴스의 분당 촬영 수요
+    private volatile double demandPerMinute;
+
+    public AdaptiveCapturePolicy(CaptureScheduleRepository captureScheduleRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${capture.adaptive.enabled:true}") boolean enabled,
+                                 @Value("${capture.adaptive.pest-threshold:1}") int pestThreshold,
+                                 @Value("${capture.adaptive.boost-factor:2.0}") double boostFactor,
+                                 @Value("${capture.adaptive.max-multiplier:8.0}") double maxMultiplier,
+                                 @Value("${capture.adaptive.decay-factor:0.5}") double decayFactor,
+                                 @Value("${capture.adaptive.min-interval-minutes:5}") long minIntervalMinutes,
+                                 @Value("${capture.adaptive.budget-per-minute:0}") double budgetPerMinute) {
+        this.captureScheduleRepository = captureScheduleRepository;
+        this.enabled = enabled;
+        this.pestThreshold = pestThreshold;
+        this.boostFactor = boostFactor;
+        this.maxMultiplier = maxMultiplier;
+        this.decayFactor = decayFactor;
+        this.minIntervalMillis = Duration.ofMinutes(minIntervalMinutes).toMillis();
+        this.budgetPerMinute = budgetPerMinute;
+
+        this.boostedCounter = Counter.builder("capture.adaptive.boosted")
+                .description("해충 감지로 촬영 빈도를 올린 횟수")
+                .register(meterRegistry);
+        this.decayedCounter = Counter.builder("capture.adaptive.decayed")
+                .description("정상 결과로 촬영 빈도를 기본값 쪽으로 내린 횟수")
+                .register(meterRegistry);
+        Gauge.builder("capture.adaptive.budget.scale", this, policy -> policy.budgetScale)
+                .description("추론 예산 초과로 적용 중인 촬영 빈도 축소 비율")
+                .register(meterRegistry);
+        Gauge.builder("capture.adaptive.demand", this, policy -> policy.demandPerMinute)
+                .description("이 인스턴스가 관리하는 스케줄의 분당 촬영 수요")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 분석 결과 반영 (주기 촬영 스케줄이 없는 디바이스는 변경 없음)
+     */
+    public void recordAnalysis(Long deviceId, int pestCount) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (pestCount >= pestThreshold) {
+                if (captureScheduleRepository.boostRateMultiplier(deviceId, boostFactor, maxMultiplier, now) > 0) {
+                    boostedCounter.increment();
+                    log.info("Capture rate boosted - DeviceId: {}, PestCount: {}", deviceId, pestCount);
+                }
+            } else if (captureScheduleRepository.decayRateMultiplier(deviceId, decayFactor, EPSILON, now) > 0) {
+                decayedCounter.increment();
+            }
+        } catch (Exception e) {
+            // 빈도 조절 실패가 분석 결과 응답을 막지 않도록 한다
+            log.warn("Failed to update capture rate - DeviceId: {}, Reason: {}", deviceId, e.getMessage());
+        }
+    }
+
+    /**
+     * 배율과 추론 예산을 적용한 실제 촬영 주기
+     * 예산에 의한 축소는 기본 주기보다 길어질 수 있지만, 배율에 의한 단축은 최소 주기 아래로 내려가지 않는다.
+     */
+    public long effectiveIntervalMillis(long baseIntervalMillis, double rateMultiplier) {
+        if (!enabled) {
+            return baseIntervalMillis;
+        }
+        long interval = (long) (baseIntervalMillis / (Math.max(rateMultiplier, 1.0) * budgetScale));
+        return Math.max(interval, Math.min(minIntervalMillis, baseIntervalMillis));
+    }
+
+    /**
+     * 인스턴스별 예산 갱신 (실행 엔진이 주기적으로 호출)
+     *
+     * @param demandPerMinute 배율만 적용한 분당 촬영 수요
+     * @param fleetShare      이 인스턴스가 소유한 파티션 비율 (0.0 ~ 1.0)
+     */
+    public void updateBudget(double demandPerMinute, double fleetShare) {
+        this.demandPerMinute = demandPerMinute;
+        if (!enabled || budgetPerMinute <= 0) {
+            return;
+        }
+        double localBudget = budgetPerMinute * fleetShare;
+        double scale = demandPerMinute <= localBudget || demandPerMinute == 0
+                ? 1.0
+                : localBudget / demandPerMinute;
+        if (Math.abs(scale - budgetScale) >= EPSILON) {
+            log.info("Capture budget scale changed - Demand: {}/min, Budget: {}/min, Scale: {}",
+                    String.format("%.1f", demandPerMinute), String.format("%.1f", localBudget),
+                    String.format("%.2f", scale));
+            budgetScale = scale;
+        }
+    }
+
+    public double getBudgetScale() {
+        return budgetScale;
+    }
+}
@@ -2,6 +2,7 @@ package com.farmguardian.farmguardian.service;
 
 import com.farmguardian.farmguardian.config.jwt.JwtTokenProvider;
 import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.domain.DeviceStatus;
 import com.farmguardian.farmguardian.domain.RefreshToken;
 import com.farmguardian.farmguardian.domain.Role;
 import com.farmguardian.farmguardian.domain.User;
@@ -12,10 +13,18 @@ import com.farmguardian.farmguardian.exception.auth.*;
 import com.farmguardian.farmguardian.repository.DeviceRepository;
 import com.farmguardian.farmguardian.repository.RefreshTokenRepository;
 import com.farmguardian.farmguardian.repository.UserRepository;
+import com.farmguardian.farmguardian.service.RefreshTokenCache.CachedRefreshToken;
+import com.farmguardian.farmguardian.util.TokenDigest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 
 /**
  * 인증, 인가에 대한 내용
@@ -29,26 +38,38 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
     private final DeviceRepository deviceRepository;
-
-    @Transactional
+    private final CaptureScheduleService captureScheduleService;
+    private final RefreshTokenCache refreshTokenCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final LoginThrottle loginThrottle;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final DeviceOwnershipIndex deviceOwnershipIndex;
+    private final FleetCounters fleetCounters;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * BCrypt 해시는 해시 대기열에서 기다릴 수 있으므로 트랜잭션(DB 커넥션) 밖에서 하고,
+     * 사용자/모바일 디바이스 저장만 짧은 트랜잭션으로 처리한다. (호출한 쪽에 트랜잭션이 있으면 그대로 참여한다)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Long signUp(SignUpRequestDto request) {
-        // 이메일 중복 검증
+        // 이메일 중복 검증 (중복이면 해시하지 않는다)
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new DuplicateEmailException();
         }
 
-        // 비밀번호 암호화 및 사용자 생성
-        String encodedPassword = passwordEncoder.encode(request.getPassword());
-        User user = new User(request.getEmail(), encodedPassword, Role.USER);
-        User saved = userRepository.save(user);
-
-        // 모바일 디바이스 자동 생성 및 연결
-        createMobileDevice(saved);
+        // 비밀번호 암호화
+        String encodedPassword = passwordHashingService.encode(request.getPassword());
 
-        return saved.getId();
+        // 사용자 생성 및 모바일 디바이스 자동 생성/연결
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User saved = userRepository.save(new User(request.getEmail(), encodedPassword, Role.USER));
+            createMobileDevice(saved);
+            return saved.getId();
+        });
     }
 
     private void createMobileDevice(User user) {
@@ -58,35 +79,69 @@ public class AuthService {
                 .build();
         mobileDevice.connectToUser(user, "직접 촬영", null, null, null);
         deviceRepository.save(mobileDevice);
+        deviceOwnershipIndex.grant(user.getId(), mobileDevice.getId());
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE_OWNERSHIP, user.getId());
+        fleetCounters.recordCreated(mobileDevice.getStatus(), null, 1);
     }
 
-    @Transactional
-    public TokenResponseDto signIn(SignInRequestDto request) {
+    /**
+     * BCrypt 검증/재해시는 해시 대기열에서 기다릴 수 있으므로 트랜잭션(DB 커넥션) 밖에서 하고,
+     * 사용자 조회와 재해시/토큰 저장만 각각 짧은 트랜잭션으로 처리한다.
+     * (호출한 쪽에 트랜잭션이 있으면 그대로 참여한다)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TokenResponseDto signIn(SignInRequestDto request, String clientIp) {
+        // 실패가 누적된 이메일/IP 는 DB 조회와 비밀번호 검증 전에 거절
+        loginThrottle.checkAllowed(request.getEmail(), clientIp);
+
         // 사용자 조회
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(UserNotFoundException::new);
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        if (user == null) {
+            loginThrottle.recordFailure(request.getEmail(), clientIp);
+            throw new UserNotFoundException();
+        }
 
         // 비밀번호 검증
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
+            loginThrottle.recordFailure(request.getEmail(), clientIp);
             throw new InvalidPasswordException();
         }
+        loginThrottle.recordSuccess(request.getEmail());
+
+        // BCrypt cost 를 올렸으면 현재 설정으로 다시 해시
+        String rehashed = passwordHashingService.needsRehash(user.getPassword())
+                ? passwordHashingService.encode(request.getPassword())
+                : null;
 
         // 토큰 생성 (userId 포함)
         String accessToken = jwtTokenProvider.createAccessToken(user.getEmail(), user.getRole().name(), user.getId());
         String refreshToken = jwtTokenProvider.createRefreshToken(user.getEmail());
 
-        // 디바이스별 리프레시 토큰 저장 또는 갱신
-        refreshTokenRepository.findByUserAndClientUuid(user, request.getClientUuid())
-                .ifPresentOrElse(
-                        token -> token.updateToken(refreshToken),
-                        () -> refreshTokenRepository.save(new RefreshToken(user, refreshToken, request.getClientUuid()))
-                );
+        // 디바이스별 리프레시 토큰 저장 또는 갱신 (원문 대신 다이제스트 저장)
+        byte[] tokenHash = TokenDigest.of(refreshToken).toBytes();
+        LocalDateTime expiresAt = refreshTokenExpiresAt();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User owner = userRepository.getReferenceById(user.getId());
+            if (rehashed != null) {
+                owner.changePassword(rehashed);
+            }
+            refreshTokenRepository.findByUserAndClientUuid(owner, request.getClientUuid())
+                    .ifPresentOrElse(
+                            token -> token.updateToken(tokenHash, expiresAt),
+                            () -> refreshTokenRepository.save(new RefreshToken(owner, tokenHash, request.getClientUuid(), expiresAt))
+                    );
+        });
 
         return new TokenResponseDto("Bearer", accessToken, refreshToken);
     }
 
+    /**
+     * @param accessTokenId               요청에 사용한 액세스 토큰의 jti (만료 전까지 폐기 목록에 올린다)
+     * @param accessTokenExpiresAtMillis  해당 액세스 토큰의 만료 시각
+     */
     @Transactional
-    public void signOut(Long userId, String refreshTokenValue, String clientUuid) {
+    public void signOut(Long userId, String refreshTokenValue, String clientUuid,
+                        String accessTokenId, long accessTokenExpiresAtMillis) {
         // 사용자 조회
         User user = userRepository.findById(userId)
                 .orElseThrow(UserNotFoundException::new);
@@ -95,25 +150,43 @@ public class AuthService {
         RefreshToken refreshToken = refreshTokenRepository.findByUserAndClientUuid(user, clientUuid)
                 .orElseThrow(RefreshTokenNotFoundException::new);
         refreshTokenRepository.delete(refreshToken);
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.REFRESH_TOKEN, userId);
+
+        // 발급된 액세스 토큰도 만료 전까지 사용하지 못하게 폐기
+        accessTokenRevocationService.revoke(accessTokenId, userId, accessTokenExpiresAtMillis);
     }
 
     @Transactional
-    public void withdraw(Long userId) {
+    public void withdraw(Long userId, String accessTokenId, long accessTokenExpiresAtMillis) {
         // 사용자 조회
         User user = userRepository.findById(userId)
                 .orElseThrow(UserNotFoundException::new);
 
         // 사용자의 모든 디바이스 연결 해제 (Device는 남기고 연결 정보만 초기화)
-        deviceRepository.findAllByUserId(userId)
-                .forEach(Device::disconnectFromUser);
+        List<Device> devices = deviceRepository.findAllByUserId(userId);
+        devices.forEach(device -> fleetCounters.recordTransition(
+                device.getStatus(), device.getTargetCrop(), DeviceStatus.AVAILABLE, null));
+        devices.forEach(Device::disconnectFromUser);
+        devices.forEach(device -> cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE, device.getId()));
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE_OWNERSHIP, userId);
+
+        // 주기 촬영 스케줄 비활성화
+        captureScheduleService.disableSchedulesForDevices(devices.stream().map(Device::getId).toList());
 
         // 모든 디바이스의 리프레시 토큰 삭제
         refreshTokenRepository.deleteByUser(user);
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.REFRESH_TOKEN, userId);
+        accessTokenRevocationService.revoke(accessTokenId, userId, accessTokenExpiresAtMillis);
 
         // 사용자 soft delete
         userRepository.delete(user);
     }
 
+    /**
+     * 토큰 갱신 (RTR)
+     * 캐시에 있으면 SELECT 없이, 없으면 다이제스트 인덱스로 한 번 조회한 뒤 해시 조건부 UPDATE 로 교체한다.
+     * 캐시 항목이 오래돼 교체에 실패하면 DB 에서 다시 확인한다.
+     */
     @Transactional
     public TokenResponseDto refreshAccessToken(String refreshTokenValue, String clientUuid) {
         // Refresh Token 유효성 검증
@@ -121,29 +194,60 @@ public class AuthService {
             throw new InvalidTokenException();
         }
 
+        TokenDigest digest = TokenDigest.of(refreshTokenValue);
+        CachedRefreshToken cached = refreshTokenCache.get(digest);
+        if (cached != null) {
+            TokenResponseDto response = rotate(digest, cached, clientUuid);
+            if (response != null) {
+                return response;
+            }
+            refreshTokenCache.evict(digest);
+        }
+
         // DB에서 Refresh Token 조회
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenValue)
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHashWithUser(digest.toBytes())
                 .orElseThrow(RefreshTokenNotFoundException::new);
+        User user = refreshToken.getUser();
+        CachedRefreshToken loaded = new CachedRefreshToken(refreshToken.getId(), user.getId(), user.getEmail(),
+                user.getRole().name(), refreshToken.getClientUuid(), toEpochMillis(refreshToken.getExpiresAt()));
+
+        TokenResponseDto response = rotate(digest, loaded, clientUuid);
+        if (response == null) {
+            // 동시에 다른 요청이 먼저 교체함
+            throw new RefreshTokenNotFoundException();
+        }
+        return response;
+    }
 
+    // 새 토큰 발급 후 현재 해시가 그대로일 때만 교체 (교체되지 않았으면 null)
+    private TokenResponseDto rotate(TokenDigest digest, CachedRefreshToken current, String clientUuid) {
         // Client UUID 일치 확인 (디바이스 검증)
-        if (!refreshToken.getClientUuid().equals(clientUuid)) {
+        if (!current.clientUuid().equals(clientUuid)) {
             throw new ClientUuidMismatchException();
         }
 
-        // 사용자 조회
-        User user = refreshToken.getUser();
-
         // 새로운 Access Token 생성
-        String newAccessToken = jwtTokenProvider.createAccessToken(
-                user.getEmail(),
-                user.getRole().name(),
-                user.getId()
-        );
+        String newAccessToken = jwtTokenProvider.createAccessToken(current.email(), current.role(), current.userId());
 
         // RTR 패턴: 새로운 Refresh Token 생성 및 DB 갱신
-        String newRefreshToken = jwtTokenProvider.createRefreshToken(user.getEmail());
-        refreshToken.updateToken(newRefreshToken);
+        String newRefreshToken = jwtTokenProvider.createRefreshToken(current.email());
+        TokenDigest newDigest = TokenDigest.of(newRefreshToken);
+        LocalDateTime expiresAt = refreshTokenExpiresAt();
+        if (refreshTokenRepository.rotate(current.id(), digest.toBytes(), newDigest.toBytes(), expiresAt) == 0) {
+            return null;
+        }
 
+        refreshTokenCache.evict(digest);
+        refreshTokenCache.put(newDigest, new CachedRefreshToken(current.id(), current.userId(), current.email(),
+                current.role(), current.clientUuid(), toEpochMillis(expiresAt)));
         return new TokenResponseDto("Bearer", newAccessToken, newRefreshToken);
     }
-}
\ No newline at end of file
+
+    private LocalDateTime refreshTokenExpiresAt() {
+        return LocalDateTime.now().plusNanos(jwtTokenProvider.getRefreshTokenExpiration() * 1_000_000);
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
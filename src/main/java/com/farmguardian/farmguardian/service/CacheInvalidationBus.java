@@ -0,0 +1,278 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.config.NodeIdentity;
+import com.farmguardian.farmguardian.gateway.MqttGateway;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 인스턴스 간 로컬 캐시 무효화 (디바이스용 MQTT 브로커의 내부 토픽을 그대로 사용한다)
+ *
+ * - 엔티티를 바꾼 서비스가 invalidate(캐시, 키)를 호출하면 트랜잭션 커밋 후 로컬 캐시를 비우고, 다른 인스턴스에 알릴 키를 모아 둔다.
+ * - 모아 둔 키는 (캐시, 키) 단위로 중복을 합쳐 두고 flush-millis 마다 한 메시지(최대 max-batch 개)로 발행한다.
+ *   발행에 실패하면 키를 대기열 앞에 되돌리고 flush-millis 부터 두 배씩(최대 retry-max-backoff-millis) 늘린 간격으로 다시 보낸다.
+ * - 대기 중인 키가 max-pending 을 넘으면 (브로커 장애 등) 키 대신 캐시별 "전체 무효화"(키 ALL) 하나로 바꾼다.
+ *   디바이스 인덱스/소유권 인덱스/화이트리스트 버전/폐기 토큰처럼 만료 없이 무효화에만 의존하는 소비자가 있으므로,
+ *   키를 버리는 대신 받는 쪽이 해당 캐시 전체를 DB 에서 다시 읽게 한다. 그래서 캐시는 키별 evictor 와 전체 evictor 를 함께 등록한다.
+ * - 각 인스턴스는 internal/cache/invalidate 를 일반 구독(공유 구독 아님)해 받은 키를 로컬에서 비운다. 자기가 보낸 메시지는 무시한다.
+ *
+ * 페이로드는 텍스트 한 줄 헤더("{nodeId} {sentAtMillis}", nodeId 는 NodeIdentity)와 키 목록("{cache}\t{key}" 줄)이다.
+ * 전달 지연(cache.invalidation.propagation)은 인스턴스 간 시계 차이만큼 오차가 있다.
+ * 디바이스도 같은 브로커에 붙으므로, 브로커 ACL 로 디바이스 계정의 internal/# 발행을 막아야 한다 (막지 않으면 디바이스가 임의 키를 무효화할 수 있다).
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    public static final String TOPIC = "internal/cache/invalidate";
+
+    public static final String DEVICE = "device";
+    public static final String DEVICE_OWNERSHIP = "deviceOwnership";
+    public static final String DEVICE_WHITELIST = "deviceWhitelist";
+    public static final String FLEET_COUNTS = "fleetCounts";
+    public static final String REFRESH_TOKEN = "refreshToken";
+    public static final String REVOKED_ACCESS_TOKEN = "revokedAccessToken";
+
+    // 캐시 전체 무효화 표시 (대기열이 넘쳤을 때 키 대신 보낸다)
+    public static final String ALL = "*";
+
+    private static final char KEY_SEPARATOR = '\t';
+
+    private final String nodeId;
+    private final Map<String, List<Evictor>> evictors = new ConcurrentHashMap<>();
+    // "{cache}\t{key}" (삽입 순서 유지, 같은 키는 한 번만)
+    private final Set<String> outgoing = new LinkedHashSet<>();
+
+    private final MqttGateway mqttGateway;
+    private final boolean remoteEnabled;
+    private final int maxBatch;
+    private final int maxPending;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    // 발행 실패 후 재시도 간격 (flush 는 스케줄러 스레드 하나에서만 호출된다)
+    private long backoffMillis;
+    private long nextAttemptMillis;
+
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter failedCounter;
+    private final Counter overflowCounter;
+    private final Timer propagationTimer;
+
+    public CacheInvalidationBus(MqttGateway mqttGateway, NodeIdentity nodeIdentity, MeterRegistry meterRegistry,
+                                @Value("${cache.invalidation.enabled:false}") boolean remoteEnabled,
+                                @Value("${cache.invalidation.max-batch:200}") int maxBatch,
+                                @Value("${cache.invalidation.max-pending:10000}") int maxPending,
+                                @Value("${cache.invalidation.flush-millis:100}") long flushMillis,
+                                @Value("${cache.invalidation.retry-max-backoff-millis:30000}") long maxBackoffMillis) {
+        this.mqttGateway = mqttGateway;
+        this.nodeId = nodeIdentity.getNodeId();
+        this.remoteEnabled = remoteEnabled;
+        this.maxBatch = maxBatch;
+        this.maxPending = maxPending;
+        this.initialBackoffMillis = Math.max(flushMillis, 1);
+        this.maxBackoffMillis = Math.max(maxBackoffMillis, this.initialBackoffMillis);
+
+        this.publishedCounter = Counter.builder("cache.invalidation.published")
+                .description("다른 인스턴스에 알린 캐시 무효화 키 수")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("cache.invalidation.received")
+                .description("다른 인스턴스에서 받아 처리한 캐시 무효화 키 수")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("cache.invalidation.failed")
+                .description("발행에 실패한 캐시 무효화 메시지 수 (키는 다시 보낸다)")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("cache.invalidation.overflow")
+                .description("대기 중인 키가 max-pending 을 넘어 캐시별 전체 무효화로 바꾼 횟수")
+                .register(meterRegistry);
+        Gauge.builder("cache.invalidation.pending", this, CacheInvalidationBus::pendingCount)
+                .description("다른 인스턴스에 아직 알리지 못한 캐시 무효화 키 수")
+                .register(meterRegistry);
+        this.propagationTimer = Timer.builder("cache.invalidation.propagation")
+                .description("다른 인스턴스에서 무효화를 발행한 뒤 이 인스턴스가 받기까지 걸린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 로컬 캐시 등록 (무효화 키를 받으면 evictor 가 해당 항목을 비우고, ALL 을 받으면 evictAll 이 캐시 전체를 다시 맞춘다)
+     */
+    public void register(String cacheName, Consumer<String> evictor, Runnable evictAll) {
+        evictors.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(new Evictor(evictor, evictAll));
+    }
+
+    /**
+     * 엔티티 변경 알림 (트랜잭션 안이면 커밋 후, 아니면 즉시 처리)
+     */
+    public void invalidate(String cacheName, Object key) {
+        String value = String.valueOf(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(cacheName, value);
+                }
+            });
+        } else {
+            publish(cacheName, value);
+        }
+    }
+
+    private void publish(String cacheName, String key) {
+        evictLocal(cacheName, key);
+        if (remoteEnabled) {
+            synchronized (outgoing) {
+                // 이미 전체 무효화가 예정된 캐시의 키는 더 모을 필요가 없다
+                if (!outgoing.contains(cacheName + KEY_SEPARATOR + ALL)) {
+                    outgoing.add(cacheName + KEY_SEPARATOR + key);
+                    collapseIfFull();
+                }
+            }
+        }
+    }
+
+    // 대기 중인 키가 상한을 넘으면 캐시별 전체 무효화 표시 하나씩으로 바꾼다 (outgoing 잠금 안에서 호출)
+    private void collapseIfFull() {
+        if (outgoing.size() <= maxPending) {
+            return;
+        }
+        Set<String> caches = new LinkedHashSet<>();
+        for (String entry : outgoing) {
+            caches.add(entry.substring(0, entry.indexOf(KEY_SEPARATOR)));
+        }
+        int dropped = outgoing.size();
+        outgoing.clear();
+        caches.forEach(cacheName -> outgoing.add(cacheName + KEY_SEPARATOR + ALL));
+        overflowCounter.increment();
+        log.warn("Cache invalidation backlog collapsed to full evictions - Keys: {}, Caches: {}", dropped, caches);
+    }
+
+    private int pendingCount() {
+        synchronized (outgoing) {
+            return outgoing.size();
+        }
+    }
+
+    // 모아 둔 키를 중복 제거 후 최대 max-batch 개씩 나눠 발행 (실패하면 되돌리고 백오프 후 재시도)
+    @Scheduled(fixedDelayString = "${cache.invalidation.flush-millis:100}")
+    public void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    void flush(long nowMillis) {
+        if (nowMillis < nextAttemptMillis) {
+            return;
+        }
+        while (true) {
+            List<String> batch = new ArrayList<>();
+            synchronized (outgoing) {
+                Iterator<String> entries = outgoing.iterator();
+                while (batch.size() < maxBatch && entries.hasNext()) {
+                    batch.add(entries.next());
+                    entries.remove();
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            StringBuilder payload = new StringBuilder(64 + batch.size() * 32)
+                    .append(nodeId).append(' ').append(nowMillis);
+            batch.forEach(key -> payload.append('\n').append(key));
+            try {
+                mqttGateway.sendToMqtt(TOPIC, payload.toString());
+                publishedCounter.increment(batch.size());
+                backoffMillis = 0;
+            } catch (Exception e) {
+                // 순서를 지켜 대기열 앞에 되돌린다 (다음 시도에서 먼저 나간다)
+                int pending;
+                synchronized (outgoing) {
+                    Set<String> retry = new LinkedHashSet<>(batch);
+                    retry.addAll(outgoing);
+                    outgoing.clear();
+                    outgoing.addAll(retry);
+                    collapseIfFull();
+                    pending = outgoing.size();
+                }
+                backoffMillis = backoffMillis == 0 ? initialBackoffMillis : Math.min(backoffMillis * 2, maxBackoffMillis);
+                nextAttemptMillis = nowMillis + backoffMillis;
+                failedCounter.increment();
+                log.warn("Failed to publish cache invalidation, will retry - Keys: {}, Pending: {}, RetryIn: {}ms, Reason: {}",
+                        batch.size(), pending, backoffMillis, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 다른 인스턴스의 무효화 메시지 처리
+     */
+    public void onMessage(Object payload) {
+        String text = payload instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(payload);
+        String[] lines = text.split("\n");
+        int headerSeparator = lines[0].lastIndexOf(' ');
+        if (headerSeparator <= 0) {
+            log.warn("Malformed cache invalidation message ignored");
+            return;
+        }
+        if (nodeId.equals(lines[0].substring(0, headerSeparator))) {
+            return;
+        }
+
+        for (int i = 1; i < lines.length; i++) {
+            int separator = lines[i].indexOf(KEY_SEPARATOR);
+            if (separator > 0) {
+                evictLocal(lines[i].substring(0, separator), lines[i].substring(separator + 1));
+            }
+        }
+        receivedCounter.increment(lines.length - 1);
+        try {
+            long sentAtMillis = Long.parseLong(lines[0].substring(headerSeparator + 1));
+            propagationTimer.record(Math.max(0, System.currentTimeMillis() - sentAtMillis), TimeUnit.MILLISECONDS);
+        } catch (NumberFormatException e) {
+            log.debug("Cache invalidation message without timestamp - Header: {}", lines[0]);
+        }
+    }
+
+    private void evictLocal(String cacheName, String key) {
+        List<Evictor> cacheEvictors = evictors.get(cacheName);
+        if (cacheEvictors == null) {
+            return;
+        }
+        for (Evictor evictor : cacheEvictors) {
+            try {
+                if (ALL.equals(key)) {
+                    evictor.all().run();
+                } else {
+                    evictor.key().accept(key);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Cache eviction failed - Cache: {}, Key: {}", cacheName, key, e);
+            }
+        }
+    }
+
+    private record Evictor(Consumer<String> key, Runnable all) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.farmguardian.farmguardian.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.integration.mqtt.event.MqttIntegrationEvent;
+import org.springframework.integration.mqtt.event.MqttMessageDeliveredEvent;
+import org.springframework.integration.mqtt.event.MqttMessageSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 촬영 명령 추적 (correlationId 기준, 메모리 전용)
+ *
+ * 명령 발행 → 브로커 전달 완료 → 디바이스 ack → 이미지 업로드 → 분석 완료 → 해충 알림 순서로
+ * 각 단계에 도달한 시각을 발행 시점 기준으로 capture.latency{stage} 에 기록한다.
+ * 업로드에 correlationId 가 없으면 해당 디바이스의 가장 최근 명령으로 매칭한다.
+ * 제한 시간 안에 끝나지 않은 명령은 마지막으로 도달한 단계와 함께 만료 처리한다.
+ * ack/업로드는 명령을 보낸 디바이스에서 온 것만 인정한다.
+ * 비동기 발행이라 브로커 전달 완료 이벤트가 발행 이벤트보다 먼저 올 수 있으므로, 먼저 온 전달 완료는 잠시 보관했다가 맞춘다.
+ */
+@Slf4j
+@Component
+public class CaptureCommandTracker implements ApplicationListener<MqttIntegrationEvent> {
+
+    public static final String CORRELATION_ID = "capture_correlationId";
+
+    public enum Stage {
+        PUBLISH, BROKER, ACK, UPLOAD, ANALYSIS, ALERT
+    }
+
+    // correlationId → 진행 중인 명령
+    private final Map<String, PendingCapture> pending = new ConcurrentHashMap<>();
+    // deviceUuid → 가장 최근 명령 correlationId
+    private final Map<String, String> latestByDevice = new ConcurrentHashMap<>();
+    // clientId:messageId → correlationId (브로커 전달 완료 대기)
+    private final Map<String, String> awaitingBroker = new ConcurrentHashMap<>();
+    // clientId:messageId → 전달 완료 시각 (발행 이벤트보다 먼저 도착한 전달 완료)
+    private final Map<String, Long> deliveredEarly = new ConcurrentHashMap<>();
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final MeterRegistry meterRegistry;
+    private final Counter droppedCounter;
+    private final long timeoutMillis;
+    private final int maxPending;
+
+    public CaptureCommandTracker(MeterRegistry meterRegistry,
+                                 @Value("${capture.tracking.timeout-seconds:600}") long timeoutSeconds,
+                                 @Value("${capture.tracking.max-pending:100000}") int maxPending) {
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = Duration.ofSeconds(timeoutSeconds).toMillis();
+        this.maxPending = maxPending;
+
+        for (Stage stage : Stage.values()) {
+            if (stage != Stage.PUBLISH) {
+                stageTimers.put(stage, Timer.builder("capture.latency")
+                        .description("촬영 명령 발행부터 각 단계 도달까지 걸린 시간")
+                        .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+        }
+        this.droppedCounter = Counter.builder("capture.tracking.dropped")
+                .description("추적 대기열이 가득 차 추적하지 못한 촬영 명령 수")
+                .register(meterRegistry);
+        Gauge.builder("capture.tracking.pending", pending, Map::size)
+                .description("완료되지 않은 촬영 명령 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 명령 발행 직전에 호출 (추적 대기열이 가득 차도 correlationId 는 발급한다)
+     */
+    public String register(String deviceUuid) {
+        String correlationId = UUID.randomUUID().toString();
+        if (pending.size() >= maxPending) {
+            droppedCounter.increment();
+            return correlationId;
+        }
+        pending.put(correlationId, new PendingCapture(deviceUuid));
+        latestByDevice.put(deviceUuid, correlationId);
+        return correlationId;
+    }
+
+    // 발행 실패 시 추적 취소
+    public void cancel(String correlationId) {
+        PendingCapture capture = pending.remove(correlationId);
+        if (capture != null) {
+            release(correlationId, capture);
+        }
+    }
+
+    /**
+     * 이미지 업로드 수신 시 명령과 매칭 (매칭된 correlationId, 없으면 null)
+     */
+    public String onUpload(String deviceUuid, String correlationId) {
+        String matchedId = correlationId != null ? correlationId : latestByDevice.get(deviceUuid);
+        if (matchedId == null) {
+            return null;
+        }
+        PendingCapture capture = pending.get(matchedId);
+        if (capture == null || !capture.deviceUuid.equals(deviceUuid)) {
+            return null;
+        }
+        record(matchedId, Stage.UPLOAD);
+        return matchedId;
+    }
+
+    /**
+     * 디바이스 ack 수신 시 호출 (다른 디바이스로 보낸 명령의 correlationId 면 무시)
+     */
+    public void onAcknowledged(String deviceUuid, String correlationId) {
+        String matchedId = correlationId != null ? correlationId : latestByDevice.get(deviceUuid);
+        if (matchedId == null) {
+            return;
+        }
+        PendingCapture capture = pending.get(matchedId);
+        if (capture != null && capture.deviceUuid.equals(deviceUuid)) {
+            record(capture, Stage.ACK, System.nanoTime());
+        }
+    }
+
+    /**
+     * 단계 도달 기록 (같은 단계는 한 번만 기록, correlationId 가 null 이면 무시)
+     */
+    public void record(String correlationId, Stage stage) {
+        if (correlationId == null) {
+            return;
+        }
+        PendingCapture capture = pending.get(correlationId);
+        if (capture != null) {
+            record(capture, stage, System.nanoTime());
+        }
+    }
+
+    // 아직 완료/만료되지 않은 명령인지 여부
+    public boolean isPending(String correlationId) {
+        return pending.containsKey(correlationId);
+    }
+
+    // 분석(및 알림)까지 끝난 명령 정리
+    public void complete(String correlationId) {
+        if (correlationId != null) {
+            cancel(correlationId);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(MqttIntegrationEvent event) {
+        if (event instanceof MqttMessageSentEvent sent) {
+            String brokerKey = sent.getClientId() + ":" + sent.getMessageId();
+            // 추적하지 않는 메시지여도 먼저 온 전달 완료는 여기서 지운다
+            Long deliveredAtNanos = deliveredEarly.remove(brokerKey);
+            String correlationId = sent.getMessage().getHeaders().get(CORRELATION_ID, String.class);
+            PendingCapture capture = correlationId != null ? pending.get(correlationId) : null;
+            if (capture == null) {
+                return;
+            }
+            if (deliveredAtNanos != null) {
+                record(capture, Stage.BROKER, deliveredAtNanos);
+            } else {
+                capture.brokerKey = brokerKey;
+                awaitingBroker.put(brokerKey, correlationId);
+            }
+        } else if (event instanceof MqttMessageDeliveredEvent delivered) {
+            String brokerKey = delivered.getClientId() + ":" + delivered.getMessageId();
+            String correlationId = awaitingBroker.remove(brokerKey);
+            if (correlationId != null) {
+                record(correlationId, Stage.BROKER);
+            } else if (deliveredEarly.size() < maxPending) {
+                deliveredEarly.put(brokerKey, System.nanoTime());
+            }
+        }
+    }
+
+    // 제한 시간이 지난 명령 만료 (마지막으로 도달한 단계별로 집계)
+    @Scheduled(fixedDelayString = "${capture.tracking.sweep-millis:10000}")
+    public void expireTimedOut() {
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        // 발행 이벤트가 끝내 오지 않은 전달 완료
+        deliveredEarly.values().removeIf(deliveredAtNanos -> deliveredAtNanos - deadline < 0);
+        pending.forEach((correlationId, capture) -> {
+            if (capture.startNanos - deadline < 0 && pending.remove(correlationId, capture)) {
+                release(correlationId, capture);
+                meterRegistry.counter("capture.tracking.expired",
+                        "stage", capture.lastStage().name().toLowerCase(Locale.ROOT)).increment();
+                log.debug("Capture command expired - CorrelationId: {}, DeviceUuid: {}, LastStage: {}",
+                        correlationId, capture.deviceUuid, capture.lastStage());
+            }
+        });
+    }
+
+    private void record(PendingCapture capture, Stage stage, long atNanos) {
+        if (capture.reach(stage)) {
+            stageTimers.get(stage).record(Math.max(0, atNanos - capture.startNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void release(String correlationId, PendingCapture capture) {
+        latestByDevice.remove(capture.deviceUuid, correlationId);
+        if (capture.brokerKey != null) {
+            awaitingBroker.remove(capture.brokerKey);
+        }
+    }
+
+    private static final class PendingCapture {
+        private final String deviceUuid;
+        private final long startNanos = System.nanoTime();
+        // 도달한 단계 비트마스크
+        private final AtomicInteger reached = new AtomicInteger(1 << Stage.PUBLISH.ordinal());
+        private volatile String brokerKey;
+
+        PendingCapture(String deviceUuid) {
+            this.deviceUuid = deviceUuid;
+        }
+
+        boolean reach(Stage stage) {
+            int bit = 1 << stage.ordinal();
+            return (reached.getAndUpdate(mask -> mask | bit) & bit) == 0;
+        }
+
+        Stage lastStage() {
+            int mask = reached.get();
+            return Stage.values()[31 - Integer.numberOfLeadingZeros(mask)];
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.dto.response.CaptureCommandResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 디바이스별 촬영 요청 합치기
+ *
+ * 같은 사용자가 같은 디바이스에 촬영을 반복 요청하면, 이전 명령이 아직 진행 중(분석 전)이고 window 이내인 동안은
+ * 디바이스 조회/MQTT 발행 없이 이전 명령의 correlationId 를 그대로 돌려준다.
+ * 소유권/촬영 시간 검사(MqttService.checkCaptureAllowed, 조회 없음)는 합쳐지는 요청도 매번 거친다.
+ * 동시에 들어온 요청은 먼저 들어온 요청의 발행 결과(또는 예외)를 함께 받는다.
+ * 다른 사용자의 요청은 합치지 않고 원래 경로에서 검증한다.
+ * 오프라인이라 대기열에 보관된 명령은 합치지 않는다 (대기열이 디바이스당 한 건으로 합친다).
+ */
+@Service
+public class CaptureRequestCoalescer {
+
+    // deviceId → 진행 중인 촬영 명령
+    private final Map<Long, InFlightCapture> inFlight = new ConcurrentHashMap<>();
+
+    private final MqttService mqttService;
+    private final CaptureCommandTracker captureCommandTracker;
+    private final long windowMillis;
+    private final Counter coalescedCounter;
+
+    public CaptureRequestCoalescer(MqttService mqttService, CaptureCommandTracker captureCommandTracker,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${capture.coalesce.window-seconds:30}") long windowSeconds) {
+        this.mqttService = mqttService;
+        this.captureCommandTracker = captureCommandTracker;
+        this.windowMillis = Duration.ofSeconds(windowSeconds).toMillis();
+        this.coalescedCounter = Counter.builder("capture.coalesced")
+                .description("진행 중인 촬영 명령에 합쳐져 새로 발행하지 않은 촬영 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("capture.coalesce.inflight", inFlight, Map::size)
+                .description("합치기 대상으로 보관 중인 촬영 명령 수")
+                .register(meterRegistry);
+    }
+
+    public CaptureCommandResponseDto requestCapture(Long userId, Long deviceId) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            InFlightCapture current = inFlight.get(deviceId);
+            if (current != null) {
+                if (!current.userId.equals(userId)) {
+                    return mqttService.requestCapture(userId, deviceId);
+                }
+                if (isReusable(current, now)) {
+                    // 합치기 전에 확인 (window 안에 연결이 해제됐으면 이전 명령을 돌려주지 않는다)
+                    mqttService.checkCaptureAllowed(userId, deviceId);
+                    CaptureCommandResponseDto response = current.await();
+                    coalescedCounter.increment();
+                    return response.asCoalesced();
+                }
+                inFlight.remove(deviceId, current);
+                continue;
+            }
+
+            InFlightCapture created = new InFlightCapture(userId, now + windowMillis);
+            if (inFlight.putIfAbsent(deviceId, created) != null) {
+                continue;
+            }
+            try {
+                CaptureCommandResponseDto response = mqttService.requestCapture(userId, deviceId);
+                created.result.complete(response);
+                return response;
+            } catch (RuntimeException e) {
+                inFlight.remove(deviceId, created);
+                created.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    // 만료됐거나 이미 분석까지 끝난 명령 정리
+    @Scheduled(fixedDelayString = "${capture.coalesce.sweep-millis:60000}")
+    public void evictStale() {
+        long now = System.currentTimeMillis();
+        inFlight.forEach((deviceId, capture) -> {
+            if (capture.result.isDone() && !isReusable(capture, now)) {
+                inFlight.remove(deviceId, capture);
+            }
+        });
+    }
+
+    // 발행 중이거나, 발행했고 아직 완료되지 않은 명령이면 재사용 (대기열에 보관된 명령은 correlationId 가 없다)
+    private boolean isReusable(InFlightCapture capture, long now) {
+        if (now >= capture.expiresAtMillis || capture.result.isCompletedExceptionally()) {
+            return false;
+        }
+        CaptureCommandResponseDto response = capture.result.getNow(null);
+        return response == null
+                || (response.getCorrelationId() != null && captureCommandTracker.isPending(response.getCorrelationId()));
+    }
+
+    private static final class InFlightCapture {
+        private final Long userId;
+        private final long expiresAtMillis;
+        private final CompletableFuture<CaptureCommandResponseDto> result = new CompletableFuture<>();
+
+        InFlightCapture(Long userId, long expiresAtMillis) {
+            this.userId = userId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        CaptureCommandResponseDto await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.config.NodeIdentity;
+import com.farmguardian.farmguardian.domain.CaptureSchedule;
+import com.farmguardian.farmguardian.domain.CaptureScheduleLease;
+import com.farmguardian.farmguardian.domain.CaptureScheduleNode;
+import com.farmguardian.farmguardian.repository.CaptureScheduleLeaseRepository;
+import com.farmguardian.farmguardian.repository.CaptureScheduleNodeRepository;
+import com.farmguardian.farmguardian.repository.CaptureScheduleRepository;
+import com.farmguardian.farmguardian.util.HashedTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주기 촬영 스케줄 실행 엔진
+ *
+ * - 디바이스마다 타이머를 두지 않고 Hashed Timing Wheel 하나로 모든 스케줄을 관리한다.
+ * - 디바이스는 device_id % partitions 로 파티션에 배정되며, 파티션 임대(lease)를 가진 인스턴스만 해당 스케줄을 실행한다.
+ * - 임대는 DB 만료 시각보다 일찍 로컬에서 만료시켜, 다른 인스턴스가 넘겨받은 뒤 중복 실행되지 않게 한다.
+ * - 촬영 시각은 (device_id 해시 기반 위상 + 주기) 로 정렬되므로, 파티션이 옮겨가도 같은 시각에 한 번만 실행된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "capture.schedule.enabled", havingValue = "true")
+public class CaptureScheduleEngine {
+
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private final CaptureScheduleRepository captureScheduleRepository;
+    private final CaptureScheduleLeaseRepository leaseRepository;
+    private final CaptureScheduleNodeRepository nodeRepository;
+    private final MqttService mqttService;
+    private final AdaptiveCapturePolicy adaptiveCapturePolicy;
+    private final String nodeId;
+    private final int partitions;
+    private final Duration leaseDuration;
+    private final HashedTimingWheel<ScheduledCapture> wheel;
+    private final ThreadPoolExecutor dispatchExecutor;
+    private final Counter firedCounter;
+    private final Counter skippedCounter;
+
+    // 파티션 번호 → 로컬 임대 만료 시각 (System.nanoTime 기준)
+    private final Map<Integer, Long> ownedPartitions = new ConcurrentHashMap<>();
+    // 스케줄 ID → 현재 등록된 타이머
+    private final Map<Long, HashedTimingWheel.Timeout<ScheduledCapture>> registrations = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSyncedAt;
+
+    public CaptureScheduleEngine(CaptureScheduleRepository captureScheduleRepository,
+                                 CaptureScheduleLeaseRepository leaseRepository,
+                                 CaptureScheduleNodeRepository nodeRepository,
+                                 MqttService mqttService,
+                                 AdaptiveCapturePolicy adaptiveCapturePolicy,
+                                 NodeIdentity nodeIdentity,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${capture.schedule.partitions:64}") int partitions,
+                                 @Value("${capture.schedule.tick-millis:1000}") long tickMillis,
+                                 @Value("${capture.schedule.wheel-size:512}") int wheelSize,
+                                 @Value("${capture.schedule.lease-duration-seconds:30}") long leaseDurationSeconds,
+                                 @Value("${capture.schedule.dispatch-threads:2}") int dispatchThreads,
+                                 @Value("${capture.schedule.dispatch-queue-capacity:10000}") int dispatchQueueCapacity) {
+        this.captureScheduleRepository = captureScheduleRepository;
+        this.leaseRepository = leaseRepository;
+        this.nodeRepository = nodeRepository;
+        this.mqttService = mqttService;
+        this.adaptiveCapturePolicy = adaptiveCapturePolicy;
+        this.nodeId = nodeIdentity.getNodeId();
+        this.partitions = partitions;
+        this.leaseDuration = Duration.ofSeconds(leaseDurationSeconds);
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+
+        // 발행은 별도 스레드에서 (브로커 재연결 중에도 타이머 스레드가 멈추지 않도록), 큐가 가득 차면 타이머 스레드가 직접 처리
+        AtomicInteger threadSequence = new AtomicInteger();
+        this.dispatchExecutor = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "capture-dispatch-" + threadSequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.firedCounter = Counter.builder("capture.schedule.fired")
+                .description("주기 촬영 명령 발행 수")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("capture.schedule.skipped")
+                .description("야간/허용 시간대 밖이라 건너뛴 주기 촬영 수")
+                .register(meterRegistry);
+        Gauge.builder("capture.schedule.timers", wheel, HashedTimingWheel::size)
+                .description("이 인스턴스가 관리 중인 주기 촬영 타이머 수")
+                .register(meterRegistry);
+        Gauge.builder("capture.schedule.partitions.owned", ownedPartitions, Map::size)
+                .description("이 인스턴스가 임대 중인 스케줄 파티션 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        // 파티션 임대 행이 없으면 생성 (여러 인스턴스가 동시에 생성해도 하나만 성공)
+        if (leaseRepository.count() < partitions) {
+            for (int partitionNo = 0; partitionNo < partitions; partitionNo++) {
+                if (!leaseRepository.existsById(partitionNo)) {
+                    try {
+                        leaseRepository.save(new CaptureScheduleLease(partitionNo));
+                    } catch (DataIntegrityViolationException e) {
+                        log.debug("Capture schedule lease already created - Partition: {}", partitionNo);
+                    }
+                }
+            }
+        }
+        log.info("Capture schedule engine started - NodeId: {}, Partitions: {}", nodeId, partitions);
+    }
+
+    // Timing Wheel 진행 (만료된 스케줄 실행)
+    @Scheduled(fixedRateString = "${capture.schedule.tick-millis:1000}")
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    void tick(long nowMillis) {
+        wheel.advance(nowMillis, capture -> fire(capture, nowMillis));
+    }
+
+    /**
+     * 파티션 임대 갱신/획득/반납 및 스케줄 증분 동기화
+     */
+    @Scheduled(fixedDelayString = "${capture.schedule.lease-renew-millis:10000}",
+            initialDelayString = "${capture.schedule.lease-renew-millis:10000}")
+    public void maintainLeases() {
+        try {
+            long startedNanos = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(leaseDuration);
+
+            nodeRepository.save(new CaptureScheduleNode(nodeId, expiresAt));
+            nodeRepository.deleteExpired(now);
+            leaseRepository.renew(nodeId, now, expiresAt);
+
+            Set<Integer> owned = new HashSet<>(leaseRepository.findPartitionNosOwnedBy(nodeId, now));
+            rebalance(owned, now, expiresAt);
+
+            // DB 만료보다 20% 일찍 로컬 임대를 만료시킨다 (갱신 실패 시 다른 인스턴스와 겹치지 않도록)
+            long localDeadline = startedNanos + leaseDuration.toNanos() * 8 / 10;
+            Set<Integer> acquired = new HashSet<>(owned);
+            acquired.removeAll(ownedPartitions.keySet());
+            ownedPartitions.keySet().retainAll(owned);
+            owned.forEach(partitionNo -> ownedPartitions.put(partitionNo, localDeadline));
+
+            acquired.forEach(this::loadPartition);
+            syncChangedSchedules(now);
+            updateCaptureBudget();
+        } catch (Exception e) {
+            log.error("Failed to maintain capture schedule leases - NodeId: {}", nodeId, e);
+        }
+    }
+
+    // 살아있는 인스턴스 수 기준 공정 분배량에 맞춰 파티션 획득/반납
+    private void rebalance(Set<Integer> owned, LocalDateTime now, LocalDateTime expiresAt) {
+        long liveNodes = Math.max(1, nodeRepository.countByExpiresAtAfter(now));
+        int fairShare = (int) ((partitions + liveNodes - 1) / liveNodes);
+
+        if (owned.size() < fairShare) {
+            for (Integer partitionNo : leaseRepository.findAcquirablePartitionNos(now)) {
+                if (owned.size() >= fairShare) {
+                    break;
+                }
+                if (leaseRepository.acquire(partitionNo, nodeId, now, expiresAt) == 1) {
+                    owned.add(partitionNo);
+                    log.info("Capture schedule partition acquired - NodeId: {}, Partition: {}", nodeId, partitionNo);
+                }
+            }
+        } else if (owned.size() > fairShare) {
+            List<Integer> surplus = new ArrayList<>(owned).subList(0, owned.size() - fairShare);
+            for (Integer partitionNo : surplus) {
+                // 실행을 먼저 멈춘 뒤 DB 임대를 반납한다
+                ownedPartitions.remove(partitionNo);
+                leaseRepository.release(partitionNo, nodeId);
+                owned.remove(partitionNo);
+                log.info("Capture schedule partition released - NodeId: {}, Partition: {}", nodeId, partitionNo);
+            }
+        }
+    }
+
+    private void loadPartition(int partitionNo) {
+        List<CaptureSchedule> schedules = captureScheduleRepository.findAllEnabledByPartition(partitions, partitionNo);
+        schedules.forEach(this::apply);
+        log.info("Capture schedule partition loaded - Partition: {}, Schedules: {}", partitionNo, schedules.size());
+    }
+
+    private void syncChangedSchedules(LocalDateTime now) {
+        LocalDateTime since = lastSyncedAt;
+        lastSyncedAt = now.minusSeconds(SYNC_OVERLAP_SECONDS);
+        if (since == null) {
+            return;
+        }
+        captureScheduleRepository.findAllByUpdatedAtAfter(since).forEach(this::apply);
+    }
+
+    // 이 인스턴스가 맡은 스케줄의 분당 촬영 수요를 계산해 추론 예산에 반영
+    private void updateCaptureBudget() {
+        double demandPerMinute = 0;
+        for (HashedTimingWheel.Timeout<ScheduledCapture> timeout : registrations.values()) {
+            ScheduledCapture capture = timeout.getTask();
+            demandPerMinute += 60_000.0 * Math.max(capture.rateMultiplier(), 1.0) / capture.intervalMillis();
+        }
+        adaptiveCapturePolicy.updateBudget(demandPerMinute, (double) ownedPartitions.size() / partitions);
+    }
+
+    /**
+     * 스케줄 변경 반영 (이 인스턴스가 소유한 파티션인 경우에만 타이머 등록)
+     */
+    public void apply(CaptureSchedule schedule) {
+        long deviceId = schedule.getDevice().getId();
+        HashedTimingWheel.Timeout<ScheduledCapture> previous = registrations.remove(schedule.getId());
+        if (previous != null) {
+            previous.cancel();
+        }
+        if (!schedule.isEnabled() || !ownedPartitions.containsKey(partitionOf(deviceId))) {
+            return;
+        }
+
+        ScheduledCapture capture = new ScheduledCapture(
+                schedule.getId(),
+                deviceId,
+                schedule.getDeviceUuid(),
+                Duration.ofMinutes(schedule.getIntervalMinutes()).toMillis(),
+                schedule.getEffectiveRateMultiplier(),
+                schedule.getActiveStart(),
+                schedule.getActiveEnd()
+        );
+        register(capture, nextFireMillis(capture, System.currentTimeMillis()));
+    }
+
+    private void register(ScheduledCapture capture, long deadlineMillis) {
+        HashedTimingWheel.Timeout<ScheduledCapture> timeout = wheel.schedule(capture, deadlineMillis);
+        HashedTimingWheel.Timeout<ScheduledCapture> replaced = registrations.put(capture.scheduleId(), timeout);
+        if (replaced != null && replaced != timeout) {
+            replaced.cancel();
+        }
+    }
+
+    private void fire(ScheduledCapture capture, long nowMillis) {
+        // 등록이 교체(수정/비활성화)되었으면 실행하지 않는다 (apply 가 만든 새 ScheduledCapture 는 다른 인스턴스다)
+        HashedTimingWheel.Timeout<ScheduledCapture> fired = registrations.get(capture.scheduleId());
+        if (fired == null || fired.getTask() != capture) {
+            return;
+        }
+        // 파티션 임대를 잃었으면 실행하지 않는다
+        Long leaseDeadline = ownedPartitions.get(partitionOf(capture.deviceId()));
+        if (leaseDeadline == null || System.nanoTime() - leaseDeadline > 0) {
+            registrations.remove(capture.scheduleId(), fired);
+            return;
+        }
+
+        if (isCaptureAllowed(capture, LocalTime.now())) {
+            dispatchExecutor.execute(() -> mqttService.sendScheduledCapture(capture.deviceUuid()));
+            firedCounter.increment();
+        } else {
+            skippedCounter.increment();
+        }
+
+        // 실행 중에 apply 가 등록을 교체/제거했으면 다시 등록하지 않는다 (비활성화된 스케줄이 되살아나지 않도록)
+        HashedTimingWheel.Timeout<ScheduledCapture> next = wheel.schedule(capture, nextFireMillis(capture, nowMillis));
+        if (!registrations.replace(capture.scheduleId(), fired, next)) {
+            next.cancel();
+        }
+    }
+
+    // 주기는 분석 결과 배율과 추론 예산을 반영한 값을 사용한다 (예산 배율은 인스턴스마다 다를 수 있다)
+    private long nextFireMillis(ScheduledCapture capture, long nowMillis) {
+        long interval = adaptiveCapturePolicy.effectiveIntervalMillis(capture.intervalMillis(), capture.rateMultiplier());
+        return nextFireMillis(capture.deviceId(), capture.intervalMillis(), interval, nowMillis);
+    }
+
+    /**
+     * device_id 기반 위상에 맞춘 다음 실행 시각
+     * 위상과 기준 격자(phase + k × 기본 주기)는 기본 주기로만 계산하므로 모든 인스턴스에서 같다.
+     * 주기가 줄어든 경우 기준 격자 시각 사이를 나눠 실행하고 격자 시각마다 다시 맞추므로, 임대가 다른 인스턴스로 넘어가도
+     * 격자 시각의 촬영은 밀리거나 두 번 나가지 않는다. (격자 사이의 촬영 시각은 넘겨받은 인스턴스의 주기를 따른다)
+     * 주기가 늘어난 경우(추론 예산 부족)는 같은 위상에서 늘어난 주기로 실행한다.
+     */
+    static long nextFireMillis(long deviceId, long baseIntervalMillis, long intervalMillis, long nowMillis) {
+        long phase = Math.floorMod(Long.hashCode(deviceId) * 0x9E3779B1L, baseIntervalMillis);
+        if (intervalMillis >= baseIntervalMillis) {
+            return Math.floorDiv(nowMillis - phase, intervalMillis) * intervalMillis + phase + intervalMillis;
+        }
+        long anchor = Math.floorDiv(nowMillis - phase, baseIntervalMillis) * baseIntervalMillis + phase;
+        long next = anchor + (Math.floorDiv(nowMillis - anchor, intervalMillis) + 1) * intervalMillis;
+        return Math.min(next, anchor + baseIntervalMillis);
+    }
+
+    private boolean isCaptureAllowed(ScheduledCapture capture, LocalTime time) {
+        if (MqttService.isNightTime(time)) {
+            return false;
+        }
+        if (capture.activeStart() == null || capture.activeEnd() == null) {
+            return true;
+        }
+        if (capture.activeStart().isBefore(capture.activeEnd())) {
+            return !time.isBefore(capture.activeStart()) && time.isBefore(capture.activeEnd());
+        }
+        // 자정을 넘는 시간대 (예: 22:00 ~ 02:00)
+        return !time.isBefore(capture.activeStart()) || time.isBefore(capture.activeEnd());
+    }
+
+    private int partitionOf(long deviceId) {
+        return (int) Math.floorMod(deviceId, (long) partitions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ownedPartitions.clear();
+        dispatchExecutor.shutdown();
+        try {
+            leaseRepository.releaseAll(nodeId);
+            log.info("Capture schedule leases released - NodeId: {}", nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to release capture schedule leases - NodeId: {}", nodeId, e);
+        }
+    }
+
+    private record ScheduledCapture(long scheduleId, long deviceId, String deviceUuid, long intervalMillis,
+                                    double rateMultiplier, LocalTime activeStart, LocalTime activeEnd) {
+    }
+}
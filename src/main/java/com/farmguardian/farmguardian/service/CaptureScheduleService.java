@@ -0,0 +1,119 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.CaptureSchedule;
+import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.dto.request.CaptureScheduleRequestDto;
+import com.farmguardian.farmguardian.dto.response.CaptureScheduleResponseDto;
+import com.farmguardian.farmguardian.exception.device.DeviceNotConnectedException;
+import com.farmguardian.farmguardian.exception.device.UnauthorizedDeviceAccessException;
+import com.farmguardian.farmguardian.exception.schedule.CaptureScheduleNotFoundException;
+import com.farmguardian.farmguardian.repository.CaptureScheduleRepository;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CaptureScheduleService {
+
+    private final CaptureScheduleRepository captureScheduleRepository;
+    private final DeviceRepository deviceRepository;
+    private final ObjectProvider<CaptureScheduleEngine> captureScheduleEngine;
+    private final AdaptiveCapturePolicy adaptiveCapturePolicy;
+
+    // 주기 촬영 스케줄 등록 또는 수정
+    @Transactional
+    public CaptureScheduleResponseDto upsertSchedule(Long userId, Long deviceId, CaptureScheduleRequestDto request) {
+        Device device = deviceRepository.findByIdAndUserId(deviceId, userId)
+                .orElseThrow(UnauthorizedDeviceAccessException::new);
+
+        if (device.getStatus() != DeviceStatus.CONNECTED) {
+            throw new DeviceNotConnectedException();
+        }
+
+        boolean enabled = request.getEnabled() == null || request.getEnabled();
+        CaptureSchedule schedule = captureScheduleRepository.findByDeviceId(deviceId)
+                .map(existing -> {
+                    existing.update(request.getIntervalMinutes(), request.getActiveStart(), request.getActiveEnd(), enabled);
+                    return existing;
+                })
+                .orElseGet(() -> createSchedule(device, request, enabled));
+
+        applyAfterCommit(captureScheduleRepository.saveAndFlush(schedule));
+        return toResponse(schedule);
+    }
+
+    private CaptureSchedule createSchedule(Device device, CaptureScheduleRequestDto request, boolean enabled) {
+        CaptureSchedule schedule = CaptureSchedule.builder()
+                .device(device)
+                .intervalMinutes(request.getIntervalMinutes())
+                .activeStart(request.getActiveStart())
+                .activeEnd(request.getActiveEnd())
+                .build();
+        if (!enabled) {
+            schedule.disable();
+        }
+        return schedule;
+    }
+
+    // 주기 촬영 스케줄 조회
+    public CaptureScheduleResponseDto getSchedule(Long userId, Long deviceId) {
+        deviceRepository.findByIdAndUserId(deviceId, userId)
+                .orElseThrow(UnauthorizedDeviceAccessException::new);
+
+        CaptureSchedule schedule = captureScheduleRepository.findByDeviceId(deviceId)
+                .orElseThrow(CaptureScheduleNotFoundException::new);
+        return toResponse(schedule);
+    }
+
+    // 주기 촬영 스케줄 해제 (비활성화)
+    @Transactional
+    public void disableSchedule(Long userId, Long deviceId) {
+        deviceRepository.findByIdAndUserId(deviceId, userId)
+                .orElseThrow(UnauthorizedDeviceAccessException::new);
+
+        CaptureSchedule schedule = captureScheduleRepository.findByDeviceId(deviceId)
+                .orElseThrow(CaptureScheduleNotFoundException::new);
+        schedule.disable();
+        applyAfterCommit(schedule);
+    }
+
+    // 디바이스 연결 해제 / 회원 탈퇴 시 스케줄 비활성화 (다른 인스턴스는 증분 동기화로 반영)
+    @Transactional
+    public void disableSchedulesForDevices(Collection<Long> deviceIds) {
+        if (deviceIds.isEmpty()) {
+            return;
+        }
+        captureScheduleRepository.disableAllByDeviceIds(deviceIds, LocalDateTime.now());
+    }
+
+    private CaptureScheduleResponseDto toResponse(CaptureSchedule schedule) {
+        long baseIntervalMillis = Duration.ofMinutes(schedule.getIntervalMinutes()).toMillis();
+        return CaptureScheduleResponseDto.from(schedule,
+                adaptiveCapturePolicy.effectiveIntervalMillis(baseIntervalMillis, schedule.getEffectiveRateMultiplier()));
+    }
+
+    // 커밋된 변경만 이 인스턴스의 실행 엔진에 즉시 반영
+    private void applyAfterCommit(CaptureSchedule schedule) {
+        CaptureScheduleEngine engine = captureScheduleEngine.getIfAvailable();
+        if (engine == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                engine.apply(schedule);
+            }
+        });
+    }
+}
@@ -0,0 +1,367 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.dto.response.DeviceImportResponseDto;
+import com.farmguardian.farmguardian.dto.response.DeviceImportResponseDto.RowError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 디바이스 일괄 등록 (입고된 카메라를 AVAILABLE 로 등록)
+ *
+ * - 업로드 본문을 한 줄씩 읽으며 검증하므로 파일 전체를 메모리에 올리지 않는다.
+ * - batch-size 행마다 기존 device_uuid 를 IN 조회 한 번으로 걸러 내고, 남은 행을 JDBC batch INSERT 한다
+ *   (IDENTITY 키라 JPA 로는 INSERT 가 묶이지 않는다). 묶음마다 따로 커밋하므로 중간에 실패해도 앞 묶음은 남는다.
+ * - 같은 파일 안의 중복은 묶음 안에서는 Map 으로, 묶음 사이에서는 앞 묶음이 이미 INSERT 됐으므로 IN 조회로 걸러진다.
+ * - 다른 등록과 계속 겹쳐 묶음을 저장하지 못하면 그 묶음의 행만 실패(failed)로 기록하고 다음 묶음을 계속 처리한다.
+ * - 등록이 끝나면 화이트리스트 버전을 한 번 올린다. 디바이스 인덱스는 처음 조회될 때 DB 에서 채운다.
+ *
+ * CSV: device_uuid[,target_crop[,latitude,longitude]] (첫 줄이 device_uuid 로 시작하면 헤더로 본다)
+ * NDJSON: {"deviceUuid": "...", "targetCrop": "POTATO", "latitude": 37.5, "longitude": 127.0}
+ */
+@Slf4j
+@Service
+public class DeviceImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final int MAX_UUID_LENGTH = 255;
+    private static final String MOBILE_DEVICE_PREFIX = "mobile-user-";
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+
+    // 삭제(soft delete)된 디바이스도 unique 제약에 걸리므로 엔티티 조회(@SQLRestriction) 대신 테이블을 직접 조회한다
+    private static final String SELECT_EXISTING_SQL =
+            "SELECT device_uuid FROM devices WHERE device_uuid IN (:deviceUuids)";
+    private static final String INSERT_SQL =
+            "INSERT INTO devices (device_uuid, status, target_crop, latitude, longitude, created_at, updated_at, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final FleetCounters fleetCounters;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    private final Counter insertedCounter;
+    private final Counter duplicateCounter;
+    private final Counter invalidCounter;
+    private final Counter failedCounter;
+
+    public DeviceImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper, CacheInvalidationBus cacheInvalidationBus,
+                               FleetCounters fleetCounters, MeterRegistry meterRegistry,
+                               @Value("${device.import.batch-size:1000}") int batchSize,
+                               @Value("${device.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.fleetCounters = fleetCounters;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        this.insertedCounter = rowCounter(meterRegistry, "inserted");
+        this.duplicateCounter = rowCounter(meterRegistry, "duplicate");
+        this.invalidCounter = rowCounter(meterRegistry, "invalid");
+        this.failedCounter = rowCounter(meterRegistry, "failed");
+    }
+
+    public DeviceImportResponseDto importDevices(InputStream body, Format format) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        Map<String, ImportRow> chunk = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            boolean firstRow = true;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);   // UTF-8 BOM
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (firstRow) {
+                    firstRow = false;
+                    if (format == Format.CSV && isCsvHeader(line)) {
+                        continue;
+                    }
+                }
+
+                report.read++;
+                ImportRow row;
+                try {
+                    row = format == Format.CSV ? parseCsv(line, lineNumber) : parseNdjson(line, lineNumber);
+                } catch (IllegalArgumentException e) {
+                    report.invalid(lineNumber, e.getMessage());
+                    invalidCounter.increment();
+                    continue;
+                }
+                if (chunk.putIfAbsent(row.deviceUuid(), row) != null) {
+                    report.duplicates++;
+                    duplicateCounter.increment();
+                    continue;
+                }
+                if (chunk.size() >= batchSize) {
+                    flush(chunk.values(), report);
+                    chunk.clear();
+                }
+            }
+        }
+        flush(chunk.values(), report);
+
+        if (report.inserted > 0) {
+            cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE_WHITELIST, "import");
+        }
+        long elapsedMillis = System.currentTimeMillis() - startedAt;
+        log.info("Device import finished - Format: {}, Read: {}, Inserted: {}, Duplicates: {}, Invalid: {}, Failed: {}, Elapsed: {}ms",
+                format, report.read, report.inserted, report.duplicates, report.invalid, report.failed, elapsedMillis);
+        return report.toResponse(elapsedMillis);
+    }
+
+    // 묶음 INSERT (중복 확인과 INSERT 사이에 다른 요청이 같은 UUID 를 넣었으면 다시 걸러 MAX_BATCH_ATTEMPTS 번까지 시도)
+    // 그래도 겹치면 그 묶음의 행만 실패로 기록한다 (같은 파일을 다시 올리면 이미 등록된 행은 중복으로 걸러진다)
+    private void flush(Collection<ImportRow> rows, ImportReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int inserted = -1;
+        for (int attempt = 1; inserted < 0; attempt++) {
+            try {
+                inserted = insertNew(rows);
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_BATCH_ATTEMPTS) {
+                    log.warn("Device import batch kept racing with other inserts, skipped - Rows: {}, Attempts: {}",
+                            rows.size(), attempt);
+                    rows.forEach(row -> report.failed(row.line(), "다른 등록과 겹쳐 저장하지 못했습니다 (다시 올리면 등록됩니다)"));
+                    failedCounter.increment(rows.size());
+                    return;
+                }
+                log.info("Device import batch raced with another insert, retrying - Rows: {}, Attempt: {}",
+                        rows.size(), attempt);
+            }
+        }
+        report.inserted += inserted;
+        report.duplicates += rows.size() - inserted;
+        insertedCounter.increment(inserted);
+        duplicateCounter.increment(rows.size() - inserted);
+        log.info("Device import progress - Read: {}, Inserted: {}, Duplicates: {}, Invalid: {}, Failed: {}",
+                report.read, report.inserted, report.duplicates, report.invalid, report.failed);
+    }
+
+    private int insertNew(Collection<ImportRow> rows) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            List<String> deviceUuids = rows.stream().map(ImportRow::deviceUuid).toList();
+            Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                    SELECT_EXISTING_SQL, Map.of("deviceUuids", deviceUuids), String.class));
+            List<ImportRow> newRows = rows.stream()
+                    .filter(row -> !existing.contains(row.deviceUuid()))
+                    .toList();
+            if (newRows.isEmpty()) {
+                return 0;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_SQL, newRows, newRows.size(), (ps, row) -> {
+                ps.setString(1, row.deviceUuid());
+                ps.setString(2, DeviceStatus.AVAILABLE.name());
+                if (row.targetCrop() != null) {
+                    ps.setString(3, row.targetCrop().name());
+                } else {
+                    ps.setNull(3, Types.VARCHAR);
+                }
+                ps.setBigDecimal(4, row.latitude());
+                ps.setBigDecimal(5, row.longitude());
+                ps.setTimestamp(6, now);
+                ps.setTimestamp(7, now);
+            });
+            recordCreated(newRows);
+            return newRows.size();
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    // 작물별 등록 수를 집계에 반영 (트랜잭션 커밋 후)
+    private void recordCreated(List<ImportRow> newRows) {
+        Map<TargetCrop, Long> byCrop = new HashMap<>();
+        newRows.forEach(row -> byCrop.merge(row.targetCrop(), 1L, Long::sum));
+        byCrop.forEach((crop, count) -> fleetCounters.recordCreated(DeviceStatus.AVAILABLE, crop, count));
+    }
+
+    private static boolean isCsvHeader(String line) {
+        String first = line.split(",", 2)[0].trim();
+        return first.equalsIgnoreCase("device_uuid") || first.equalsIgnoreCase("deviceUuid");
+    }
+
+    private static ImportRow parseCsv(String line, long lineNumber) {
+        String[] fields = line.split(",", -1);
+        if (fields.length > 4) {
+            throw new IllegalArgumentException("열이 너무 많습니다 (device_uuid,target_crop,latitude,longitude)");
+        }
+        return toRow(lineNumber, fields[0],
+                fields.length > 1 ? fields[1] : null,
+                fields.length > 2 ? fields[2] : null,
+                fields.length > 3 ? fields[3] : null);
+    }
+
+    private ImportRow parseNdjson(String line, long lineNumber) {
+        Map<?, ?> fields;
+        try {
+            fields = objectMapper.readValue(line, Map.class);
+        } catch (JacksonException e) {
+            fields = null;
+        }
+        if (fields == null) {
+            throw new IllegalArgumentException("JSON 객체 형식이 올바르지 않습니다");
+        }
+        return toRow(lineNumber, text(fields, "deviceUuid"), text(fields, "targetCrop"),
+                text(fields, "latitude"), text(fields, "longitude"));
+    }
+
+    private static String text(Map<?, ?> fields, String field) {
+        Object value = fields.get(field);
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    private static ImportRow toRow(long lineNumber, String deviceUuid, String targetCrop, String latitude, String longitude) {
+        String uuid = deviceUuid != null ? deviceUuid.trim() : "";
+        if (uuid.isEmpty()) {
+            throw new IllegalArgumentException("device_uuid 가 비어 있습니다");
+        }
+        if (uuid.length() > MAX_UUID_LENGTH) {
+            throw new IllegalArgumentException("device_uuid 가 너무 깁니다 (최대 " + MAX_UUID_LENGTH + "자)");
+        }
+        if (uuid.startsWith(MOBILE_DEVICE_PREFIX)) {
+            throw new IllegalArgumentException("mobile-user- 로 시작하는 UUID 는 모바일 디바이스용입니다");
+        }
+
+        TargetCrop crop = null;
+        if (hasText(targetCrop)) {
+            try {
+                crop = TargetCrop.valueOf(targetCrop.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("알 수 없는 작물입니다: " + targetCrop.trim());
+            }
+        }
+
+        if (hasText(latitude) != hasText(longitude)) {
+            throw new IllegalArgumentException("위도와 경도는 함께 지정해야 합니다");
+        }
+        BigDecimal lat = hasText(latitude) ? coordinate(latitude, 90, "위도") : null;
+        BigDecimal lon = hasText(longitude) ? coordinate(longitude, 180, "경도") : null;
+        return new ImportRow(lineNumber, uuid, crop, lat, lon);
+    }
+
+    // devices.latitude/longitude 는 DECIMAL(10, 7)
+    private static BigDecimal coordinate(String value, int limit, String name) {
+        BigDecimal coordinate;
+        try {
+            coordinate = new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " 형식이 올바르지 않습니다: " + value.trim());
+        }
+        if (coordinate.abs().compareTo(BigDecimal.valueOf(limit)) > 0) {
+            throw new IllegalArgumentException(name + " 범위를 벗어났습니다: " + coordinate);
+        }
+        if (coordinate.scale() > 7) {
+            throw new IllegalArgumentException(name + "는 소수점 7자리까지 입력할 수 있습니다: " + coordinate);
+        }
+        return coordinate;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("device.import.rows")
+                .description("일괄 등록으로 처리한 행 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record ImportRow(long line, String deviceUuid, TargetCrop targetCrop, BigDecimal latitude, BigDecimal longitude) {
+    }
+
+    // 요청 하나의 집계 (요청 스레드에서만 사용)
+    private static final class ImportReport {
+
+        private final int maxErrors;
+        private final List<RowError> errors = new ArrayList<>();
+        private long read;
+        private long inserted;
+        private long duplicates;
+        private long invalid;
+        private long failed;
+
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void invalid(long line, String reason) {
+            invalid++;
+            addError(line, reason);
+        }
+
+        void failed(long line, String reason) {
+            failed++;
+            addError(line, reason);
+        }
+
+        private void addError(long line, String reason) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, reason));
+            }
+        }
+
+        DeviceImportResponseDto toResponse(long elapsedMillis) {
+            return DeviceImportResponseDto.builder()
+                    .read(read)
+                    .inserted(inserted)
+                    .duplicates(duplicates)
+                    .invalid(invalid)
+                    .failed(failed)
+                    .elapsedMillis(elapsedMillis)
+                    .errors(errors)
+                    .errorsTruncated(invalid + failed > errors.size())
+                    .build();
+        }
+    }
+}
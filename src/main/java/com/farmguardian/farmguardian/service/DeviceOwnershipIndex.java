@@ -0,0 +1,254 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.exception.device.UnauthorizedDeviceAccessException;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.DeviceRepository.DeviceOwnershipView;
+import com.farmguardian.farmguardian.util.SortedLongArrays;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * userId → 소유한 deviceId 집합 (정렬된 long[]) 인덱스. 디바이스 권한 확인을 DB 대신 메모리에서 한다.
+ *
+ * - 시작 시 사용자에게 연결된 디바이스를 id 순으로 batch-size 개씩 읽어 적재한다. 적재 전에는 DB 로 확인한다.
+ * - 연결은 트랜잭션 안에서 바로 반영한다 (grant). 롤백되면 잠시 "소유"로 남지만, 엔티티를 읽는 경로는 사용자 조건으로 다시
+ *   조회하므로 권한이 넓어지지 않는다.
+ * - 연결/해제/탈퇴는 CacheInvalidationBus(DEVICE_OWNERSHIP, userId)로 알려 오며, 커밋 후 해당 사용자의 목록을 DB 에서 다시 읽는다
+ *   (다른 인스턴스도 같은 경로로 갱신된다). 다른 인스턴스의 해제/연결은 버스 전달 지연만큼 늦게 보인다.
+ * - 인덱스에 없으면 거절하지 않고 DB 로 확인한다. 소유하면 인덱스에 채우고(다른 인스턴스의 연결이 늦거나 유실됐을 때,
+ *   grant 를 거치지 않은 쓰기 경로), 소유하지 않으면 deny-cache-seconds 동안 기억해 같은 요청이 DB 를 반복 조회하지 않게 한다.
+ * 배열은 바꿀 때마다 새로 만들어 교체하므로 조회는 잠그지 않는다.
+ */
+@Slf4j
+@Component
+public class DeviceOwnershipIndex {
+
+    private static final int MAX_DENIED_PER_USER = 64;
+
+    private final DeviceRepository deviceRepository;
+    private final Map<Long, long[]> ownedDevices = new ConcurrentHashMap<>();
+    private final AtomicLong deviceCount = new AtomicLong();
+    // 인덱스에 없어 DB 로 확인했지만 소유하지 않은 디바이스 (userId → deviceId → 만료 시각)
+    private final Map<Long, Map<Long, Long>> deniedUntil = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final long denyCacheMillis;
+    private final int denyCacheMaxUsers;
+    private volatile boolean loaded;
+
+    private final Counter allowedCounter;
+    private final Counter deniedCounter;
+    private final Counter fallbackCounter;
+    private final Counter repairedCounter;
+
+    public DeviceOwnershipIndex(DeviceRepository deviceRepository, CacheInvalidationBus cacheInvalidationBus,
+                                MeterRegistry meterRegistry,
+                                @Value("${device.ownership.enabled:true}") boolean enabled,
+                                @Value("${device.ownership.load-batch-size:5000}") int loadBatchSize,
+                                @Value("${device.ownership.deny-cache-seconds:30}") long denyCacheSeconds,
+                                @Value("${device.ownership.deny-cache-max-users:100000}") int denyCacheMaxUsers) {
+        this.deviceRepository = deviceRepository;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.denyCacheMillis = TimeUnit.SECONDS.toMillis(denyCacheSeconds);
+        this.denyCacheMaxUsers = denyCacheMaxUsers;
+
+        this.allowedCounter = checkCounter(meterRegistry, "allowed");
+        this.deniedCounter = checkCounter(meterRegistry, "denied");
+        this.fallbackCounter = checkCounter(meterRegistry, "fallback");
+        this.repairedCounter = checkCounter(meterRegistry, "repaired");
+        Gauge.builder("device.ownership.users", ownedDevices, Map::size)
+                .description("소유권 인덱스에 적재된 사용자 수")
+                .register(meterRegistry);
+        Gauge.builder("device.ownership.devices", deviceCount, AtomicLong::get)
+                .description("소유권 인덱스에 적재된 디바이스 수")
+                .register(meterRegistry);
+
+        cacheInvalidationBus.register(CacheInvalidationBus.DEVICE_OWNERSHIP, userId -> refresh(Long.valueOf(userId)), this::reload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        Map<Long, UserDevices> loading = readAll();
+        // 적재 중에 들어온 연결(grant)을 덮어쓰지 않도록 합친다
+        loading.forEach((userId, userDevices) -> update(userId,
+                current -> SortedLongArrays.union(current, userDevices.toSortedArray())));
+        loaded = true;
+        log.info("Device ownership index loaded - Users: {}, Devices: {}, Elapsed: {}ms",
+                loading.size(), deviceCount.get(), System.currentTimeMillis() - startedAt);
+    }
+
+    // 무효화 키를 잃었을 때 (버스 대기열이 넘침) 전체를 DB 와 같게 바꾼다
+    // 해제된 디바이스가 남지 않도록 합치지 않고 교체한다. 그 사이의 연결은 인덱스에 없으면 DB 확인으로 다시 채워진다.
+    private void reload() {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, UserDevices> reloaded = readAll();
+        for (Long userId : ownedDevices.keySet()) {
+            if (!reloaded.containsKey(userId)) {
+                update(userId, current -> new long[0]);
+            }
+        }
+        reloaded.forEach((userId, userDevices) -> {
+            long[] owned = userDevices.toSortedArray();
+            update(userId, current -> owned);
+        });
+        deniedUntil.clear();
+        log.info("Device ownership index reloaded - Users: {}, Devices: {}", reloaded.size(), deviceCount.get());
+    }
+
+    private Map<Long, UserDevices> readAll() {
+        Map<Long, UserDevices> loading = new HashMap<>();
+        long afterId = 0;
+        while (true) {
+            List<DeviceOwnershipView> views = deviceRepository.findOwnershipViewsAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (DeviceOwnershipView view : views) {
+                loading.computeIfAbsent(view.getUserId(), userId -> new UserDevices()).add(view.getId());
+            }
+            if (views.size() < loadBatchSize) {
+                return loading;
+            }
+            afterId = views.get(views.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 사용자가 디바이스를 소유하는지 (인덱스를 쓰지 않거나, 적재 전이거나, 인덱스에 없으면 DB 로 확인)
+     */
+    public boolean owns(Long userId, Long deviceId) {
+        if (userId == null || deviceId == null) {
+            return false;
+        }
+        boolean owns;
+        if (!enabled || !loaded) {
+            fallbackCounter.increment();
+            owns = deviceRepository.existsByIdAndUserId(deviceId, userId);
+        } else if (SortedLongArrays.contains(ownedDevices.get(userId), deviceId)) {
+            owns = true;
+        } else if (isDenied(userId, deviceId, System.currentTimeMillis())) {
+            owns = false;
+        } else {
+            fallbackCounter.increment();
+            owns = deviceRepository.existsByIdAndUserId(deviceId, userId);
+            if (owns) {
+                repairedCounter.increment();
+                log.info("Device ownership index repaired from DB - UserId: {}, DeviceId: {}", userId, deviceId);
+                grant(userId, deviceId);
+            } else {
+                deny(userId, deviceId, System.currentTimeMillis());
+            }
+        }
+        (owns ? allowedCounter : deniedCounter).increment();
+        return owns;
+    }
+
+    /**
+     * 소유하지 않았으면 UnauthorizedDeviceAccessException
+     */
+    public void checkOwner(Long userId, Long deviceId) {
+        if (!owns(userId, deviceId)) {
+            throw new UnauthorizedDeviceAccessException();
+        }
+    }
+
+    /**
+     * 연결 직후 반영 (같은 요청/트랜잭션 안에서 바로 쓸 수 있도록, 커밋 후에는 refresh 로 DB 와 맞춘다)
+     */
+    public void grant(Long userId, Long deviceId) {
+        if (!enabled || userId == null || deviceId == null) {
+            return;
+        }
+        deniedUntil.remove(userId);
+        update(userId, current -> SortedLongArrays.insert(current, deviceId));
+    }
+
+    // 사용자의 디바이스 목록 다시 읽기
+    private void refresh(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> ids = deviceRepository.findIdsByUserId(userId);
+        long[] values = new long[ids.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ids.get(i);
+        }
+        long[] owned = SortedLongArrays.of(values, values.length);
+        deniedUntil.remove(userId);
+        update(userId, current -> owned);
+    }
+
+    private boolean isDenied(Long userId, Long deviceId, long nowMillis) {
+        Map<Long, Long> denied = deniedUntil.get(userId);
+        Long until = denied != null ? denied.get(deviceId) : null;
+        return until != null && until > nowMillis;
+    }
+
+    // 상한을 넘으면 통째로 비운다 (다시 DB 로 확인할 뿐이다)
+    private void deny(Long userId, Long deviceId, long nowMillis) {
+        if (denyCacheMillis <= 0) {
+            return;
+        }
+        if (deniedUntil.size() >= denyCacheMaxUsers) {
+            deniedUntil.clear();
+        }
+        Map<Long, Long> denied = deniedUntil.computeIfAbsent(userId, id -> new ConcurrentHashMap<>());
+        if (denied.size() >= MAX_DENIED_PER_USER) {
+            denied.clear();
+        }
+        denied.put(deviceId, nowMillis + denyCacheMillis);
+    }
+
+    private void update(Long userId, UnaryOperator<long[]> change) {
+        ownedDevices.compute(userId, (id, current) -> {
+            long[] next = change.apply(current);
+            deviceCount.addAndGet((long) next.length - (current != null ? current.length : 0));
+            return next.length > 0 ? next : null;
+        });
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("device.ownership.checks")
+                .description("디바이스 소유권 확인 수 (fallback 은 DB 로 확인한 수, repaired 는 인덱스에 없었지만 DB 에서 소유가 확인된 수)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // 적재 중 사용자별 디바이스 id 모음 (id 순으로 들어온다)
+    private static final class UserDevices {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long deviceId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size++] = deviceId;
+        }
+
+        long[] toSortedArray() {
+            return SortedLongArrays.of(ids, size);
+        }
+    }
+}
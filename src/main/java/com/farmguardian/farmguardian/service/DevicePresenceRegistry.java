@@ -0,0 +1,190 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.DevicePresence;
+import com.farmguardian.farmguardian.gateway.PayloadCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 디바이스 접속 상태 (메모리 전용, DB 에 쓰지 않는다)
+ *
+ * - device/{uuid}/heartbeat 수신 시 online, device/{uuid}/status 의 Last Will("offline") 수신 시 offline 으로 기록한다.
+ * - 하트비트가 timeout 이상 끊기면 Last Will 없이도 offline 으로 판단한다.
+ * - 하트비트/상태 메시지에 "codec" 이 있으면 이후 명령을 해당 형식으로 보낸다 (모르면 JSON).
+ * - 수신 워커가 여러 스레드라 메시지 순서가 바뀔 수 있으므로, 수신 시각이 더 늦은 이벤트만 반영한다 (CAS).
+ * - 토픽의 UUID 는 아무 값이나 올 수 있으므로 등록된 디바이스(DeviceRegistry)만, 최대 max-devices 대까지 기록한다.
+ *   retention 동안 아무 신호가 없던 디바이스는 지워 UNKNOWN 으로 되돌린다.
+ */
+@Slf4j
+@Component
+public class DevicePresenceRegistry {
+
+    private final Map<String, Presence> presences = new ConcurrentHashMap<>();
+    private final DeviceRegistry deviceRegistry;
+    private final long timeoutMillis;
+    private final long retentionMillis;
+    private final int maxDevices;
+
+    private final Counter unknownCounter;
+    private final Counter rejectedCounter;
+    private final Counter evictedCounter;
+
+    public DevicePresenceRegistry(DeviceRegistry deviceRegistry, MeterRegistry meterRegistry,
+                                  @Value("${device.presence.timeout-seconds:180}") long timeoutSeconds,
+                                  @Value("${device.presence.retention-seconds:86400}") long retentionSeconds,
+                                  @Value("${device.presence.max-devices:1000000}") int maxDevices) {
+        this.deviceRegistry = deviceRegistry;
+        this.timeoutMillis = Duration.ofSeconds(timeoutSeconds).toMillis();
+        this.retentionMillis = Math.max(Duration.ofSeconds(retentionSeconds).toMillis(), timeoutMillis);
+        this.maxDevices = maxDevices;
+
+        this.unknownCounter = Counter.builder("device.presence.untracked")
+                .description("접속 상태를 기록하지 않은 메시지 수")
+                .tag("reason", "unknown")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("device.presence.untracked")
+                .description("접속 상태를 기록하지 않은 메시지 수")
+                .tag("reason", "full")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("device.presence.evicted")
+                .description("retention 동안 신호가 없어 지운 디바이스 수")
+                .register(meterRegistry);
+
+        Gauge.builder("device.presence.online", this, registry -> registry.countOnline(System.currentTimeMillis()))
+                .description("온라인 상태의 디바이스 수")
+                .register(meterRegistry);
+        Gauge.builder("device.presence.tracked", presences, Map::size)
+                .description("접속 상태를 알고 있는 디바이스 수")
+                .register(meterRegistry);
+    }
+
+    public void markOnline(String deviceUuid, long eventMillis) {
+        Presence presence = presenceOf(deviceUuid);
+        if (presence != null) {
+            presence.update(eventMillis, true);
+        }
+    }
+
+    public void markOffline(String deviceUuid, long eventMillis) {
+        Presence presence = presenceOf(deviceUuid);
+        if (presence != null) {
+            presence.update(eventMillis, false);
+        }
+    }
+
+    public void setCodec(String deviceUuid, PayloadCodec codec) {
+        Presence presence = presenceOf(deviceUuid);
+        if (presence != null) {
+            presence.codec = codec;
+        }
+    }
+
+    public PayloadCodec getCodec(String deviceUuid) {
+        Presence presence = presences.get(deviceUuid);
+        return presence != null ? presence.codec : PayloadCodec.JSON;
+    }
+
+    public DevicePresence getPresence(String deviceUuid) {
+        Presence presence = presences.get(deviceUuid);
+        if (presence == null) {
+            return DevicePresence.UNKNOWN;
+        }
+        return presence.isOnline(System.currentTimeMillis(), timeoutMillis) ? DevicePresence.ONLINE : DevicePresence.OFFLINE;
+    }
+
+    public boolean isOffline(String deviceUuid) {
+        return getPresence(deviceUuid) == DevicePresence.OFFLINE;
+    }
+
+    // 마지막으로 온라인 신호를 받은 시각 (받은 적 없으면 null)
+    public LocalDateTime getLastSeenAt(String deviceUuid) {
+        Presence presence = presences.get(deviceUuid);
+        if (presence == null || presence.lastSeenMillis.get() == 0) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(presence.lastSeenMillis.get()), ZoneId.systemDefault());
+    }
+
+    /**
+     * retention 동안 신호가 없던 디바이스 정리
+     * 지우는 순간 도착한 신호는 반영되지 않을 수 있지만, 다음 신호에서 다시 기록된다.
+     */
+    @Scheduled(fixedDelayString = "${device.presence.sweep-millis:60000}")
+    public void evictStale() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        int before = presences.size();
+        presences.values().removeIf(presence -> presence.lastEventMillis() < cutoff);
+        int evicted = before - presences.size();
+        if (evicted > 0) {
+            evictedCounter.increment(evicted);
+            log.debug("Stale device presences evicted - Evicted: {}, Tracked: {}", evicted, presences.size());
+        }
+    }
+
+    // 처음 보는 UUID 는 등록된 디바이스이고 여유가 있을 때만 기록한다 (아니면 null)
+    private Presence presenceOf(String deviceUuid) {
+        Presence presence = presences.get(deviceUuid);
+        if (presence != null) {
+            return presence;
+        }
+        if (!deviceRegistry.isKnown(deviceUuid)) {
+            unknownCounter.increment();
+            return null;
+        }
+        if (presences.size() >= maxDevices) {
+            rejectedCounter.increment();
+            return null;
+        }
+        return presences.computeIfAbsent(deviceUuid, key -> new Presence());
+    }
+
+    private long countOnline(long nowMillis) {
+        return presences.values().stream()
+                .filter(presence -> presence.isOnline(nowMillis, timeoutMillis))
+                .count();
+    }
+
+    private static final class Presence {
+        // (마지막 이벤트 시각 << 1) | online 비트
+        private final AtomicLong state = new AtomicLong();
+        private final AtomicLong lastSeenMillis = new AtomicLong();
+        private volatile PayloadCodec codec = PayloadCodec.JSON;
+
+        void update(long eventMillis, boolean online) {
+            long next = (eventMillis << 1) | (online ? 1 : 0);
+            long current;
+            do {
+                current = state.get();
+                if ((current >>> 1) > eventMillis) {
+                    return;
+                }
+            } while (!state.compareAndSet(current, next));
+
+            if (online) {
+                lastSeenMillis.accumulateAndGet(eventMillis, Math::max);
+            }
+        }
+
+        long lastEventMillis() {
+            return state.get() >>> 1;
+        }
+
+        boolean isOnline(long nowMillis, long timeoutMillis) {
+            long current = state.get();
+            return (current & 1) == 1 && nowMillis - (current >>> 1) <= timeoutMillis;
+        }
+    }
+}
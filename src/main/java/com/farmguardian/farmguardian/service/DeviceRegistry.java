@@ -0,0 +1,171 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.exception.device.DeviceNotFoundException;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.DeviceRepository.DeviceIndexView;
+import com.farmguardian.farmguardian.util.OffHeapDeviceIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * deviceUuid → 디바이스 요약(id/소유자/상태/작물) 조회 (DB 대신 오프힙 인덱스)
+ *
+ * - 시작 시 전체 디바이스를 id 순으로 batch-size 개씩 읽어 적재한다.
+ * - 연결/수정/해제는 CacheInvalidationBus(DEVICE, deviceId)로 알려 오며, 받으면 해당 디바이스를 DB 에서 다시 읽어 갱신한다
+ *   (다른 인스턴스도 같은 경로로 갱신된다).
+ * - 인덱스에 없으면 DB 에서 읽어 채운다. 인덱싱할 수 없는 UUID 형식이면 매번 DB 로 조회한다.
+ * 엔티티가 필요하면 resolve 결과의 deviceId 로 getReferenceById 를 쓴다 (SELECT 없음).
+ */
+@Slf4j
+@Component
+public class DeviceRegistry {
+
+    private final DeviceRepository deviceRepository;
+    private final OffHeapDeviceIndex index;
+    private final boolean enabled;
+    private final int loadBatchSize;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public DeviceRegistry(DeviceRepository deviceRepository, CacheInvalidationBus cacheInvalidationBus,
+                          MeterRegistry meterRegistry,
+                          @Value("${device.registry.enabled:true}") boolean enabled,
+                          @Value("${device.registry.initial-capacity:65536}") int initialCapacity,
+                          @Value("${device.registry.load-batch-size:5000}") int loadBatchSize) {
+        this.deviceRepository = deviceRepository;
+        this.index = new OffHeapDeviceIndex(initialCapacity);
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+
+        this.hitCounter = Counter.builder("device.registry.lookups")
+                .description("디바이스 인덱스 조회 수")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("device.registry.lookups")
+                .description("디바이스 인덱스 조회 수")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("device.registry.size", index, OffHeapDeviceIndex::size)
+                .description("인덱스에 적재된 디바이스 수")
+                .register(meterRegistry);
+        Gauge.builder("device.registry.offheap.bytes", index, OffHeapDeviceIndex::memoryBytes)
+                .description("디바이스 인덱스가 차지하는 오프힙 메모리 (바이트)")
+                .register(meterRegistry);
+
+        cacheInvalidationBus.register(CacheInvalidationBus.DEVICE, deviceId -> refresh(Long.valueOf(deviceId)), this::load);
+    }
+
+    /**
+     * 디바이스 요약 조회 (ownerId 는 연결된 사용자가 없으면 null)
+     */
+    public record DeviceSummary(Long deviceId, String deviceUuid, Long ownerId, DeviceStatus status, TargetCrop targetCrop) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.currentTimeMillis();
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<DeviceIndexView> views = deviceRepository.findIndexViewsAfter(afterId, PageRequest.of(0, loadBatchSize));
+            views.forEach(this::put);
+            loaded += views.size();
+            if (views.size() < loadBatchSize) {
+                break;
+            }
+            afterId = views.get(views.size() - 1).getId();
+        }
+        log.info("Device registry loaded - Devices: {}, Capacity: {}, OffHeapBytes: {}, Elapsed: {}ms",
+                loaded, index.capacity(), index.memoryBytes(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * deviceUuid 로 조회 (없으면 DeviceNotFoundException)
+     */
+    public DeviceSummary resolve(String deviceUuid) {
+        return find(deviceUuid).orElseThrow(DeviceNotFoundException::new);
+    }
+
+    /**
+     * 등록된 디바이스인지 (인덱스에 없으면 DB 로 확인)
+     */
+    public boolean isKnown(String deviceUuid) {
+        return find(deviceUuid).isPresent();
+    }
+
+    /**
+     * DB 기준 현재 소유자 (없으면 null)
+     * 인덱스는 무효화 메시지를 놓치면 틀린 값을 계속 갖고 있으므로, 알림처럼 잘못된 사용자에게 가면 안 되는 곳은
+     * resolve 의 ownerId 대신 이 값을 쓴다. 읽은 값으로 인덱스도 함께 고친다.
+     */
+    public Long currentOwnerId(Long deviceId) {
+        Optional<DeviceIndexView> view = deviceRepository.findIndexViewById(deviceId);
+        apply(deviceId, view);
+        return view.map(DeviceIndexView::getUserId).orElse(null);
+    }
+
+    // 변경된 디바이스 다시 읽기 (삭제됐으면 인덱스에서 제거)
+    private void refresh(Long deviceId) {
+        if (!enabled) {
+            return;
+        }
+        apply(deviceId, deviceRepository.findIndexViewById(deviceId));
+    }
+
+    private void apply(Long deviceId, Optional<DeviceIndexView> view) {
+        if (!enabled) {
+            return;
+        }
+        view.ifPresentOrElse(this::put, () -> index.removeByDeviceId(deviceId));
+    }
+
+    private Optional<DeviceSummary> find(String deviceUuid) {
+        if (enabled) {
+            OffHeapDeviceIndex.Entry entry = index.get(deviceUuid);
+            if (entry != null) {
+                hitCounter.increment();
+                return Optional.of(toSummary(deviceUuid, entry));
+            }
+            missCounter.increment();
+        }
+        return deviceRepository.findIndexViewByDeviceUuid(deviceUuid).map(view -> {
+            put(view);
+            return new DeviceSummary(view.getId(), view.getDeviceUuid(), view.getUserId(), view.getStatus(), view.getTargetCrop());
+        });
+    }
+
+    private void put(DeviceIndexView view) {
+        if (!enabled) {
+            return;
+        }
+        index.put(view.getDeviceUuid(), view.getId(),
+                view.getUserId() != null ? view.getUserId() : 0,
+                view.getStatus() != null ? view.getStatus().ordinal() : OffHeapDeviceIndex.NO_VALUE,
+                view.getTargetCrop() != null ? view.getTargetCrop().ordinal() : OffHeapDeviceIndex.NO_VALUE);
+    }
+
+    private static DeviceSummary toSummary(String deviceUuid, OffHeapDeviceIndex.Entry entry) {
+        return new DeviceSummary(
+                entry.deviceId(),
+                deviceUuid,
+                entry.ownerId() != 0 ? entry.ownerId() : null,
+                entry.status() != OffHeapDeviceIndex.NO_VALUE ? DeviceStatus.values()[entry.status()] : null,
+                entry.crop() != OffHeapDeviceIndex.NO_VALUE ? TargetCrop.values()[entry.crop()] : null);
+    }
+}
@@ -2,20 +2,25 @@ package com.farmguardian.farmguardian.service;
 
 import com.farmguardian.farmguardian.domain.Device;
 import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.TargetCrop;
 import com.farmguardian.farmguardian.domain.User;
 import com.farmguardian.farmguardian.dto.request.DeviceConnectRequestDto;
 import com.farmguardian.farmguardian.dto.request.DeviceUpdateRequestDto;
 import com.farmguardian.farmguardian.dto.response.DeviceResponseDto;
+import com.farmguardian.farmguardian.dto.response.DeviceWhitelistResponseDto;
 import com.farmguardian.farmguardian.exception.auth.UserNotFoundException;
 import com.farmguardian.farmguardian.exception.device.DeviceAlreadyConnectedException;
 import com.farmguardian.farmguardian.exception.device.DeviceNotFoundException;
 import com.farmguardian.farmguardian.exception.device.UnauthorizedDeviceAccessException;
 import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.DeviceRepository.DeviceWhitelistView;
 import com.farmguardian.farmguardian.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,39 +31,59 @@ public class DeviceService {
 
     private final DeviceRepository deviceRepository;
     private final UserRepository userRepository;
+    private final CaptureScheduleService captureScheduleService;
+    private final DevicePresenceRegistry devicePresenceRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final DeviceRegistry deviceRegistry;
+    private final DeviceOwnershipIndex deviceOwnershipIndex;
+    private final DeviceWhitelistVersion deviceWhitelistVersion;
+    private final FleetCounters fleetCounters;
+
+    private static final int MAX_WHITELIST_PAGE_SIZE = 500;
 
     // 디바이스 연결 (화이트리스트에서 선택)
+    // 조회 후 상태를 확인하지 않고 조건부 UPDATE 한 번으로 선점한다 (동시에 연결하면 한 요청만 성공, 행 잠금 없음)
     @Transactional
     public DeviceResponseDto connectDevice(Long userId, DeviceConnectRequestDto request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(UserNotFoundException::new);
 
-        Device device = deviceRepository.findByDeviceUuid(request.getDeviceUuid())
-                .orElseThrow(DeviceNotFoundException::new);
-
-        // 이미 연결된 디바이스인지 확인
-        if (device.getStatus() == DeviceStatus.CONNECTED) {
-            throw new DeviceAlreadyConnectedException();
-        }
-
-        // 디바이스 연결
-        device.connectToUser(
+        int claimed = deviceRepository.claim(
+                request.getDeviceUuid(),
                 user,
                 request.getAlias(),
                 request.getTargetCrop(),
                 request.getLatitude(),
-                request.getLongitude()
+                request.getLongitude(),
+                LocalDateTime.now()
         );
+        if (claimed == 0) {
+            // 실패한 경우에만 없는 디바이스인지 구분한다 (디바이스 인덱스에서 확인)
+            if (!deviceRegistry.isKnown(request.getDeviceUuid())) {
+                throw new DeviceNotFoundException();
+            }
+            throw new DeviceAlreadyConnectedException();
+        }
 
-        return DeviceResponseDto.from(device);
+        Device device = deviceRepository.findByDeviceUuid(request.getDeviceUuid())
+                .orElseThrow(DeviceNotFoundException::new);
+        deviceOwnershipIndex.grant(userId, device.getId());
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE, device.getId());
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE_OWNERSHIP, userId);
+        // 상태가 AVAILABLE 에서 바뀌었으므로 선점 전 작물과 관계없이 재집계 신호를 보낸다
+        fleetCounters.recordTransition(DeviceStatus.AVAILABLE, null, device.getStatus(), device.getTargetCrop());
+
+        return toResponse(device);
     }
 
     // 디바이스 상세 조회
     public DeviceResponseDto getDeviceById(Long userId, Long deviceId) {
+        // 소유하지 않은 디바이스는 조회 없이 거절
+        deviceOwnershipIndex.checkOwner(userId, deviceId);
         Device device = deviceRepository.findByIdAndUserId(deviceId, userId)
                 .orElseThrow(UnauthorizedDeviceAccessException::new);
 
-        return DeviceResponseDto.from(device);
+        return toResponse(device);
     }
 
     // 내 디바이스 목록 조회
@@ -66,46 +91,83 @@ public class DeviceService {
         List<Device> devices = deviceRepository.findAllByUserId(userId);
 
         return devices.stream()
-                .map(DeviceResponseDto::from)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
-    // 연결 가능한 디바이스 목록 조회 (화이트리스트)
-    public List<DeviceResponseDto> getAvailableDevices() {
-        List<Device> devices = deviceRepository.findAllByStatus(DeviceStatus.AVAILABLE);
-
-        return devices.stream()
-                .map(DeviceResponseDto::from)
+    // 연결 가능한 디바이스 목록 조회 (화이트리스트, device_id 순 keyset 페이징)
+    public DeviceWhitelistResponseDto getAvailableDevices(Long cursor, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_WHITELIST_PAGE_SIZE);
+        // 다음 페이지가 있는지 알기 위해 한 건 더 읽는다
+        List<DeviceWhitelistView> views = deviceRepository.findWhitelistViewsAfter(
+                DeviceStatus.AVAILABLE, cursor != null ? cursor : 0L, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = views.size() > pageSize;
+        List<DeviceResponseDto> devices = views.stream()
+                .limit(pageSize)
+                .map(view -> DeviceResponseDto.builder()
+                        .id(view.getId())
+                        .deviceUuid(view.getDeviceUuid())
+                        .createdAt(view.getCreatedAt())
+                        .updatedAt(view.getUpdatedAt())
+                        .build())
                 .collect(Collectors.toList());
+
+        return DeviceWhitelistResponseDto.builder()
+                .devices(devices)
+                .nextCursor(hasNext ? devices.get(devices.size() - 1).getId() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // 화이트리스트 버전 (조회 전에 읽어 ETag 로 사용)
+    public String getAvailableDevicesVersion() {
+        return deviceWhitelistVersion.current();
     }
 
     // 디바이스 수정
     @Transactional
     public DeviceResponseDto updateDevice(Long userId, Long deviceId, DeviceUpdateRequestDto request) {
+        // 소유하지 않은 디바이스는 조회 없이 거절
+        deviceOwnershipIndex.checkOwner(userId, deviceId);
         Device device = deviceRepository.findByIdAndUserId(deviceId, userId)
                 .orElseThrow(UnauthorizedDeviceAccessException::new);
 
+        TargetCrop previousCrop = device.getTargetCrop();
+
         // 비즈니스 메서드를 통한 업데이트
         device.updateAlias(request.getAlias());
         device.updateTargetCrop(request.getTargetCrop());
         device.updateLocation(request.getLatitude(), request.getLongitude());
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE, deviceId);
+        fleetCounters.recordTransition(device.getStatus(), previousCrop, device.getStatus(), device.getTargetCrop());
 
-        return DeviceResponseDto.from(device);
+        return toResponse(device);
     }
 
     // 디바이스 연결 해제
     @Transactional
     public void disconnectDevice(Long userId, Long deviceId) {
+        // 소유하지 않은 디바이스는 조회 없이 거절
+        deviceOwnershipIndex.checkOwner(userId, deviceId);
         Device device = deviceRepository.findByIdAndUserId(deviceId, userId)
                 .orElseThrow(UnauthorizedDeviceAccessException::new);
 
+        fleetCounters.recordTransition(device.getStatus(), device.getTargetCrop(), DeviceStatus.AVAILABLE, null);
         device.disconnectFromUser();
+        captureScheduleService.disableSchedulesForDevices(List.of(deviceId));
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE, deviceId);
+        cacheInvalidationBus.invalidate(CacheInvalidationBus.DEVICE_OWNERSHIP, userId);
     }
 
-    // 사용자의 모바일 디바이스 조회
-    public Device getMobileDeviceByUserId(Long userId) {
-        String mobileDeviceUuid = "mobile-user-" + userId;
-        return deviceRepository.findByDeviceUuid(mobileDeviceUuid)
-                .orElseThrow(DeviceNotFoundException::new);
+    // 사용자의 모바일 디바이스 조회 (디바이스 인덱스 사용, DB 조회 없음)
+    public DeviceRegistry.DeviceSummary getMobileDeviceByUserId(Long userId) {
+        return deviceRegistry.resolve("mobile-user-" + userId);
+    }
+
+    // 사용자 디바이스 응답 (접속 상태는 메모리에서 조회)
+    private DeviceResponseDto toResponse(Device device) {
+        return DeviceResponseDto.from(device,
+                devicePresenceRegistry.getPresence(device.getDeviceUuid()),
+                devicePresenceRegistry.getLastSeenAt(device.getDeviceUuid()));
     }
 }
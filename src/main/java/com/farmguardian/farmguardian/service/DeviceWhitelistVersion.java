@@ -0,0 +1,33 @@
+package com.farmguardian.farmguardian.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 화이트리스트(연결 가능한 디바이스 목록) 버전. GET /api/devices/available 의 ETag 로 쓴다.
+ *
+ * - 디바이스가 바뀌면(CacheInvalidationBus DEVICE/DEVICE_WHITELIST, 커밋 후 또는 다른 인스턴스에서 수신) 버전을 올린다.
+ * - 카운터는 인스턴스마다 따로 세므로 태그에 인스턴스별 임의 접두사를 붙인다. 다른 인스턴스(또는 재시작 전)의 태그는
+ *   맞지 않아 한 번 더 조회할 뿐, 바뀐 목록을 304 로 숨기지 않는다.
+ * 조회 결과보다 먼저 버전을 읽어야 한다 (조회 도중 커밋된 변경은 다음 버전으로 다시 내려간다).
+ */
+@Component
+public class DeviceWhitelistVersion {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong version = new AtomicLong();
+
+    public DeviceWhitelistVersion(CacheInvalidationBus cacheInvalidationBus) {
+        cacheInvalidationBus.register(CacheInvalidationBus.DEVICE, key -> version.incrementAndGet(), version::incrementAndGet);
+        cacheInvalidationBus.register(CacheInvalidationBus.DEVICE_WHITELIST, key -> version.incrementAndGet(), version::incrementAndGet);
+    }
+
+    /**
+     * 현재 버전 태그 (따옴표 없는 ETag 값)
+     */
+    public String current() {
+        return epoch + "-" + version.get();
+    }
+}
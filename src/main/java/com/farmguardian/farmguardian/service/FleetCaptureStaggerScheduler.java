@@ -0,0 +1,66 @@
+package com.farmguardian.farmguardian.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * 일괄 촬영의 지연 전송 전용 스케줄러
+ *
+ * @Scheduled 작업들이 쓰는 공용 TaskScheduler 와 분리해, 대량의 지연 전송이 정리/스케줄 작업을 밀어내지 않게 한다.
+ * - 지연 전송은 메모리에만 있으므로, 한 요청의 전송이 max-stagger-window-millis 안에 끝나도록 간격을 줄여 재시작 시 잃는 범위를 제한한다.
+ * - 종료 시 아직 실행되지 않은 지연 전송은 버리고 건수를 로그로 남긴다.
+ */
+@Slf4j
+@Component
+public class FleetCaptureStaggerScheduler implements DisposableBean {
+
+    private final ThreadPoolTaskScheduler scheduler;
+    private final long maxWindowMillis;
+
+    public FleetCaptureStaggerScheduler(MeterRegistry meterRegistry,
+                                        @Value("${capture.fleet.stagger-threads:1}") int threads,
+                                        @Value("${capture.fleet.max-stagger-window-millis:300000}") long maxWindowMillis) {
+        this.maxWindowMillis = maxWindowMillis;
+        this.scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("fleet-capture-");
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.initialize();
+
+        Gauge.builder("capture.fleet.scheduled", scheduler, s -> s.getScheduledThreadPoolExecutor().getQueue().size())
+                .description("전송을 기다리는 일괄 촬영 지연 명령 수")
+                .register(meterRegistry);
+
+        log.info("Fleet capture stagger scheduler initialized - Threads: {}, MaxWindowMillis: {}", threads, maxWindowMillis);
+    }
+
+    /**
+     * 요청한 간격으로 마지막 디바이스까지의 시간이 window 를 넘으면 window 에 맞게 간격을 줄인다
+     */
+    public long staggerMillis(long requestedMillis, int targets) {
+        if (targets <= 1) {
+            return requestedMillis;
+        }
+        return Math.min(requestedMillis, maxWindowMillis / (targets - 1));
+    }
+
+    public void schedule(Runnable task, Instant startTime) {
+        scheduler.schedule(task, startTime);
+    }
+
+    @Override
+    public void destroy() {
+        int dropped = scheduler.getScheduledThreadPoolExecutor().getQueue().size();
+        scheduler.destroy();
+        if (dropped > 0) {
+            log.warn("Fleet capture stagger scheduler stopped - Dropped: {}", dropped);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.dto.response.FleetCountsResponseDto;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.DeviceRepository.FleetCountView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 상태 × 작물별 디바이스 수 (대시보드/메트릭용, 조회 시 DB 를 읽지 않는다)
+ *
+ * - 칸 값은 GROUP BY 조회 한 번으로만 채운다. 연결/해제/수정/등록은 이동량을 더하지 않고 "다시 세라" 는 신호만 보낸다.
+ * - 신호는 CacheInvalidationBus(FLEET_COUNTS)로 커밋 후 모든 인스턴스에 전달한다. 키가 항상 같으므로 버스에서 하나로 합쳐지고,
+ *   중복/유실되어도 다음 재집계가 DB 값으로 맞추므로 오차가 쌓이지 않는다.
+ * - 신호를 받으면 표시만 해 두고 recount-debounce-millis 마다 한 번만 다시 센다 (연결이 몰려도 GROUP BY 는 주기당 한 번).
+ * - 신호가 모두 유실되어도 reconcile-millis 마다 다시 센다.
+ */
+@Slf4j
+@Component
+public class FleetCounters {
+
+    private static final DeviceStatus[] STATUSES = DeviceStatus.values();
+    private static final TargetCrop[] CROPS = TargetCrop.values();
+    private static final int NO_CROP = CROPS.length;
+    private static final String NONE = "NONE";
+    private static final String RECOUNT = "recount";
+
+    private final DeviceRepository deviceRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    // [status.ordinal()][crop.ordinal(), 작물 없음은 NO_CROP], 재집계만 쓴다
+    private final AtomicLong[][] cells = new AtomicLong[STATUSES.length][CROPS.length + 1];
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public FleetCounters(DeviceRepository deviceRepository, CacheInvalidationBus cacheInvalidationBus,
+                         MeterRegistry meterRegistry) {
+        this.deviceRepository = deviceRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+
+        for (DeviceStatus status : STATUSES) {
+            for (int crop = 0; crop <= NO_CROP; crop++) {
+                AtomicLong cell = new AtomicLong();
+                cells[status.ordinal()][crop] = cell;
+                Gauge.builder("device.fleet.count", cell, AtomicLong::get)
+                        .description("상태 × 작물별 디바이스 수")
+                        .tag("status", status.name())
+                        .tag("crop", cropName(crop))
+                        .register(meterRegistry);
+            }
+        }
+
+        cacheInvalidationBus.register(CacheInvalidationBus.FLEET_COUNTS, key -> markDirty(), this::markDirty);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        long[][] counted = new long[STATUSES.length][CROPS.length + 1];
+        for (FleetCountView view : deviceRepository.countByStatusAndTargetCrop()) {
+            if (view.getStatus() != null) {
+                counted[view.getStatus().ordinal()][cropIndex(view.getTargetCrop())] = view.getCount();
+            }
+        }
+        // 칸을 쓰는 곳은 여기뿐이므로 그대로 덮어쓴다
+        long drift = 0;
+        for (int status = 0; status < STATUSES.length; status++) {
+            for (int crop = 0; crop <= NO_CROP; crop++) {
+                drift += Math.abs(counted[status][crop] - cells[status][crop].getAndSet(counted[status][crop]));
+            }
+        }
+        log.debug("Fleet counters recounted - Total: {}, Corrected: {}", total(), drift);
+    }
+
+    /**
+     * 마지막 재집계 이후 변경 신호가 있었으면 다시 센다
+     */
+    @Scheduled(fixedDelayString = "${device.fleet-counters.recount-debounce-millis:1000}")
+    public void recountIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            seed();
+        } catch (RuntimeException e) {
+            // 다음 주기에 다시 시도
+            dirty.set(true);
+            log.warn("Fleet counters recount failed - Error: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${device.fleet-counters.reconcile-millis:3600000}",
+            initialDelayString = "${device.fleet-counters.reconcile-millis:3600000}")
+    public void reconcile() {
+        seed();
+    }
+
+    /**
+     * 디바이스 한 대의 상태/작물 변경 (호출한 트랜잭션이 커밋된 뒤 재집계, 칸이 그대로면 신호를 보내지 않는다)
+     */
+    public void recordTransition(DeviceStatus fromStatus, TargetCrop fromCrop, DeviceStatus toStatus, TargetCrop toCrop) {
+        if (fromStatus != toStatus || fromCrop != toCrop) {
+            cacheInvalidationBus.invalidate(CacheInvalidationBus.FLEET_COUNTS, RECOUNT);
+        }
+    }
+
+    /**
+     * 디바이스 등록 (호출한 트랜잭션이 커밋된 뒤 재집계)
+     */
+    public void recordCreated(DeviceStatus status, TargetCrop crop, long count) {
+        if (count > 0) {
+            cacheInvalidationBus.invalidate(CacheInvalidationBus.FLEET_COUNTS, RECOUNT);
+        }
+    }
+
+    public long count(DeviceStatus status, TargetCrop crop) {
+        return cells[status.ordinal()][cropIndex(crop)].get();
+    }
+
+    public long total() {
+        long total = 0;
+        for (AtomicLong[] row : cells) {
+            for (AtomicLong cell : row) {
+                total += cell.get();
+            }
+        }
+        return total;
+    }
+
+    public FleetCountsResponseDto snapshot() {
+        Map<DeviceStatus, Map<String, Long>> byStatusAndCrop = new EnumMap<>(DeviceStatus.class);
+        Map<DeviceStatus, Long> byStatus = new EnumMap<>(DeviceStatus.class);
+        Map<String, Long> byCrop = new LinkedHashMap<>();
+        long total = 0;
+        for (DeviceStatus status : STATUSES) {
+            Map<String, Long> row = new LinkedHashMap<>();
+            long statusTotal = 0;
+            for (int crop = 0; crop <= NO_CROP; crop++) {
+                long value = cells[status.ordinal()][crop].get();
+                row.put(cropName(crop), value);
+                byCrop.merge(cropName(crop), value, Long::sum);
+                statusTotal += value;
+            }
+            byStatusAndCrop.put(status, row);
+            byStatus.put(status, statusTotal);
+            total += statusTotal;
+        }
+        return FleetCountsResponseDto.builder()
+                .total(total)
+                .byStatus(byStatus)
+                .byCrop(byCrop)
+                .byStatusAndCrop(byStatusAndCrop)
+                .build();
+    }
+
+    private void markDirty() {
+        dirty.set(true);
+    }
+
+    private static int cropIndex(TargetCrop crop) {
+        return crop != null ? crop.ordinal() : NO_CROP;
+    }
+
+    private static String cropName(int cropIndex) {
+        return cropIndex == NO_CROP ? NONE : CROPS[cropIndex].name();
+    }
+}
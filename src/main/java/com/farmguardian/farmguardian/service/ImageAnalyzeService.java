@@ -8,7 +8,6 @@ import com.farmguardian.farmguardian.dto.request.ImageMetadataRequestDto;
 import com.farmguardian.farmguardian.dto.request.MobileImageUploadRequestDto;
 import com.farmguardian.farmguardian.dto.response.FastApiResponseDto;
 import com.farmguardian.farmguardian.dto.response.ImageAnalysisResponseDto;
-import com.farmguardian.farmguardian.exception.device.DeviceNotFoundException;
 import com.farmguardian.farmguardian.exception.image.FastApiCallFailedException;
 import com.farmguardian.farmguardian.repository.DeviceRepository;
 import com.farmguardian.farmguardian.repository.OriginImageRepository;
@@ -32,13 +31,20 @@ public class ImageAnalyzeService {
     private final ImageService imageService;
     private final RestClient fastApiRestClient;
     private final DeviceService deviceService;
+    private final AdaptiveCapturePolicy adaptiveCapturePolicy;
+    private final CaptureCommandTracker captureCommandTracker;
+    private final DeviceRegistry deviceRegistry;
 
     private static final double CONFIDENCE_THRESHOLD = 0.2;
 
     public ImageAnalysisResponseDto analyzeImage(ImageMetadataRequestDto request) {
 
-        Device device = deviceRepository.findByDeviceUuid(request.getDeviceUuid())
-                .orElseThrow(DeviceNotFoundException::new);
+        // 디바이스 인덱스로 조회하고, 엔티티는 FK 참조용 프록시만 사용 (SELECT 없음)
+        DeviceRegistry.DeviceSummary summary = deviceRegistry.resolve(request.getDeviceUuid());
+        Device device = deviceRepository.getReferenceById(summary.deviceId());
+
+        // 촬영 명령과 매칭 (명령 없이 올라온 업로드면 null)
+        String correlationId = captureCommandTracker.onUpload(request.getDeviceUuid(), request.getCorrelationId());
 
         OriginImage originImage = imageService.saveMetaData(request, device);   // db 저장 (api 호출이 실패해 분석결과가 없어도 메타데이터는 저장 필요.)
 
@@ -48,10 +54,19 @@ public class ImageAnalyzeService {
 
         List<ImageAnalysisResponseDto.PestInfo> detectedPests = filterHighConfidencePests(fastApiResponse);
         boolean pestDetected = !detectedPests.isEmpty();
+        captureCommandTracker.record(correlationId, CaptureCommandTracker.Stage.ANALYSIS);
+
+        // 분석 결과에 따라 주기 촬영 빈도 조절
+        adaptiveCapturePolicy.recordAnalysis(summary.deviceId(), detectedPests.size());
 
-        if (pestDetected && device.getUser() != null) {
-            sendPestDetectionNotification(device.getUser().getId(), detectedPests.size(), originImage.getId());
+        // 알림 대상은 인덱스 대신 DB 에서 다시 읽는다 (연결 해제/이전 직후 이전 소유자에게 가지 않도록)
+        if (pestDetected) {
+            Long ownerId = deviceRegistry.currentOwnerId(summary.deviceId());
+            if (ownerId != null && sendPestDetectionNotification(ownerId, detectedPests.size(), originImage.getId())) {
+                captureCommandTracker.record(correlationId, CaptureCommandTracker.Stage.ALERT);
+            }
         }
+        captureCommandTracker.complete(correlationId);
 
         // 응답 생성
         return ImageAnalysisResponseDto.builder()
@@ -109,11 +124,12 @@ public class ImageAnalyzeService {
     // 모바일 직접 촬영 이미지 분석
     public ImageAnalysisResponseDto analyzeMobileImage(Long userId, MobileImageUploadRequestDto request) {
         // 사용자의 모바일 디바이스 조회
-        Device mobileDevice = deviceService.getMobileDeviceByUserId(userId);
+        DeviceRegistry.DeviceSummary mobileSummary = deviceService.getMobileDeviceByUserId(userId);
+        Device mobileDevice = deviceRepository.getReferenceById(mobileSummary.deviceId());
 
         // 메타데이터 생성
         ImageMetadataRequestDto metadataRequest = new ImageMetadataRequestDto();
-        metadataRequest.setDeviceUuid(mobileDevice.getDeviceUuid());
+        metadataRequest.setDeviceUuid(mobileSummary.deviceUuid());
         metadataRequest.setCloudUrl(request.getCloudUrl());
         metadataRequest.setWidth(request.getWidth());
         metadataRequest.setHeight(request.getHeight());
@@ -147,14 +163,15 @@ public class ImageAnalyzeService {
                 .build();
     }
 
-    private void sendPestDetectionNotification(Long userId, int pestCount, Long originImageId) {
+    // 알림 발송 성공 여부 반환 (실패해도 분석 결과 응답은 그대로 나간다)
+    private boolean sendPestDetectionNotification(Long userId, int pestCount, Long originImageId) {
         try {
             OriginImage originImage = originImageRepository.findById(originImageId)
                     .orElse(null);
 
             if (originImage == null) {
                 log.warn("이미지를 찾을 수 없어 FCM 알림을 보낼 수 없습니다. originImageId: {}", originImageId);
-                return;
+                return false;
             }
 
             FcmSendRequestDto fcmRequest = new FcmSendRequestDto(
@@ -167,8 +184,10 @@ public class ImageAnalyzeService {
             fcmService.sendNotificationToUser(userId, fcmRequest);
             log.info("FCM 푸시 알림 발송 완료 - userId: {}, pestCount: {}, originImageId: {}, deviceId: {}",
                     userId, pestCount, originImageId, originImage.getDevice().getId());
+            return true;
         } catch (Exception e) {
             log.error("FCM 푸시 알림 발송 실패: {}", e.getMessage(), e);
+            return false;
         }
     }
 
@@ -0,0 +1,146 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.exception.auth.TooManyLoginAttemptsException;
+import com.farmguardian.farmguardian.util.StripedDecayingCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 로그인 실패 제한 (DB 조회와 BCrypt 검증 전에 거절해 CPU 를 보호한다)
+ *
+ * 이메일별/클라이언트 IP별 실패 횟수를 시간 감쇠 카운터로 세고,
+ * - delay-after 회 이상이면 마지막 실패 후 base-delay 부터 두 배씩 늘어나는 시간(최대 max-delay) 동안,
+ * - lockout-after 회 이상이면 마지막 실패 후 lockout-seconds 동안
+ * 로그인을 시도하지 못하게 한다 (429, AUTH_010). 요청 스레드를 재우지 않고 바로 거절한다.
+ * IP 는 여러 농가가 같은 통신사 NAT 를 쓸 수 있어 이메일보다 기준을 높게 둔다.
+ * 로드밸런서 뒤에서는 server.forward-headers-strategy 로 복원한 실제 클라이언트 IP 를 쓴다 (LB 주소로 세면 모두가 함께 잠긴다).
+ * 로그인에 성공하면 해당 이메일의 실패 기록은 지운다. (인스턴스마다 따로 센다)
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private static final double SCORE_TOLERANCE = 0.01;
+
+    private final boolean enabled;
+    private final StripedDecayingCounter emailFailures;
+    private final StripedDecayingCounter ipFailures;
+    private final Policy emailPolicy;
+    private final Policy ipPolicy;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long lockoutMillis;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter failureCounter;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${auth.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${auth.login-throttle.half-life-seconds:300}") long halfLifeSeconds,
+                         @Value("${auth.login-throttle.stripes:64}") int stripes,
+                         @Value("${auth.login-throttle.max-keys-per-stripe:1024}") int maxKeysPerStripe,
+                         @Value("${auth.login-throttle.email-delay-after:3}") int emailDelayAfter,
+                         @Value("${auth.login-throttle.email-lockout-after:10}") int emailLockoutAfter,
+                         @Value("${auth.login-throttle.ip-delay-after:20}") int ipDelayAfter,
+                         @Value("${auth.login-throttle.ip-lockout-after:100}") int ipLockoutAfter,
+                         @Value("${auth.login-throttle.base-delay-millis:1000}") long baseDelayMillis,
+                         @Value("${auth.login-throttle.max-delay-millis:60000}") long maxDelayMillis,
+                         @Value("${auth.login-throttle.lockout-seconds:900}") long lockoutSeconds) {
+        this.enabled = enabled;
+        long halfLifeMillis = Duration.ofSeconds(halfLifeSeconds).toMillis();
+        this.emailFailures = new StripedDecayingCounter(stripes, maxKeysPerStripe, halfLifeMillis);
+        this.ipFailures = new StripedDecayingCounter(stripes, maxKeysPerStripe, halfLifeMillis);
+        this.emailPolicy = new Policy("email", emailDelayAfter, emailLockoutAfter);
+        this.ipPolicy = new Policy("ip", ipDelayAfter, ipLockoutAfter);
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.lockoutMillis = Duration.ofSeconds(lockoutSeconds).toMillis();
+
+        this.meterRegistry = meterRegistry;
+        this.failureCounter = Counter.builder("auth.login.failures")
+                .description("실패한 로그인 시도 수")
+                .register(meterRegistry);
+        Gauge.builder("auth.login-throttle.tracked", this, throttle -> throttle.emailFailures.size() + throttle.ipFailures.size())
+                .description("실패 기록을 보관 중인 이메일/IP 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 로그인 시도 가능 여부 확인 (제한 중이면 TooManyLoginAttemptsException)
+     */
+    public void checkAllowed(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        check(emailFailures, emailPolicy, normalize(email), now);
+        if (clientIp != null) {
+            check(ipFailures, ipPolicy, clientIp, now);
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        failureCounter.increment();
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        emailFailures.record(normalize(email), now);
+        if (clientIp != null) {
+            ipFailures.record(clientIp, now);
+        }
+    }
+
+    public void recordSuccess(String email) {
+        if (enabled) {
+            emailFailures.reset(normalize(email));
+        }
+    }
+
+    private void check(StripedDecayingCounter failures, Policy policy, String key, long now) {
+        StripedDecayingCounter.Snapshot snapshot = failures.get(key);
+        if (snapshot == null) {
+            return;
+        }
+        // 연달아 실패해도 사이에 감쇠가 조금씩 들어가 정수 기준에 살짝 못 미치므로 여유를 둔다
+        double score = snapshot.score() + SCORE_TOLERANCE;
+        if (score < policy.delayAfter) {
+            return;
+        }
+
+        long elapsed = now - snapshot.lastEventMillis();
+        if (score >= policy.lockoutAfter) {
+            if (elapsed < lockoutMillis) {
+                reject(policy, "lockout", key);
+            }
+            return;
+        }
+
+        // delay-after 회부터 한 번 실패할 때마다 대기 시간을 두 배로
+        int doublings = Math.min(30, (int) Math.floor(score) - policy.delayAfter);
+        long delay = Math.min(maxDelayMillis, baseDelayMillis << doublings);
+        if (elapsed < delay) {
+            reject(policy, "delay", key);
+        }
+    }
+
+    private void reject(Policy policy, String reason, String key) {
+        meterRegistry.counter("auth.login.throttled", "key", policy.name, "reason", reason).increment();
+        log.debug("Login attempt throttled - Key: {}, Reason: {}", policy.name, reason);
+        throw new TooManyLoginAttemptsException();
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Policy(String name, int delayAfter, int lockoutAfter) {
+    }
+}
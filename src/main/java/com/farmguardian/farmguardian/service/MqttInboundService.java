@@ -0,0 +1,259 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.dto.request.ImageMetadataRequestDto;
+import com.farmguardian.farmguardian.gateway.PayloadCodec;
+import com.farmguardian.farmguardian.util.BinaryFrameCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 디바이스가 MQTT로 올려보내는 메시지 처리
+ * - device/{deviceUuid}/upload    : 촬영 이미지 메타데이터 → 이미지 분석 파이프라인
+ * - device/{deviceUuid}/telemetry : 온습도 등 센서 값
+ * - device/{deviceUuid}/heartbeat : 주기적 생존 신호 → 접속 상태 갱신
+ * - device/{deviceUuid}/status    : 접속 시 "online", Last Will 로 "offline" (retained)
+ * - device/{deviceUuid}/ack       : 촬영 명령 수신 확인 {"correlationId": "..."}
+ * 하트비트/상태 메시지의 "codec" 으로 명령 형식을 협상하며, ack/텔레메트리는 JSON 또는 바이너리 프레임(BinaryFrameCodec)을 받는다.
+ */
+@Slf4j
+@Service
+public class MqttInboundService {
+
+    public static final String UPLOAD_TOPIC = "device/+/upload";
+    public static final String TELEMETRY_TOPIC = "device/+/telemetry";
+    public static final String HEARTBEAT_TOPIC = "device/+/heartbeat";
+    public static final String STATUS_TOPIC = "device/+/status";
+    public static final String ACK_TOPIC = "device/+/ack";
+
+    private static final String DEVICE = "device";
+    private static final String UPLOAD = "upload";
+    private static final String TELEMETRY = "telemetry";
+    private static final String HEARTBEAT = "heartbeat";
+    private static final String STATUS = "status";
+    private static final String ACK = "ack";
+    private static final String OFFLINE = "offline";
+    private static final String CORRELATION_ID = "correlationId";
+    private static final String CODEC = "codec";
+
+    // 바이너리 프레임 디코딩 버퍼 (워커 스레드마다 재사용)
+    private static final ThreadLocal<BinaryFrameCodec.Frame> FRAMES = ThreadLocal.withInitial(BinaryFrameCodec.Frame::new);
+
+    private final ImageAnalyzeService imageAnalyzeService;
+    private final DevicePresenceRegistry devicePresenceRegistry;
+    private final CaptureCommandTracker captureCommandTracker;
+    private final OfflineCommandQueue offlineCommandQueue;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Timer lagTimer;
+    private final Counter malformedCounter;
+
+    public MqttInboundService(ImageAnalyzeService imageAnalyzeService, DevicePresenceRegistry devicePresenceRegistry,
+                              CaptureCommandTracker captureCommandTracker, OfflineCommandQueue offlineCommandQueue,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.imageAnalyzeService = imageAnalyzeService;
+        this.devicePresenceRegistry = devicePresenceRegistry;
+        this.captureCommandTracker = captureCommandTracker;
+        this.offlineCommandQueue = offlineCommandQueue;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.lagTimer = Timer.builder("mqtt.inbound.lag")
+                .description("MQTT 메시지 수신부터 처리 시작까지 걸린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.malformedCounter = Counter.builder("mqtt.inbound.malformed")
+                .description("해석할 수 없는 MQTT 수신 메시지 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 워커 풀로 넘길 메시지인지 (업로드/텔레메트리). 하트비트/상태/ack 는 메모리만 갱신하므로 수신 스레드에서 바로 처리한다.
+     */
+    public static boolean isWorkerMessage(Message<?> message) {
+        String topic = message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC, String.class);
+        return topic != null && (topic.endsWith("/" + UPLOAD) || topic.endsWith("/" + TELEMETRY));
+    }
+
+    public void handleMessage(Message<?> message) {
+        Long timestamp = message.getHeaders().getTimestamp();
+        long receivedAt = timestamp != null ? timestamp : System.currentTimeMillis();
+        lagTimer.record(System.currentTimeMillis() - receivedAt, TimeUnit.MILLISECONDS);
+
+        String topic = message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC, String.class);
+        String[] segments = topic != null ? topic.split("/") : new String[0];
+        if (segments.length != 3 || !DEVICE.equals(segments[0])) {
+            log.warn("Unsupported MQTT topic received - Topic: {}", topic);
+            malformedCounter.increment();
+            return;
+        }
+
+        String deviceUuid = segments[1];
+        String kind = segments[2];
+
+        // 접속 상태 메시지는 분석 페이로드가 아니므로 먼저 처리 (DB 접근 없음)
+        if (HEARTBEAT.equals(kind)) {
+            markOnline(deviceUuid, receivedAt);
+            negotiateCodec(deviceUuid, message.getPayload());
+            return;
+        }
+        if (STATUS.equals(kind)) {
+            if (isOfflineStatus(message.getPayload())) {
+                devicePresenceRegistry.markOffline(deviceUuid, receivedAt);
+                log.info("Device went offline - DeviceUuid: {}", deviceUuid);
+            } else {
+                markOnline(deviceUuid, receivedAt);
+                negotiateCodec(deviceUuid, message.getPayload());
+            }
+            return;
+        }
+        if (ACK.equals(kind)) {
+            // ack 도 생존 신호로 본다
+            markOnline(deviceUuid, receivedAt);
+            captureCommandTracker.onAcknowledged(deviceUuid, readCorrelationId(message.getPayload()));
+            return;
+        }
+
+        ImageMetadataRequestDto request = decode(message.getPayload(), deviceUuid, kind);
+        if (request == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        String result = "success";
+        try {
+            switch (kind) {
+                case UPLOAD -> imageAnalyzeService.analyzeImage(request);
+                case TELEMETRY -> log.debug("MQTT telemetry received - DeviceUuid: {}, Temperature: {}, Humidity: {}",
+                        deviceUuid, request.getTemperature(), request.getHumidity());
+                default -> {
+                    result = "ignored";
+                    log.warn("Unsupported MQTT message kind - Topic: {}", topic);
+                }
+            }
+        } catch (Exception e) {
+            result = "failure";
+            log.error("Failed to process MQTT message - Topic: {}", topic, e);
+        } finally {
+            meterRegistry.timer("mqtt.inbound.processing", "kind", kind, "result", result)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // {"codec":"fgb1"} 처럼 형식을 밝힌 디바이스만 전환 (빈 페이로드나 알 수 없는 값은 무시)
+    private void negotiateCodec(String deviceUuid, Object payload) {
+        if (payload instanceof byte[] bytes && bytes.length == 0) {
+            return;
+        }
+        PayloadCodec codec = PayloadCodec.fromWireName(readField(payload, CODEC));
+        if (codec != null && codec != devicePresenceRegistry.getCodec(deviceUuid)) {
+            devicePresenceRegistry.setCodec(deviceUuid, codec);
+            log.info("Device payload codec negotiated - DeviceUuid: {}, Codec: {}", deviceUuid, codec);
+        }
+    }
+
+    private String readCorrelationId(Object payload) {
+        if (payload instanceof byte[] bytes && BinaryFrameCodec.isFrame(bytes)) {
+            BinaryFrameCodec.Frame frame = FRAMES.get();
+            if (BinaryFrameCodec.decode(bytes, 0, bytes.length, frame) && frame.getType() == BinaryFrameCodec.TYPE_ACK) {
+                return frame.correlationId();
+            }
+            malformedCounter.increment();
+            return null;
+        }
+        return readField(payload, CORRELATION_ID);
+    }
+
+    // "offline" 또는 {"status":"offline"} 형태의 상태 페이로드 판별
+    private boolean isOfflineStatus(Object payload) {
+        return OFFLINE.equalsIgnoreCase(readField(payload, STATUS));
+    }
+
+    // 온라인 신호마다 보관된 명령이 있는지 확인해 재접속한 디바이스에 보낸다
+    private void markOnline(String deviceUuid, long receivedAt) {
+        devicePresenceRegistry.markOnline(deviceUuid, receivedAt);
+        offlineCommandQueue.onOnline(deviceUuid);
+    }
+
+    // 단일 값 페이로드는 그대로, JSON 객체면 지정한 필드 값을 꺼낸다 (없으면 null)
+    private String readField(Object payload, String field) {
+        String text = toText(payload).trim();
+        if (!text.startsWith("{")) {
+            return text.isEmpty() ? null : text;
+        }
+        try {
+            Object value = objectMapper.readValue(text, Map.class).get(field);
+            return value != null ? value.toString() : null;
+        } catch (JacksonException e) {
+            log.warn("Failed to decode MQTT payload field - Field: {}, Reason: {}", field, e.getMessage());
+            malformedCounter.increment();
+            return null;
+        }
+    }
+
+    private String toText(Object payload) {
+        return payload instanceof byte[] bytes
+                ? new String(bytes, StandardCharsets.UTF_8)
+                : String.valueOf(payload);
+    }
+
+    // 페이로드(JSON)를 ImageMetadataRequestDto로 변환, deviceUuid가 없으면 토픽에서 채운다
+    // 업로드는 이미지 주소(cloudUrl)가 있는 JSON 만 받는다 (바이너리 프레임은 텔레메트리 전용)
+    private ImageMetadataRequestDto decode(Object payload, String deviceUuid, String kind) {
+        if (payload instanceof byte[] bytes && BinaryFrameCodec.isFrame(bytes)) {
+            if (UPLOAD.equals(kind)) {
+                log.warn("Binary frame is not accepted for upload - DeviceUuid: {}", deviceUuid);
+                malformedCounter.increment();
+                return null;
+            }
+            return decodeTelemetryFrame(bytes, deviceUuid);
+        }
+        String json = toText(payload);
+        try {
+            ImageMetadataRequestDto request = objectMapper.readValue(json, ImageMetadataRequestDto.class);
+            if (!StringUtils.hasText(request.getDeviceUuid())) {
+                request.setDeviceUuid(deviceUuid);
+            } else if (!request.getDeviceUuid().equals(deviceUuid)) {
+                log.warn("DeviceUuid mismatch between topic and payload - Topic: {}, Payload: {}",
+                        deviceUuid, request.getDeviceUuid());
+                malformedCounter.increment();
+                return null;
+            }
+            if (UPLOAD.equals(kind) && !StringUtils.hasText(request.getCloudUrl())) {
+                log.warn("Upload without cloudUrl ignored - DeviceUuid: {}", deviceUuid);
+                malformedCounter.increment();
+                return null;
+            }
+            return request;
+        } catch (JacksonException e) {
+            log.warn("Failed to decode MQTT payload - DeviceUuid: {}, Reason: {}", deviceUuid, e.getMessage());
+            malformedCounter.increment();
+            return null;
+        }
+    }
+
+    // 바이너리 텔레메트리 프레임 → ImageMetadataRequestDto (온습도만 채운다)
+    private ImageMetadataRequestDto decodeTelemetryFrame(byte[] bytes, String deviceUuid) {
+        BinaryFrameCodec.Frame frame = FRAMES.get();
+        if (!BinaryFrameCodec.decode(bytes, 0, bytes.length, frame) || frame.getType() != BinaryFrameCodec.TYPE_TELEMETRY) {
+            log.warn("Unsupported binary MQTT frame - DeviceUuid: {}", deviceUuid);
+            malformedCounter.increment();
+            return null;
+        }
+        ImageMetadataRequestDto request = new ImageMetadataRequestDto();
+        request.setDeviceUuid(deviceUuid);
+        request.setTemperature(Double.isNaN(frame.getTemperature()) ? null : frame.getTemperature());
+        request.setHumidity(Double.isNaN(frame.getHumidity()) ? null : frame.getHumidity());
+        return request;
+    }
+}
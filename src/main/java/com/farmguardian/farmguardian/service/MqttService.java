@@ -2,20 +2,36 @@ package com.farmguardian.farmguardian.service;
 
 import com.farmguardian.farmguardian.domain.Device;
 import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.dto.request.FleetCaptureRequestDto;
+import com.farmguardian.farmguardian.dto.response.CaptureCommandResponseDto;
+import com.farmguardian.farmguardian.dto.response.FleetCaptureResponseDto;
+import com.farmguardian.farmguardian.dto.response.FleetCaptureResponseDto.DeviceDispatchResult;
+import com.farmguardian.farmguardian.dto.response.FleetCaptureResponseDto.DispatchStatus;
 import com.farmguardian.farmguardian.exception.device.DeviceNotConnectedException;
 import com.farmguardian.farmguardian.exception.device.DeviceNotFoundException;
+import com.farmguardian.farmguardian.exception.device.DeviceOfflineException;
 import com.farmguardian.farmguardian.exception.device.UnauthorizedDeviceAccessException;
 import com.farmguardian.farmguardian.exception.mqtt.MqttSendFailedException;
 import com.farmguardian.farmguardian.exception.mqtt.NightTimeCaptureForbiddenException;
 import com.farmguardian.farmguardian.gateway.MqttGateway;
+import com.farmguardian.farmguardian.gateway.PayloadCodec;
 import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.DeviceRepository.DeviceIndexView;
+import com.farmguardian.farmguardian.util.BinaryFrameCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -25,6 +41,11 @@ public class MqttService {
 
     private final MqttGateway mqttGateway;
     private final DeviceRepository deviceRepository;
+    private final FleetCaptureStaggerScheduler fleetCaptureStaggerScheduler;
+    private final DevicePresenceRegistry devicePresenceRegistry;
+    private final CaptureCommandTracker captureCommandTracker;
+    private final OfflineCommandQueue offlineCommandQueue;
+    private final DeviceOwnershipIndex deviceOwnershipIndex;
 
     private static final String CAPTURE_TOPIC_PREFIX = "cmd/capture/";
     private static final LocalTime SLEEP_START_TIME = LocalTime.of(19, 0); // 19:00
@@ -33,13 +54,14 @@ public class MqttService {
     /**
      * 디바이스에 이미지 촬영 명령 전송
      */
-    public void requestCapture(Long userId, Long deviceId) {
-        // 1. Device 존재 여부 확인
-        Device device = deviceRepository.findById(deviceId)
-                .orElseThrow(DeviceNotFoundException::new);
+    public CaptureCommandResponseDto requestCapture(Long userId, Long deviceId) {
+        // 1. Device 소유권 / 촬영 시간 확인 (소유권 인덱스, 조회 없음)
+        checkCaptureAllowed(userId, deviceId);
 
-        // 2. Device 소유권 확인
-        if (device.getUser() == null || !device.getUser().getId().equals(userId)) {
+        // 2. Device 조회 (엔티티/User 대신 필요한 컬럼만, 인덱스가 늦게 갱신된 경우를 위해 소유자도 다시 확인)
+        DeviceIndexView device = deviceRepository.findIndexViewById(deviceId)
+                .orElseThrow(DeviceNotFoundException::new);
+        if (!userId.equals(device.getUserId())) {
             throw new UnauthorizedDeviceAccessException();
         }
 
@@ -48,45 +70,179 @@ public class MqttService {
             throw new DeviceNotConnectedException();
         }
 
-        // 4. 촬영 시간 검증 (밤 시간인지 확인)
+        // 4. Device 접속 상태 확인 (오프라인이면 대기열에 보관했다가 재접속 시 보내고, 상태를 아직 모르면 전송은 시도한다)
+        if (devicePresenceRegistry.isOffline(device.getDeviceUuid())) {
+            if (!offlineCommandQueue.enqueue(device.getDeviceUuid())) {
+                // 대기열이 가득 차 보관하지 못한 경우만 거절
+                throw new DeviceOfflineException();
+            }
+            log.info("MQTT capture queued for offline device - UserId: {}, DeviceId: {}, DeviceUuid: {}",
+                    userId, deviceId, device.getDeviceUuid());
+            return new CaptureCommandResponseDto(deviceId, device.getDeviceUuid(), null, DispatchStatus.QUEUED, false);
+        }
+
+        // 5. MQTT 메시지 발행
+        try {
+            String correlationId = publishCapture(device.getDeviceUuid());
+            return new CaptureCommandResponseDto(deviceId, device.getDeviceUuid(), correlationId, DispatchStatus.SENT, false);
+        } catch (Exception e) {
+            log.error("Failed to send MQTT message - UserId: {}, DeviceId: {}, DeviceUuid: {}",
+                    userId, deviceId, device.getDeviceUuid(), e);
+            throw new MqttSendFailedException("MQTT 메시지 전송 실패");
+        }
+    }
+
+    /**
+     * 촬영 요청마다 하는 검사 (DB 조회 없음, 진행 중인 명령에 합쳐지는 요청도 거친다)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void checkCaptureAllowed(Long userId, Long deviceId) {
+        deviceOwnershipIndex.checkOwner(userId, deviceId);
+
+        // 촬영 시간 검증 (밤 시간인지 확인)
         /*
         LocalTime currentTime = LocalTime.now();
         if (isNightTime(currentTime)) {
             throw new NightTimeCaptureForbiddenException();
         }
          */
+    }
+
+    /**
+     * 사용자의 여러 디바이스에 촬영 명령 일괄 전송
+     * 대상 디바이스는 한 번의 조회로 선택하고, 명령은 전송 완료를 기다리지 않고 연속으로 발행한다.
+     * staggerMillis가 지정되면 디바이스마다 전송 시점을 늦춰 업로드가 분석 서버에 몰리지 않게 한다.
+     * 지연 전송은 전용 스케줄러에서 실행하고, 마지막 전송이 capture.fleet.max-stagger-window-millis 안에 끝나도록 간격을 줄인다.
+     * 트랜잭션을 열지 않는다 (대상 조회만 짧게 실행하고, 발행/예약은 커넥션을 잡지 않은 채 한다).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public FleetCaptureResponseDto requestFleetCapture(Long userId, FleetCaptureRequestDto request) {
+        List<Device> devices = findFleetCaptureTargets(userId, request);
+        List<DeviceDispatchResult> results = new ArrayList<>(devices.size());
+
+        long requestedStaggerMillis = request.getStaggerMillis() != null ? request.getStaggerMillis() : 0L;
+        long staggerMillis = fleetCaptureStaggerScheduler.staggerMillis(requestedStaggerMillis, devices.size());
+        Instant now = Instant.now();
+
+        for (int i = 0; i < devices.size(); i++) {
+            Device device = devices.get(i);
+            String deviceUuid = device.getDeviceUuid();
+            long delay = staggerMillis * i;
+
+            if (delay == 0 || devicePresenceRegistry.isOffline(deviceUuid)) {
+                results.add(new DeviceDispatchResult(device.getId(), deviceUuid, dispatchNow(deviceUuid)));
+            } else {
+                fleetCaptureStaggerScheduler.schedule(() -> dispatchNow(deviceUuid), now.plusMillis(delay));
+                results.add(new DeviceDispatchResult(device.getId(), deviceUuid, DispatchStatus.SCHEDULED));
+            }
+        }
+
+        // 요청했지만 조회되지 않은 디바이스 (존재하지 않음, 소유하지 않음, 연결되지 않음)
+        if (request.getDeviceIds() != null) {
+            Set<Long> missingIds = new LinkedHashSet<>(request.getDeviceIds());
+            devices.forEach(device -> missingIds.remove(device.getId()));
+            missingIds.forEach(id -> results.add(new DeviceDispatchResult(id, null, DispatchStatus.REJECTED)));
+        }
+
+        log.info("MQTT fleet capture requested - UserId: {}, Targets: {}, StaggerMillis: {} (requested {})",
+                userId, devices.size(), staggerMillis, requestedStaggerMillis);
+        return FleetCaptureResponseDto.from(results);
+    }
 
-        // 5. 동적 토픽 생성
-        String topic = CAPTURE_TOPIC_PREFIX + device.getDeviceUuid();
+    private List<Device> findFleetCaptureTargets(Long userId, FleetCaptureRequestDto request) {
+        if (request.getDeviceIds() == null || request.getDeviceIds().isEmpty()) {
+            return request.getTargetCrop() != null
+                    ? deviceRepository.findAllByUserIdAndStatusAndTargetCrop(userId, DeviceStatus.CONNECTED, request.getTargetCrop())
+                    : deviceRepository.findAllByUserIdAndStatus(userId, DeviceStatus.CONNECTED);
+        }
+
+        // deviceIds와 targetCrop이 함께 지정된 경우 작물 조건도 적용
+        return deviceRepository.findAllByIdInAndUserIdAndStatus(request.getDeviceIds(), userId, DeviceStatus.CONNECTED)
+                .stream()
+                .filter(device -> request.getTargetCrop() == null || device.getTargetCrop() == request.getTargetCrop())
+                .toList();
+    }
 
-        // 6. 페이로드 생성
-        String payload = createCapturePayload(device.getDeviceUuid());
+    /**
+     * 주기 촬영 스케줄에 의한 촬영 명령 전송 (소유권/연결 상태는 스케줄 등록·비활성화 시점에 관리된다)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sendScheduledCapture(String deviceUuid) {
+        dispatchNow(deviceUuid);
+    }
+
+    /**
+     * 재접속한 디바이스에 보관해 둔 촬영 명령 전송 (한 번에 일정 건수씩 나눠 보낸다)
+     */
+    @Scheduled(fixedDelayString = "${capture.offline-queue.drain-interval-millis:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void drainOfflineCommands() {
+        List<String> deviceUuids = offlineCommandQueue.pollReady();
+        for (String deviceUuid : deviceUuids) {
+            dispatchNow(deviceUuid);
+        }
+        if (!deviceUuids.isEmpty()) {
+            log.info("Offline capture commands flushed - Count: {}", deviceUuids.size());
+        }
+    }
 
-        // 7. MQTT 메시지 발행
+    // 오프라인 디바이스의 명령은 대기열에 보관했다가 재접속 시 보낸다 (대기열이 가득 차면 보내지 않는다)
+    private DispatchStatus dispatchNow(String deviceUuid) {
+        if (devicePresenceRegistry.isOffline(deviceUuid)) {
+            if (offlineCommandQueue.enqueue(deviceUuid)) {
+                log.debug("MQTT capture queued for offline device - DeviceUuid: {}", deviceUuid);
+                return DispatchStatus.QUEUED;
+            }
+            log.debug("MQTT capture skipped for offline device - DeviceUuid: {}", deviceUuid);
+            return DispatchStatus.OFFLINE;
+        }
         try {
-            mqttGateway.sendToMqtt(topic, payload);
-            log.info("MQTT capture command sent - Topic: {}, DeviceUuid: {}", topic, device.getDeviceUuid());
+            publishCapture(deviceUuid);
+            return DispatchStatus.SENT;
         } catch (Exception e) {
-            log.error("Failed to send MQTT message - UserId: {}, DeviceId: {}, Topic: {}, Payload: {}",
-                    userId, deviceId, topic, payload, e);
-            throw new MqttSendFailedException("MQTT 메시지 전송 실패");
+            log.error("Failed to send MQTT message - DeviceUuid: {}", deviceUuid, e);
+            return DispatchStatus.FAILED;
+        }
+    }
+
+    // 촬영 명령 발행 (비동기 핸들러이므로 브로커 전달 완료를 기다리지 않고, 추적기가 이후 단계를 기록한다)
+    // 디바이스가 바이너리 프레임을 협상했으면 27바이트 프레임, 아니면 JSON 으로 보낸다
+    private String publishCapture(String deviceUuid) {
+        String topic = CAPTURE_TOPIC_PREFIX + deviceUuid;
+        String correlationId = captureCommandTracker.register(deviceUuid);
+
+        try {
+            if (devicePresenceRegistry.getCodec(deviceUuid) == PayloadCodec.BINARY) {
+                // 발행 핸들러가 비동기로 배열을 읽으므로 재사용하지 않는다 (명령당 27바이트)
+                byte[] frame = new byte[BinaryFrameCodec.CAPTURE_LENGTH];
+                BinaryFrameCodec.encodeCapture(frame, 0, correlationId, System.currentTimeMillis());
+                mqttGateway.sendToDevice(topic, deviceUuid, correlationId, frame);
+            } else {
+                mqttGateway.sendToDevice(topic, deviceUuid, correlationId, createCapturePayload(deviceUuid, correlationId));
+            }
+        } catch (RuntimeException e) {
+            captureCommandTracker.cancel(correlationId);
+            throw e;
         }
+        log.info("MQTT capture command sent - Topic: {}, DeviceUuid: {}, CorrelationId: {}", topic, deviceUuid, correlationId);
+        return correlationId;
     }
 
     /**
      * 밤 시간 여부 확인
      */
-    private boolean isNightTime(LocalTime currentTime) {
+    static boolean isNightTime(LocalTime currentTime) {
         // 19:00 ~ 23:59 또는 00:00 ~ 06:00
         return currentTime.isAfter(SLEEP_START_TIME) || currentTime.isBefore(SLEEP_END_TIME);
     }
 
     /**
-     * 촬영 명령 페이로드 생성
+     * 촬영 명령 페이로드 생성 (JSON, String.format 대신 직접 이어 붙인다)
      */
-    private String createCapturePayload(String deviceUuid) {
-        return String.format("{\"command\":\"capture\",\"deviceUuid\":\"%s\",\"timestamp\":\"%s\"}",
-                deviceUuid,
-                LocalTime.now().format(DateTimeFormatter.ISO_LOCAL_TIME));
+    static String createCapturePayload(String deviceUuid, String correlationId) {
+        return "{\"command\":\"capture\",\"deviceUuid\":\"" + deviceUuid
+                + "\",\"correlationId\":\"" + correlationId
+                + "\",\"timestamp\":\"" + DateTimeFormatter.ISO_LOCAL_TIME.format(LocalTime.now())
+                + "\"}";
     }
 }
\ No newline at end of file
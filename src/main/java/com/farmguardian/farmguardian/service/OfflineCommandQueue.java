@@ -0,0 +1,177 @@
+package com.farmguardian.farmguardian.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 오프라인 디바이스의 촬영 명령 대기열 (메모리 전용)
+ *
+ * - 세션을 유지하지 않는 연결(cleanSession)이라 브로커가 명령을 보관하지 않으므로, 오프라인 디바이스의 명령은 서버가 들고 있는다.
+ * - 디바이스당 한 건만 보관한다 (촬영 명령은 여러 번 받아도 결과가 같으므로 중복 요청은 합친다).
+ * - 온라인 신호를 받으면 전송 대기로 옮기고, 대량 재접속 시에도 한 번에 drain-batch-size 건씩만 꺼내 발행한다.
+ * - 마지막 요청 후 ttl 이 지난 명령은 버린다.
+ */
+@Slf4j
+@Component
+public class OfflineCommandQueue {
+
+    // deviceUuid → 온라인 신호를 기다리는 명령
+    private final Map<String, PendingCommand> waiting = new ConcurrentHashMap<>();
+    // waiting 에 들어간(자리를 예약한) 디바이스 수 (확인과 추가 사이에 다른 스레드가 끼어 max-devices 를 넘지 않도록)
+    private final AtomicInteger waitingSize = new AtomicInteger();
+    // 온라인이 확인되어 발행을 기다리는 명령
+    private final Queue<PendingCommand> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readySize = new AtomicInteger();
+
+    private final DevicePresenceRegistry devicePresenceRegistry;
+    private final long ttlMillis;
+    private final int maxDevices;
+    private final int drainBatchSize;
+
+    private final Counter collapsedCounter;
+    private final Counter rejectedCounter;
+    private final Counter expiredCounter;
+    private final Counter flushedCounter;
+
+    public OfflineCommandQueue(DevicePresenceRegistry devicePresenceRegistry, MeterRegistry meterRegistry,
+                               @Value("${capture.offline-queue.ttl-seconds:900}") long ttlSeconds,
+                               @Value("${capture.offline-queue.max-devices:50000}") int maxDevices,
+                               @Value("${capture.offline-queue.drain-batch-size:200}") int drainBatchSize) {
+        this.devicePresenceRegistry = devicePresenceRegistry;
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.maxDevices = maxDevices;
+        this.drainBatchSize = drainBatchSize;
+
+        Gauge.builder("capture.offline-queue.size", waiting, Map::size)
+                .description("온라인 신호를 기다리는 촬영 명령 수")
+                .tag("state", "waiting")
+                .register(meterRegistry);
+        Gauge.builder("capture.offline-queue.size", readySize, AtomicInteger::get)
+                .description("재접속 후 발행을 기다리는 촬영 명령 수")
+                .tag("state", "ready")
+                .register(meterRegistry);
+        this.collapsedCounter = Counter.builder("capture.offline-queue.collapsed")
+                .description("이미 대기 중인 명령과 합쳐진 촬영 요청 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("capture.offline-queue.rejected")
+                .description("대기열이 가득 차 보관하지 못한 촬영 명령 수")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("capture.offline-queue.expired")
+                .description("재접속 전에 만료된 촬영 명령 수")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("capture.offline-queue.flushed")
+                .description("재접속 후 발행한 촬영 명령 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 오프라인 디바이스의 명령 보관 (대기열이 가득 차면 false)
+     */
+    public boolean enqueue(String deviceUuid) {
+        long now = System.currentTimeMillis();
+        PendingCommand merged = waiting.compute(deviceUuid, (key, current) -> {
+            if (current != null) {
+                return new PendingCommand(key, now, current.requests + 1);
+            }
+            return reserveSlot() ? new PendingCommand(key, now, 1) : null;
+        });
+        if (merged == null) {
+            rejectedCounter.increment();
+            return false;
+        }
+        if (merged.requests > 1) {
+            collapsedCounter.increment();
+        }
+
+        // 오프라인 판단 직후 하트비트가 먼저 처리됐을 수 있으므로 다시 확인한다
+        if (!devicePresenceRegistry.isOffline(deviceUuid)) {
+            promote(deviceUuid);
+        }
+        return true;
+    }
+
+    /**
+     * 디바이스 온라인 신호 수신 시 호출 (대기 중인 명령이 있으면 발행 대기로 옮긴다)
+     */
+    public void onOnline(String deviceUuid) {
+        if (!waiting.isEmpty()) {
+            promote(deviceUuid);
+        }
+    }
+
+    /**
+     * 발행할 명령의 디바이스 UUID 를 최대 drain-batch-size 건 꺼낸다 (만료된 명령은 건너뛴다)
+     */
+    public List<String> pollReady() {
+        if (readySize.get() == 0) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        List<String> deviceUuids = new ArrayList<>(Math.min(drainBatchSize, readySize.get()));
+        PendingCommand command;
+        while (deviceUuids.size() < drainBatchSize && (command = ready.poll()) != null) {
+            readySize.decrementAndGet();
+            if (command.isExpired(now, ttlMillis)) {
+                expiredCounter.increment();
+            } else {
+                deviceUuids.add(command.deviceUuid);
+            }
+        }
+        flushedCounter.increment(deviceUuids.size());
+        return deviceUuids;
+    }
+
+    // 온라인 신호 없이 ttl 이 지난 명령 정리
+    @Scheduled(fixedDelayString = "${capture.offline-queue.sweep-millis:30000}")
+    public void expireStale() {
+        long now = System.currentTimeMillis();
+        waiting.forEach((deviceUuid, command) -> {
+            if (command.isExpired(now, ttlMillis) && waiting.remove(deviceUuid, command)) {
+                waitingSize.decrementAndGet();
+                expiredCounter.increment();
+                log.debug("Offline capture command expired - DeviceUuid: {}, Requests: {}", deviceUuid, command.requests);
+            }
+        });
+    }
+
+    private void promote(String deviceUuid) {
+        PendingCommand command = waiting.remove(deviceUuid);
+        if (command != null) {
+            waitingSize.decrementAndGet();
+            ready.add(command);
+            readySize.incrementAndGet();
+        }
+    }
+
+    // max-devices 를 넘지 않을 때만 한 자리 예약
+    private boolean reserveSlot() {
+        int size;
+        do {
+            size = waitingSize.get();
+            if (size >= maxDevices) {
+                return false;
+            }
+        } while (!waitingSize.compareAndSet(size, size + 1));
+        return true;
+    }
+
+    private record PendingCommand(String deviceUuid, long requestedAtMillis, int requests) {
+        boolean isExpired(long nowMillis, long ttlMillis) {
+            return nowMillis - requestedAtMillis > ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.exception.auth.AuthBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비밀번호 해시 전용 실행기
+ *
+ * BCrypt 는 요청 스레드 대신 크기가 제한된 전용 풀에서 실행해, 로그인이 몰려도 다른 API/디바이스 트래픽이 CPU 를 받을 수 있게 한다.
+ * - 대기열(queue-capacity)이 가득 차거나, 대기열에서 max-queue-millis 이상 기다린 작업은 해시하지 않고 503(AUTH_009)으로 거절한다.
+ * - BCrypt cost 는 auth.password.bcrypt-strength 로 환경별로 정하고, 저장된 해시의 cost 가 그보다 낮으면 로그인 성공 시 다시 해시한다.
+ */
+@Slf4j
+@Component
+public class PasswordHashingService implements DisposableBean {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final long maxQueueNanos;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueTimer;
+    private final Counter queueFullCounter;
+    private final Counter queueTimeoutCounter;
+
+    public PasswordHashingService(BCryptPasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                  @Value("${auth.password.hash-threads:0}") int hashThreads,
+                                  @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+                                  @Value("${auth.password.max-queue-millis:2000}") long maxQueueMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueMillis);
+
+        // 0 이면 코어의 절반 (나머지는 요청 처리/디바이스 수신에 남긴다)
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.queueTimer = Timer.builder("auth.password.queue.wait")
+                .description("비밀번호 해시 작업이 대기열에서 기다린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueFullCounter = rejectedCounter(meterRegistry, "queue-full");
+        this.queueTimeoutCounter = rejectedCounter(meterRegistry, "queue-timeout");
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("해시를 기다리는 비밀번호 작업 수")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("해시 중인 비밀번호 작업 수")
+                .register(meterRegistry);
+
+        log.info("Password hashing executor initialized - Threads: {}, QueueCapacity: {}, MaxQueueMillis: {}",
+                threads, queueCapacity, maxQueueMillis);
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // 저장된 해시의 cost 가 현재 설정보다 낮은지 여부 (해시 계산 없음)
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Timer hashTimer, Callable<T> hash) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                queueTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueNanos) {
+                    queueTimeoutCounter.increment();
+                    throw new AuthBusyException();
+                }
+                return hashTimer.recordCallable(hash);
+            });
+        } catch (TaskRejectedException e) {
+            queueFullCounter.increment();
+            throw new AuthBusyException();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new AuthBusyException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("비밀번호 해시 계산 시간")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.password.rejected")
+                .description("부하로 거절한 비밀번호 해시 작업 수")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,81 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.util.StripedLruCache;
+import com.farmguardian.farmguardian.util.TokenDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 토큰 갱신(RTR) 경로용 리프레시 토큰 조회 캐시
+ *
+ * 토큰 다이제스트 → (토큰 행 ID, 사용자 정보, clientUuid) 를 보관해 갱신 시 SELECT 와 사용자 조회를 건너뛴다.
+ * 실제 교체는 해시 조건부 UPDATE 로 하므로, 다른 인스턴스에서 이미 교체/삭제된 토큰의 항목이 남아 있어도 통과하지 않는다.
+ * 로그아웃/탈퇴 시에는 캐시 무효화 버스로 모든 인스턴스에서 해당 사용자의 항목을 비운다.
+ * 약 cache-max-size 개까지 보관하고, 넘치면 가장 오래 쓰이지 않은 항목을 버린다 (stripe 별 LRU, 새 항목은 항상 캐시).
+ */
+@Component
+public class RefreshTokenCache {
+
+    private static final int STRIPES = 16;
+
+    private final StripedLruCache<TokenDigest, CachedRefreshToken> entries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public RefreshTokenCache(CacheInvalidationBus cacheInvalidationBus, MeterRegistry meterRegistry,
+                             @Value("${auth.refresh-token.cache-max-size:10000}") int maxSize) {
+        this.entries = new StripedLruCache<>(STRIPES, maxSize);
+        this.hitCounter = Counter.builder("auth.refresh-token.cache")
+                .description("리프레시 토큰 캐시 조회 수")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("auth.refresh-token.cache")
+                .description("리프레시 토큰 캐시 조회 수")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh-token.cache.size", entries, StripedLruCache::size)
+                .description("캐시된 리프레시 토큰 수")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.refresh-token.cache.evicted", entries, StripedLruCache::evictions)
+                .description("크기 제한으로 버린 리프레시 토큰 수")
+                .register(meterRegistry);
+
+        cacheInvalidationBus.register(CacheInvalidationBus.REFRESH_TOKEN, userId -> evictUser(Long.valueOf(userId)), entries::clear);
+    }
+
+    public CachedRefreshToken get(TokenDigest digest) {
+        CachedRefreshToken cached = entries.get(digest);
+        if (cached == null) {
+            missCounter.increment();
+            return null;
+        }
+        if (cached.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(digest, cached);
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return cached;
+    }
+
+    // 가득 차면 가장 오래 쓰이지 않은 항목을 버린다 (버려진 토큰은 DB 조회로 동작)
+    public void put(TokenDigest digest, CachedRefreshToken token) {
+        entries.put(digest, token);
+    }
+
+    public void evict(TokenDigest digest) {
+        entries.remove(digest);
+    }
+
+    public void evictUser(Long userId) {
+        entries.removeIf(cached -> cached.userId().equals(userId));
+    }
+
+    public record CachedRefreshToken(Long id, Long userId, String email, String role, String clientUuid,
+                                     long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 만료됐거나 탈퇴한 사용자의 리프레시 토큰 정리
+ * 한 번에 batch-size 행씩 별도 트랜잭션으로 지워 잠금을 짧게 유지하고, 실행당 max-batches 까지만 처리한다.
+ * 여러 인스턴스가 동시에 실행해도 같은 행을 지울 뿐이라 안전하다.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPurger {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter purgedCounter;
+
+    public RefreshTokenPurger(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry,
+                              @Value("${auth.refresh-token.purge-batch-size:500}") int batchSize,
+                              @Value("${auth.refresh-token.purge-max-batches:100}") int maxBatches) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.purgedCounter = Counter.builder("auth.refresh-token.purged")
+                .description("정리한 만료/고아 리프레시 토큰 수")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.refresh-token.purge-interval-millis:3600000}",
+            initialDelayString = "${auth.refresh-token.purge-initial-delay-millis:60000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = refreshTokenRepository.findPurgeableIds(now, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            purged += refreshTokenRepository.deleteAllByIdIn(ids);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (purged > 0) {
+            purgedCounter.increment(purged);
+            log.info("Expired refresh tokens purged - Count: {}", purged);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.farmguardian.farmguardian.util;
+
+import java.util.UUID;
+
+/**
+ * 디바이스용 고정 길이 바이너리 프레임 (JSON 대신 협상된 디바이스에만 사용)
+ *
+ * 공통 헤더 3바이트: [0xFB][version][type]  (0xFB 는 UTF-8 텍스트의 첫 바이트가 될 수 없어 JSON 과 구분된다)
+ * - CAPTURE   (27B): correlationId(16) + timestampMillis(8)
+ * - ACK       (27B): correlationId(16) + timestampMillis(8)
+ * - TELEMETRY (15B): temperature(2, 0.01℃) + humidity(2, 0.01%) + timestampMillis(8)
+ * 모든 정수는 big-endian, 값이 없으면 0x8000 으로 표시한다.
+ *
+ * 인코딩/디코딩은 호출자가 넘긴 배열과 Frame 만 사용하며 내부에서 객체를 만들지 않는다.
+ * 다만 발행하는 쪽은 비동기 전송이 배열을 나중에 읽으므로 프레임마다 배열을 새로 만들고,
+ * Frame.correlationId() 는 호출할 때마다 UUID 와 String 을 만든다.
+ */
+public final class BinaryFrameCodec {
+
+    public static final byte MAGIC = (byte) 0xFB;
+    public static final byte VERSION = 1;
+
+    public static final byte TYPE_CAPTURE = 1;
+    public static final byte TYPE_ACK = 2;
+    public static final byte TYPE_TELEMETRY = 3;
+
+    public static final int HEADER_LENGTH = 3;
+    public static final int CAPTURE_LENGTH = HEADER_LENGTH + 16 + 8;
+    public static final int ACK_LENGTH = HEADER_LENGTH + 16 + 8;
+    public static final int TELEMETRY_LENGTH = HEADER_LENGTH + 2 + 2 + 8;
+
+    private static final short ABSENT = Short.MIN_VALUE;
+
+    private BinaryFrameCodec() {
+    }
+
+    public static int encodeCapture(byte[] dst, int offset, CharSequence correlationId, long timestampMillis) {
+        return encodeCorrelated(dst, offset, TYPE_CAPTURE, correlationId, timestampMillis);
+    }
+
+    public static int encodeAck(byte[] dst, int offset, CharSequence correlationId, long timestampMillis) {
+        return encodeCorrelated(dst, offset, TYPE_ACK, correlationId, timestampMillis);
+    }
+
+    /**
+     * @param temperature 온도 (값이 없으면 NaN)
+     * @param humidity    습도 (값이 없으면 NaN)
+     */
+    public static int encodeTelemetry(byte[] dst, int offset, double temperature, double humidity, long timestampMillis) {
+        int position = writeHeader(dst, offset, TYPE_TELEMETRY);
+        position = writeShort(dst, position, toCenti(temperature));
+        position = writeShort(dst, position, toCenti(humidity));
+        position = writeLong(dst, position, timestampMillis);
+        return position - offset;
+    }
+
+    public static boolean isFrame(byte[] src) {
+        return src != null && src.length >= HEADER_LENGTH && src[0] == MAGIC;
+    }
+
+    /**
+     * 프레임 해석 (지원하지 않는 버전/타입이거나 길이가 맞지 않으면 false)
+     */
+    public static boolean decode(byte[] src, int offset, int length, Frame frame) {
+        if (length < HEADER_LENGTH || src[offset] != MAGIC || src[offset + 1] != VERSION) {
+            return false;
+        }
+        byte type = src[offset + 2];
+        int position = offset + HEADER_LENGTH;
+        switch (type) {
+            case TYPE_CAPTURE, TYPE_ACK -> {
+                if (length != CAPTURE_LENGTH) {
+                    return false;
+                }
+                frame.correlationMsb = readLong(src, position);
+                frame.correlationLsb = readLong(src, position + 8);
+                frame.timestampMillis = readLong(src, position + 16);
+                frame.temperature = Double.NaN;
+                frame.humidity = Double.NaN;
+            }
+            case TYPE_TELEMETRY -> {
+                if (length != TELEMETRY_LENGTH) {
+                    return false;
+                }
+                frame.correlationMsb = 0;
+                frame.correlationLsb = 0;
+                frame.temperature = fromCenti(readShort(src, position));
+                frame.humidity = fromCenti(readShort(src, position + 2));
+                frame.timestampMillis = readLong(src, position + 4);
+            }
+            default -> {
+                return false;
+            }
+        }
+        frame.type = type;
+        return true;
+    }
+
+    private static int encodeCorrelated(byte[] dst, int offset, byte type, CharSequence correlationId, long timestampMillis) {
+        int position = writeHeader(dst, offset, type);
+        position = writeLong(dst, position, parseUuidHalf(correlationId, 0));
+        position = writeLong(dst, position, parseUuidHalf(correlationId, 19));
+        position = writeLong(dst, position, timestampMillis);
+        return position - offset;
+    }
+
+    // 표준 UUID 문자열(8-4-4-4-12)의 앞(0~17)/뒤(19~35) 64비트를 하이픈을 건너뛰며 읽는다
+    private static long parseUuidHalf(CharSequence uuid, int from) {
+        if (uuid.length() != 36) {
+            throw new IllegalArgumentException("correlationId must be a canonical UUID");
+        }
+        int to = from == 0 ? 18 : 36;
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = uuid.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("correlationId must be a canonical UUID");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private static int writeHeader(byte[] dst, int offset, byte type) {
+        dst[offset] = MAGIC;
+        dst[offset + 1] = VERSION;
+        dst[offset + 2] = type;
+        return offset + HEADER_LENGTH;
+    }
+
+    private static int writeLong(byte[] dst, int position, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            dst[position++] = (byte) (value >>> shift);
+        }
+        return position;
+    }
+
+    private static int writeShort(byte[] dst, int position, short value) {
+        dst[position] = (byte) (value >>> 8);
+        dst[position + 1] = (byte) value;
+        return position + 2;
+    }
+
+    private static long readLong(byte[] src, int position) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (src[position + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static short readShort(byte[] src, int position) {
+        return (short) (((src[position] & 0xFF) << 8) | (src[position + 1] & 0xFF));
+    }
+
+    private static short toCenti(double value) {
+        if (Double.isNaN(value)) {
+            return ABSENT;
+        }
+        long centi = Math.round(value * 100);
+        return (short) Math.max(Short.MIN_VALUE + 1, Math.min(Short.MAX_VALUE, centi));
+    }
+
+    private static double fromCenti(short value) {
+        return value == ABSENT ? Double.NaN : value / 100.0;
+    }
+
+    /**
+     * 디코딩 결과를 담는 재사용 가능한 버퍼 (스레드마다 하나씩 사용)
+     */
+    public static final class Frame {
+        private byte type;
+        private long correlationMsb;
+        private long correlationLsb;
+        private long timestampMillis;
+        private double temperature;
+        private double humidity;
+
+        public byte getType() {
+            return type;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public double getTemperature() {
+            return temperature;
+        }
+
+        public double getHumidity() {
+            return humidity;
+        }
+
+        // 문자열이 필요할 때만 만든다 (호출마다 UUID/String 할당)
+        public String correlationId() {
+            return new UUID(correlationMsb, correlationLsb).toString();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.farmguardian.farmguardian.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 키용 Bloom filter (고정 크기, 스레드 안전, 삭제 불가)
+ *
+ * - 예상 개수(expectedInsertions)와 목표 오탐률(fpp)로 비트 수와 해시 개수를 정한다.
+ * - 키마다 64비트 해시 하나를 구해 상/하위 32비트를 조합(double hashing)해 k 개 위치를 만든다.
+ * - mightContain 이 false 면 확실히 없고, true 면 오탐일 수 있다.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicInteger insertions = new AtomicInteger();
+
+    public BloomFilter(int expectedInsertions, double fpp) {
+        if (expectedInsertions < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and fpp must be in (0, 1)");
+        }
+        long bits = optimalBits(expectedInsertions, fpp);
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashCount = optimalHashes(expectedInsertions, bitCount);
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            setBit(index(h1 + i * h2));
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = index(h1 + i * h2);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public int insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * 지금까지 넣은 개수 기준 예상 오탐률 (1 - e^(-kn/m))^k
+     */
+    public double expectedFpp() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+    }
+
+    private long index(int combined) {
+        // 음수면 비트를 뒤집어 양수로 (Guava 와 같은 방식)
+        return (combined < 0 ? ~combined : combined) % bitCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(word, current, current | mask));
+    }
+
+    // FNV-1a 64 후 murmur3 fmix64 로 비트를 섞는다
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    static long optimalBits(int expectedInsertions, double fpp) {
+        return Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+    }
+
+    static int optimalHashes(int expectedInsertions, long bits) {
+        return Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.farmguardian.farmguardian.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 키 → 노드 번호(0 ~ nodeCount-1) 를 고르는 Consistent Hash Ring
+ *
+ * 노드마다 virtualNodes 개의 점을 링 위에 뿌려 두고, 키의 해시보다 크거나 같은 첫 번째 점의 노드를 고른다.
+ * 노드 수가 바뀌어도 대부분의 키는 같은 노드에 남으므로, 디바이스별 메시지 순서와 연결 분산이 함께 유지된다.
+ * 생성 후에는 읽기 전용이라 여러 스레드에서 동시에 사용해도 안전하다.
+ */
+public class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] nodes;
+
+    public ConsistentHashRing(int nodeCount, int virtualNodes) {
+        if (nodeCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("nodeCount and virtualNodes must be positive");
+        }
+
+        int size = nodeCount * virtualNodes;
+        long[][] entries = new long[size][];
+        for (int node = 0; node < nodeCount; node++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                entries[node * virtualNodes + replica] = new long[]{hash(node + "#" + replica), node};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+        this.points = new long[size];
+        this.nodes = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            nodes[i] = (int) entries[i][1];
+        }
+    }
+
+    public int nodeFor(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return nodes[index == points.length ? 0 : index];
+    }
+
+    // FNV-1a 64bit + murmur3 finalizer (짧고 비슷한 UUID 끼리도 고르게 퍼지도록)
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
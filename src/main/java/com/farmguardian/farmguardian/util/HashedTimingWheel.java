@@ -0,0 +1,141 @@
+package com.farmguardian.farmguardian.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed Timing Wheel
+ * 수십만 개의 타이머를 타이머 스레드 하나로 관리하기 위한 자료구조.
+ * 만료 시각을 tick 단위로 나누어 고정 크기 버킷(wheel)에 해시하고, 한 바퀴 이상 남은 타이머는 남은 바퀴 수(rounds)로 구분한다.
+ *
+ * - schedule / cancel 은 어느 스레드에서든 호출할 수 있다. (lock-free 큐를 통해 전달)
+ * - advance 는 항상 같은 스레드(타이머 스레드)에서만 호출해야 한다.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final ArrayDeque<Timeout<T>>[] buckets;
+    private final Queue<Timeout<T>> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // 다음에 처리할 tick (타이머 스레드 전용)
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        int normalized = Integer.highestOneBit(Math.max(wheelSize, 1) * 2 - 1);
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = normalized - 1;
+        this.buckets = new ArrayDeque[normalized];
+        for (int i = 0; i < normalized; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis, size);
+        size.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * nowMillis 까지 지난 tick 을 모두 처리하고, 만료된 작업을 expiredHandler 로 넘긴다.
+     */
+    public void advance(long nowMillis, Consumer<T> expiredHandler) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        transferPendingTimeouts();
+
+        while (tick <= targetTick) {
+            ArrayDeque<Timeout<T>> bucket = buckets[(int) (tick & mask)];
+            for (int remaining = bucket.size(); remaining > 0; remaining--) {
+                Timeout<T> timeout = bucket.poll();
+                if (timeout.isCancelled()) {
+                    continue;
+                }
+                if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                    bucket.add(timeout);
+                    continue;
+                }
+                if (timeout.expire()) {
+                    expiredHandler.accept(timeout.task);
+                }
+            }
+            tick++;
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout<T> timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long deadlineTick = Math.max((timeout.deadlineMillis - startMillis) / tickMillis, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final T task;
+        private final long deadlineMillis;
+        private final AtomicInteger wheelSize;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        private long remainingRounds;
+
+        private Timeout(T task, long deadlineMillis, AtomicInteger wheelSize) {
+            this.task = task;
+            this.deadlineMillis = deadlineMillis;
+            this.wheelSize = wheelSize;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        // 버킷에서의 실제 제거는 타이머 스레드가 다음에 해당 버킷을 지날 때 이루어진다
+        public boolean cancel() {
+            if (state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                wheelSize.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean expire() {
+            if (state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                wheelSize.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
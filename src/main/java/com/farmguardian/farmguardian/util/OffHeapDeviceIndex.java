@@ -0,0 +1,334 @@
+package com.farmguardian.farmguardian.util;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 디바이스 UUID → (deviceId, ownerId, status, crop) 오프힙 해시 인덱스 (FFM MemorySegment, open addressing)
+ *
+ * 슬롯은 40바이트 고정 폭이다.
+ *   [0]  key msb (8)   [8]  key lsb (8)   [16] deviceId (8)   [24] ownerId (8, 없으면 0)
+ *   [32] state (1: 0 빈칸, 1 사용, 2 삭제)   [33] key 종류 (1)   [34] status (1)   [35] crop (1)   [36] 여백 (4)
+ * 키는 문자열 대신 128비트로 손실 없이 바꿔 저장한다.
+ * - 표준 UUID 문자열(8-4-4-4-12, 소문자) → msb/lsb
+ * - "mobile-user-{userId}" → 종류 MOBILE + userId
+ * 그 밖의 형식은 인덱싱하지 않는다 (호출자가 DB 로 조회).
+ *
+ * - 조회는 StampedLock 낙관적 읽기로 잠그지 않고, 쓰기(연결/해제/수정, 드묾)만 잠근다.
+ * - 사용 + 삭제 슬롯이 load-factor 를 넘으면 두 배 크기로 다시 만든다. 이전 세그먼트는 Arena.ofAuto() 라
+ *   읽던 스레드가 손을 뗀 뒤 GC 가 해제하므로, 낙관적 읽기 중에 메모리가 사라지지 않는다.
+ */
+public class OffHeapDeviceIndex {
+
+    public static final int NO_VALUE = -1;
+
+    private static final long SLOT_BYTES = 40;
+    private static final long MSB = 0;
+    private static final long LSB = 8;
+    private static final long DEVICE_ID = 16;
+    private static final long OWNER_ID = 24;
+    private static final long STATE = 32;
+    private static final long KIND = 33;
+    private static final long STATUS = 34;
+    private static final long CROP = 35;
+
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final byte DELETED = 2;
+
+    private static final byte KIND_UUID = 1;
+    private static final byte KIND_MOBILE = 2;
+    private static final String MOBILE_PREFIX = "mobile-user-";
+
+    private static final double LOAD_FACTOR = 0.7;
+
+    private final StampedLock lock = new StampedLock();
+    // 세그먼트와 capacity 를 함께 바꿔야 낙관적 읽기가 어긋난 쌍을 보지 않는다
+    private volatile Table table;
+    private int size;
+    private int deleted;
+
+    public OffHeapDeviceIndex(int initialCapacity) {
+        this.table = Table.allocate(Math.max(16, Integer.highestOneBit(Math.max(1, initialCapacity - 1)) << 1));
+    }
+
+    /**
+     * 조회 결과 (status/crop 은 enum ordinal, 값이 없으면 NO_VALUE. ownerId 는 없으면 0)
+     */
+    public record Entry(long deviceId, long ownerId, int status, int crop) {
+    }
+
+    /**
+     * @return 인덱싱할 수 없는 키 형식이면 false
+     */
+    public boolean put(String deviceUuid, long deviceId, long ownerId, int status, int crop) {
+        Key key = Key.of(deviceUuid);
+        if (key == null) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int capacity = table.capacity();
+            if (size + deleted + 1 > capacity * LOAD_FACTOR) {
+                resize(size + 1 > capacity * LOAD_FACTOR / 2 ? capacity << 1 : capacity);
+            }
+            MemorySegment segment = table.segment();
+            int mask = table.capacity() - 1;
+            int firstDeleted = -1;
+            for (int index = key.hash() & mask; ; index = (index + 1) & mask) {
+                long base = index * SLOT_BYTES;
+                byte state = segment.get(ValueLayout.JAVA_BYTE, base + STATE);
+                if (state == USED && key.matches(segment, base)) {
+                    writeValue(segment, base, deviceId, ownerId, status, crop);
+                    return true;
+                }
+                if (state == DELETED && firstDeleted < 0) {
+                    firstDeleted = index;
+                } else if (state == EMPTY) {
+                    int target = firstDeleted >= 0 ? firstDeleted : index;
+                    if (firstDeleted >= 0) {
+                        deleted--;
+                    }
+                    long targetBase = target * SLOT_BYTES;
+                    key.write(segment, targetBase);
+                    writeValue(segment, targetBase, deviceId, ownerId, status, crop);
+                    segment.set(ValueLayout.JAVA_BYTE, targetBase + STATE, USED);
+                    size++;
+                    return true;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return 없거나 인덱싱할 수 없는 키면 null
+     */
+    public Entry get(String deviceUuid) {
+        Key key = Key.of(deviceUuid);
+        if (key == null) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Entry entry = find(key);
+            if (lock.validate(stamp)) {
+                return entry;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean remove(String deviceUuid) {
+        Key key = Key.of(deviceUuid);
+        if (key == null) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            long base = locate(key);
+            if (base < 0) {
+                return false;
+            }
+            markDeleted(base);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * deviceId 로 삭제 (UUID 를 모를 때, 전체 슬롯을 훑으므로 드물게만 사용)
+     */
+    public boolean removeByDeviceId(long deviceId) {
+        long stamp = lock.writeLock();
+        try {
+            MemorySegment segment = table.segment();
+            for (int index = 0; index < table.capacity(); index++) {
+                long base = index * SLOT_BYTES;
+                if (segment.get(ValueLayout.JAVA_BYTE, base + STATE) == USED
+                        && segment.get(ValueLayout.JAVA_LONG, base + DEVICE_ID) == deviceId) {
+                    markDeleted(base);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int capacity() {
+        return table.capacity();
+    }
+
+    public long memoryBytes() {
+        return table.segment().byteSize();
+    }
+
+    private Entry find(Key key) {
+        Table current = table;
+        MemorySegment segment = current.segment();
+        int mask = current.capacity() - 1;
+        for (int probes = 0, index = key.hash() & mask; probes <= mask; probes++, index = (index + 1) & mask) {
+            long base = index * SLOT_BYTES;
+            byte state = segment.get(ValueLayout.JAVA_BYTE, base + STATE);
+            if (state == EMPTY) {
+                return null;
+            }
+            if (state == USED && key.matches(segment, base)) {
+                return new Entry(
+                        segment.get(ValueLayout.JAVA_LONG, base + DEVICE_ID),
+                        segment.get(ValueLayout.JAVA_LONG, base + OWNER_ID),
+                        segment.get(ValueLayout.JAVA_BYTE, base + STATUS),
+                        segment.get(ValueLayout.JAVA_BYTE, base + CROP));
+            }
+        }
+        return null;
+    }
+
+    // 쓰기 잠금 안에서만 호출 (없으면 -1)
+    private long locate(Key key) {
+        MemorySegment segment = table.segment();
+        int mask = table.capacity() - 1;
+        for (int probes = 0, index = key.hash() & mask; probes <= mask; probes++, index = (index + 1) & mask) {
+            long base = index * SLOT_BYTES;
+            byte state = segment.get(ValueLayout.JAVA_BYTE, base + STATE);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == USED && key.matches(segment, base)) {
+                return base;
+            }
+        }
+        return -1;
+    }
+
+    private void markDeleted(long base) {
+        table.segment().set(ValueLayout.JAVA_BYTE, base + STATE, DELETED);
+        size--;
+        deleted++;
+    }
+
+    // 삭제 슬롯을 걸러 내며 새 세그먼트로 옮긴다
+    private void resize(int newCapacity) {
+        MemorySegment from = table.segment();
+        int oldCapacity = table.capacity();
+        Table resized = Table.allocate(newCapacity);
+        MemorySegment to = resized.segment();
+        int mask = newCapacity - 1;
+        for (int index = 0; index < oldCapacity; index++) {
+            long base = index * SLOT_BYTES;
+            if (from.get(ValueLayout.JAVA_BYTE, base + STATE) != USED) {
+                continue;
+            }
+            int hash = Key.hash(from.get(ValueLayout.JAVA_LONG, base + MSB), from.get(ValueLayout.JAVA_LONG, base + LSB),
+                    from.get(ValueLayout.JAVA_BYTE, base + KIND));
+            int target = hash & mask;
+            while (to.get(ValueLayout.JAVA_BYTE, target * SLOT_BYTES + STATE) != EMPTY) {
+                target = (target + 1) & mask;
+            }
+            MemorySegment.copy(from, base, to, target * SLOT_BYTES, SLOT_BYTES);
+        }
+        table = resized;
+        deleted = 0;
+    }
+
+    private static void writeValue(MemorySegment segment, long base, long deviceId, long ownerId, int status, int crop) {
+        segment.set(ValueLayout.JAVA_LONG, base + DEVICE_ID, deviceId);
+        segment.set(ValueLayout.JAVA_LONG, base + OWNER_ID, ownerId);
+        segment.set(ValueLayout.JAVA_BYTE, base + STATUS, (byte) status);
+        segment.set(ValueLayout.JAVA_BYTE, base + CROP, (byte) crop);
+    }
+
+    private record Table(MemorySegment segment, int capacity) {
+
+        static Table allocate(int capacity) {
+            // 0 으로 초기화된 메모리 (모든 슬롯 EMPTY)
+            return new Table(Arena.ofAuto().allocate(capacity * SLOT_BYTES, Long.BYTES), capacity);
+        }
+    }
+
+    private record Key(long msb, long lsb, byte kind) {
+
+        static Key of(String deviceUuid) {
+            if (deviceUuid == null) {
+                return null;
+            }
+            if (deviceUuid.startsWith(MOBILE_PREFIX)) {
+                try {
+                    return new Key(0, Long.parseLong(deviceUuid, MOBILE_PREFIX.length(), deviceUuid.length(), 10), KIND_MOBILE);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            if (deviceUuid.length() != 36) {
+                return null;
+            }
+            long msb = 0;
+            long lsb = 0;
+            int digits = 0;
+            for (int i = 0; i < 36; i++) {
+                char c = deviceUuid.charAt(i);
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    if (c != '-') {
+                        return null;
+                    }
+                    continue;
+                }
+                // 대문자를 허용하면 서로 다른 문자열이 같은 키가 되므로 소문자만
+                int digit = (c >= '0' && c <= '9') ? c - '0' : (c >= 'a' && c <= 'f') ? c - 'a' + 10 : -1;
+                if (digit < 0) {
+                    return null;
+                }
+                if (digits++ < 16) {
+                    msb = (msb << 4) | digit;
+                } else {
+                    lsb = (lsb << 4) | digit;
+                }
+            }
+            return new Key(msb, lsb, KIND_UUID);
+        }
+
+        int hash() {
+            return hash(msb, lsb, kind);
+        }
+
+        static int hash(long msb, long lsb, byte kind) {
+            long h = msb * 0x9E3779B97F4A7C15L ^ lsb ^ kind;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+
+        boolean matches(MemorySegment segment, long base) {
+            return segment.get(ValueLayout.JAVA_LONG, base + LSB) == lsb
+                    && segment.get(ValueLayout.JAVA_LONG, base + MSB) == msb
+                    && segment.get(ValueLayout.JAVA_BYTE, base + KIND) == kind;
+        }
+
+        void write(MemorySegment segment, long base) {
+            segment.set(ValueLayout.JAVA_LONG, base + MSB, msb);
+            segment.set(ValueLayout.JAVA_LONG, base + LSB, lsb);
+            segment.set(ValueLayout.JAVA_BYTE, base + KIND, kind);
+        }
+    }
+}
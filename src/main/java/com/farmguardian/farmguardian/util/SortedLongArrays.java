@@ -0,0 +1,108 @@
+package com.farmguardian.farmguardian.util;
+
+import java.util.Arrays;
+
+/**
+ * 정렬된 long 배열을 불변 집합처럼 다루는 연산 (중복 없음)
+ *
+ * - 변경 연산은 원본을 건드리지 않고 새 배열을 돌려주므로, 배열을 공유한 채 잠금 없이 읽을 수 있다 (copy-on-write).
+ * - 사용자 한 명의 디바이스처럼 작은 집합용이다. 조회는 이진 탐색, 추가/삭제는 O(n) 복사다.
+ */
+public final class SortedLongArrays {
+
+    public static final long[] EMPTY = new long[0];
+
+    private SortedLongArrays() {
+    }
+
+    public static boolean contains(long[] values, long value) {
+        return values != null && Arrays.binarySearch(values, value) >= 0;
+    }
+
+    /**
+     * @return value 를 넣은 새 배열 (이미 있으면 원본)
+     */
+    public static long[] insert(long[] values, long value) {
+        if (values == null || values.length == 0) {
+            return new long[]{value};
+        }
+        int index = Arrays.binarySearch(values, value);
+        if (index >= 0) {
+            return values;
+        }
+        int insertAt = -index - 1;
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(values, insertAt, result, insertAt + 1, values.length - insertAt);
+        return result;
+    }
+
+    /**
+     * @return value 를 뺀 새 배열 (없으면 원본)
+     */
+    public static long[] remove(long[] values, long value) {
+        if (values == null) {
+            return EMPTY;
+        }
+        int index = Arrays.binarySearch(values, value);
+        if (index < 0) {
+            return values;
+        }
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, index);
+        System.arraycopy(values, index + 1, result, index, values.length - index - 1);
+        return result;
+    }
+
+    /**
+     * 정렬되지 않았거나 중복이 있는 값으로 집합 배열 생성
+     */
+    public static long[] of(long[] values, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        long[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        int distinct = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[distinct - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+    }
+
+    /**
+     * 두 집합의 합집합 (둘 중 하나가 비었으면 다른 쪽을 그대로 돌려준다)
+     */
+    public static long[] union(long[] left, long[] right) {
+        if (left == null || left.length == 0) {
+            return right == null ? EMPTY : right;
+        }
+        if (right == null || right.length == 0) {
+            return left;
+        }
+        long[] result = new long[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                result[n++] = left[i++];
+            } else if (left[i] > right[j]) {
+                result[n++] = right[j++];
+            } else {
+                result[n++] = left[i++];
+                j++;
+            }
+        }
+        while (i < left.length) {
+            result[n++] = left[i++];
+        }
+        while (j < right.length) {
+            result[n++] = right[j++];
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+}
@@ -0,0 +1,108 @@
+package com.farmguardian.farmguardian.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 키별 실패 횟수를 세는 시간 감쇠 카운터 (메모리 사용량 고정)
+ *
+ * - 키를 해시해 stripe 하나를 고르고, stripe 마다 따로 잠가 서로 다른 키의 갱신이 경합하지 않게 한다.
+ * - stripe 마다 최대 maxKeysPerStripe 개만 보관하고, 넘치면 가장 오래 접근하지 않은 키부터 버린다 (LRU).
+ * - 값은 halfLife 마다 절반으로 줄어들어, 오래된 실패는 자연스럽게 잊힌다 (감쇠는 기록 시점에 계산).
+ */
+public class StripedDecayingCounter {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final double decayPerMilli;
+
+    public StripedDecayingCounter(int stripeCount, int maxKeysPerStripe, long halfLifeMillis) {
+        if (stripeCount < 1 || maxKeysPerStripe < 1 || halfLifeMillis < 1) {
+            throw new IllegalArgumentException("stripeCount, maxKeysPerStripe and halfLifeMillis must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        size = Math.max(1, size);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+        this.mask = size - 1;
+        this.decayPerMilli = Math.log(2) / halfLifeMillis;
+    }
+
+    /**
+     * 실패 1회 기록 (기존 값은 마지막 기록 이후 흐른 시간만큼 감쇠)
+     * @return 기록 후의 값
+     */
+    public double record(String key, long nowMillis) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                stripe.entries.put(key, entry);
+            }
+            entry.score = decay(entry.score, nowMillis - entry.lastEventMillis) + 1;
+            entry.lastEventMillis = nowMillis;
+            return entry.score;
+        }
+    }
+
+    /**
+     * 마지막 기록 시점의 값과 시각 (기록이 없으면 null)
+     */
+    public Snapshot get(String key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            return entry != null ? new Snapshot(entry.score, entry.lastEventMillis) : null;
+        }
+    }
+
+    public void reset(String key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.entries.remove(key);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private double decay(double score, long elapsedMillis) {
+        return elapsedMillis <= 0 ? score : score * Math.exp(-decayPerMilli * elapsedMillis);
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    public record Snapshot(double score, long lastEventMillis) {
+    }
+
+    private static final class Entry {
+        private double score;
+        private long lastEventMillis;
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<String, Entry> entries;
+
+        Stripe(int maxKeys) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.farmguardian.farmguardian.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 크기 제한이 있는 LRU 캐시 (메모리 사용량 고정)
+ *
+ * - 키를 해시해 stripe 하나를 고르고, stripe 마다 따로 잠가 서로 다른 키의 조회/저장이 경합하지 않게 한다.
+ * - stripe 마다 최대 ceil(maxSize / stripe 수) 개만 보관하고, 넘치면 가장 오래 접근하지 않은 항목부터 버린다.
+ *   가득 차도 새 항목은 항상 저장되며, 비우는 비용은 버리는 항목 하나뿐이다.
+ */
+public class StripedLruCache<K, V> {
+
+    private final Stripe<K, V>[] stripes;
+    private final int mask;
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public StripedLruCache(int stripeCount, int maxSize) {
+        if (stripeCount < 1 || maxSize < 1) {
+            throw new IllegalArgumentException("stripeCount and maxSize must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        size = Math.max(1, size);
+        int maxPerStripe = Math.max(1, (maxSize + size - 1) / size);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe<>(maxPerStripe, evictions);
+        }
+        this.mask = size - 1;
+    }
+
+    public V get(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.entries.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.entries.put(key, value);
+        }
+    }
+
+    public void remove(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.entries.remove(key);
+        }
+    }
+
+    /**
+     * 저장된 값이 value 일 때만 제거 (그 사이 다시 저장된 항목은 남긴다)
+     */
+    public void remove(K key, V value) {
+        Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.entries.remove(key, value);
+        }
+    }
+
+    /**
+     * 조건에 맞는 값 제거 (stripe 하나씩 잠그므로 전체를 한 번에 막지 않는다)
+     */
+    public void removeIf(Predicate<? super V> filter) {
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.entries.values().removeIf(filter);
+            }
+        }
+    }
+
+    public void clear() {
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.entries.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 크기 제한으로 버린 항목 수 (누적)
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Stripe<K, V> stripeFor(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static final class Stripe<K, V> {
+        private final LinkedHashMap<K, V> entries;
+
+        Stripe(int maxEntries, LongAdder evictions) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > maxEntries) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
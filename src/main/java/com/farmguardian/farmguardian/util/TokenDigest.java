@@ -0,0 +1,39 @@
+package com.farmguardian.farmguardian.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 토큰 원문 대신 보관/조회에 쓰는 SHA-256 다이제스트 (32바이트)
+ * 맵 키로 쓸 수 있도록 4개의 long 으로 들고 있으며, DB 에는 toBytes() 로 저장한다.
+ */
+public record TokenDigest(long w0, long w1, long w2, long w3) {
+
+    public static final int LENGTH = 32;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    public static TokenDigest of(String token) {
+        return of(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    public static TokenDigest of(byte[] digest) {
+        if (digest.length != LENGTH) {
+            throw new IllegalArgumentException("digest must be " + LENGTH + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        return new TokenDigest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(LENGTH).putLong(w0).putLong(w1).putLong(w2).putLong(w3).array();
+    }
+}
@@ -0,0 +1,31 @@
+package com.farmguardian.farmguardian.config;
+
+import io.moquette.broker.Server;
+import io.moquette.broker.config.MemoryConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * 테스트/부하 측정용 내장 MQTT 브로커 (Moquette, 메모리 저장소)
+ * mqtt-embedded 프로필과 함께 @Import 해서 사용한다. 브로커 빈은 MQTT 클라이언트가 연결(Lifecycle start)하기 전에 만들어진다.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedMqttBrokerConfig {
+
+    @Bean(destroyMethod = "stopServer")
+    public Server embeddedMqttBroker(@Value("${mqtt.embedded.port}") int port) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("host", "127.0.0.1");
+        properties.setProperty("port", String.valueOf(port));
+        properties.setProperty("allow_anonymous", "true");
+        properties.setProperty("persistence_enabled", "false");
+
+        Server server = new Server();
+        server.startServer(new MemoryConfig(properties));
+        return server;
+    }
+}
@@ -0,0 +1,66 @@
+package com.farmguardian.farmguardian.config.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtKeyStoreTest {
+
+    @TempDir
+    Path keysDir;
+
+    @Test
+    @DisplayName("활성화 대기 시간이 지난 키 중 kid 가 가장 큰 키로 서명하고, 공개키는 모두 검증에 쓴다")
+    void load_PicksNewestActivatedKey() throws Exception {
+        writeKeyPair("2026-09", Instant.now().minusSeconds(3_600));
+        writeKeyPair("2026-10", Instant.now().minusSeconds(3_600));
+        writeKeyPair("2026-11", Instant.now());
+
+        JwtKeyStore keyStore = new JwtKeyStore(keysDir.toString(), 600_000);
+
+        assertThat(keyStore.getSigningKeyId()).isEqualTo("2026-10");
+        assertThat(keyStore.getVerificationKeys()).containsOnlyKeys("2026-09", "2026-10", "2026-11");
+    }
+
+    @Test
+    @DisplayName("개인키를 지운 키는 서명에서 빠지고 공개키가 남아 있으면 계속 검증한다")
+    void reload_RetiresRemovedPrivateKey() throws Exception {
+        writeKeyPair("2026-09", Instant.now().minusSeconds(3_600));
+        writeKeyPair("2026-10", Instant.now().minusSeconds(3_600));
+        JwtKeyStore keyStore = new JwtKeyStore(keysDir.toString(), 600_000);
+
+        Files.delete(keysDir.resolve("2026-10.key"));
+        keyStore.reload();
+
+        assertThat(keyStore.getSigningKeyId()).isEqualTo("2026-09");
+        assertThat(keyStore.getVerificationKey("2026-10")).isNotNull();
+    }
+
+    private void writeKeyPair(String kid, Instant modifiedAt) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+
+        Path privateKey = keysDir.resolve(kid + ".key");
+        Files.writeString(privateKey, pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        Files.setLastModifiedTime(privateKey, FileTime.from(modifiedAt));
+        Files.writeString(keysDir.resolve(kid + ".pub"), pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+}
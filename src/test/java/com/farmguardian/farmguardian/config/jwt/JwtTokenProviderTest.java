@@ -0,0 +1,110 @@
+package com.farmguardian.farmguardian.config.jwt;
+
+import com.farmguardian.farmguardian.config.auth.UserDetailsImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "TestJwtSecretKeyForFarmGuardianTestSuite00000000";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtTokenProvider provider = new JwtTokenProvider(SECRET, 1_800_000, 604_800_000,
+            new VerifiedTokenCache(meterRegistry, true, 100), new JwtKeyStore("", 0));
+
+    @Test
+    @DisplayName("유효한 토큰은 한 번의 파싱으로 인증 정보를 만든다")
+    void authenticate_ValidToken() {
+        String token = provider.createAccessToken("farmer@example.com", "USER", 7L);
+
+        Authentication authentication = provider.authenticate(token);
+
+        assertThat(authentication).isNotNull();
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        assertThat(principal.getEmail()).isEqualTo("farmer@example.com");
+        assertThat(principal.getUserId()).isEqualTo(7L);
+        assertThat(principal.getTokenId()).isNotNull();
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("같은 토큰의 두 번째 인증은 캐시에서 처리된다")
+    void authenticate_RepeatedTokenHitsCache() {
+        String token = provider.createAccessToken("farmer@example.com", "USER", 7L);
+
+        provider.authenticate(token);
+        Authentication cached = provider.authenticate(token);
+
+        assertThat(((UserDetailsImpl) cached.getPrincipal()).getUserId()).isEqualTo(7L);
+        assertThat(meterRegistry.get("jwt.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("서명이 변조된 토큰은 인증하지 않는다")
+    void authenticate_TamperedToken() {
+        String token = provider.createAccessToken("farmer@example.com", "USER", 7L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(provider.authenticate(tampered)).isNull();
+        assertThat(provider.authenticate("not-a-jwt")).isNull();
+    }
+
+    @Test
+    @DisplayName("만료된 토큰은 인증하지 않는다")
+    void authenticate_ExpiredTokenIsRejected() {
+        JwtTokenProvider shortLived = new JwtTokenProvider(SECRET, -1_000, 604_800_000,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), true, 100), new JwtKeyStore("", 0));
+        String token = shortLived.createAccessToken("farmer@example.com", "USER", 7L);
+
+        assertThat(shortLived.authenticate(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("토큰 헤더에 서명 키의 kid 가 들어간다")
+    void createAccessToken_HasKid() {
+        String token = provider.createAccessToken("farmer@example.com", "USER", 7L);
+
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+
+        assertThat(header).contains("\"kid\"").contains("\"ES256\"");
+    }
+
+    @Test
+    @DisplayName("다른 키 모음에서 발급한 토큰(모르는 kid)은 인증하지 않는다")
+    void authenticate_UnknownKidIsRejected() {
+        JwtTokenProvider other = new JwtTokenProvider(SECRET, 1_800_000, 604_800_000,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), true, 100), new JwtKeyStore("", 0));
+        String token = other.createAccessToken("farmer@example.com", "USER", 7L);
+
+        assertThat(provider.authenticate(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("kid 없는 이전 HS256 토큰은 jwt.secret 이 있을 때만 인증한다")
+    void authenticate_LegacyHs256Token() {
+        String legacyToken = Jwts.builder()
+                .setSubject("farmer@example.com")
+                .claim("role", "USER")
+                .claim("userId", 7L)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        JwtTokenProvider withoutSecret = new JwtTokenProvider("", 1_800_000, 604_800_000,
+                new VerifiedTokenCache(new SimpleMeterRegistry(), true, 100), new JwtKeyStore("", 0));
+
+        assertThat(provider.authenticate(legacyToken)).isNotNull();
+        assertThat(withoutSecret.authenticate(legacyToken)).isNull();
+    }
+}
@@ -0,0 +1,39 @@
+package com.farmguardian.farmguardian.config.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenFilterTest {
+
+    private static final long ACCESS_TOKEN_EXPIRATION = 1_800_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RevokedTokenFilter filter = new RevokedTokenFilter(meterRegistry, ACCESS_TOKEN_EXPIRATION, 4, 1_000, 0.001);
+
+    @Test
+    @DisplayName("폐기한 jti 는 같은 만료 시각으로 조회하면 걸린다")
+    void mightBeRevoked_AddedToken() {
+        long expiresAt = System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION;
+
+        filter.add("revoked-jti", expiresAt);
+
+        assertThat(filter.mightBeRevoked("revoked-jti", expiresAt)).isTrue();
+        assertThat(filter.mightBeRevoked("active-jti", expiresAt)).isFalse();
+        assertThat(meterRegistry.get("jwt.revocation.filter.entries").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("만료 구간이 지난 파티션은 비워진다")
+    void evictExpired_DropsPastPartitions() {
+        long expiredAt = System.currentTimeMillis() - ACCESS_TOKEN_EXPIRATION;
+        filter.add("old-jti", expiredAt);
+
+        filter.evictExpired();
+
+        assertThat(filter.mightBeRevoked("old-jti", expiredAt)).isFalse();
+        assertThat(meterRegistry.get("jwt.revocation.filter.bytes").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,180 @@
+package com.farmguardian.farmguardian.controller;
+
+import tools.jackson.databind.ObjectMapper;
+import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.Role;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.domain.User;
+import com.farmguardian.farmguardian.dto.request.SignInRequestDto;
+import com.farmguardian.farmguardian.dto.request.SignUpRequestDto;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.RefreshTokenRepository;
+import com.farmguardian.farmguardian.repository.UserRepository;
+import com.farmguardian.farmguardian.service.PasswordHashingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("local")
+@Transactional
+class AdminDeviceControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    private String adminAccessToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        deviceRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+
+        // 관리자는 가입 API 가 아니라 DB 로 만든다
+        userRepository.save(new User("admin@example.com", passwordHashingService.encode("password123"), Role.ADMIN));
+        adminAccessToken = signIn("admin@example.com");
+
+        // 이미 등록된 디바이스
+        deviceRepository.save(Device.builder().deviceUuid("existing-001").build());
+    }
+
+    @Test
+    @DisplayName("CSV 일괄 등록 - 중복과 잘못된 행을 빼고 등록한다")
+    void importCsv_Success() throws Exception {
+        String csv = """
+                device_uuid,target_crop,latitude,longitude
+                import-001,POTATO,37.5665,126.9780
+                import-002,,,
+                existing-001
+                import-001
+                import-003,APPLE
+                import-004,,37.5
+                """;
+
+        mockMvc.perform(post("/api/admin/devices/import")
+                        .header("Authorization", "Bearer " + adminAccessToken)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.read").value(6))
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.duplicates").value(2))
+                .andExpect(jsonPath("$.invalid").value(2))
+                .andExpect(jsonPath("$.errors[0].line").value(6))
+                .andExpect(jsonPath("$.errors[1].line").value(7));
+
+        Device imported = deviceRepository.findByDeviceUuid("import-001").orElseThrow();
+        assertThat(imported.getStatus()).isEqualTo(DeviceStatus.AVAILABLE);
+        assertThat(imported.getTargetCrop()).isEqualTo(TargetCrop.POTATO);
+        assertThat(imported.getLatitude()).isEqualByComparingTo(new BigDecimal("37.5665"));
+        assertThat(deviceRepository.findByDeviceUuid("import-002")).isPresent();
+    }
+
+    @Test
+    @DisplayName("NDJSON 일괄 등록 성공")
+    void importNdjson_Success() throws Exception {
+        String ndjson = """
+                {"deviceUuid": "ndjson-001", "targetCrop": "CORN"}
+                {"deviceUuid": "ndjson-002", "latitude": 37.5, "longitude": 127.0}
+                not-json
+                """;
+
+        mockMvc.perform(post("/api/admin/devices/import")
+                        .header("Authorization", "Bearer " + adminAccessToken)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.invalid").value(1));
+
+        assertThat(deviceRepository.findByDeviceUuid("ndjson-001").orElseThrow().getTargetCrop()).isEqualTo(TargetCrop.CORN);
+    }
+
+    @Test
+    @DisplayName("관리자가 아니면 403")
+    void import_ForbiddenForUser() throws Exception {
+        SignUpRequestDto signUpRequest = new SignUpRequestDto();
+        signUpRequest.setEmail("user@example.com");
+        signUpRequest.setPassword("password123");
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signUpRequest)));
+
+        mockMvc.perform(post("/api/admin/devices/import")
+                        .header("Authorization", "Bearer " + signIn("user@example.com"))
+                        .contentType("text/csv")
+                        .content("import-001"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("운영 엔드포인트는 관리자만 조회하고, health 는 인증 없이 조회한다")
+    void actuator_AdminOnly() throws Exception {
+        SignUpRequestDto signUpRequest = new SignUpRequestDto();
+        signUpRequest.setEmail("user@example.com");
+        signUpRequest.setPassword("password123");
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signUpRequest)));
+        String userAccessToken = signIn("user@example.com");
+
+        mockMvc.perform(get("/actuator/fleet")
+                        .header("Authorization", "Bearer " + userAccessToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics")
+                        .header("Authorization", "Bearer " + userAccessToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/fleet")
+                        .header("Authorization", "Bearer " + adminAccessToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    private String signIn(String email) throws Exception {
+        SignInRequestDto signInRequest = new SignInRequestDto();
+        signInRequest.setEmail(email);
+        signInRequest.setPassword("password123");
+        signInRequest.setClientUuid("test-client-uuid");
+
+        MvcResult result = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("accessToken").asText();
+    }
+}
@@ -0,0 +1,57 @@
+package com.farmguardian.farmguardian.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로드밸런서(신뢰하는 프록시) 뒤의 클라이언트 IP 별 로그인 제한
+ * X-Forwarded-For 는 Tomcat RemoteIpValve 가 처리하므로 MockMvc 대신 실제 서버로 요청한다.
+ * 없는 이메일로만 로그인하므로 DB 는 바뀌지 않는다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "auth.login-throttle.ip-delay-after=3",
+        "auth.login-throttle.ip-lockout-after=3"
+})
+@ActiveProfiles("local")
+class AuthControllerForwardedIpIntegrationTest {
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("같은 프록시 뒤의 두 클라이언트는 IP 실패 횟수를 따로 센다")
+    void signIn_ThrottlesPerForwardedClientIp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(signIn("client-a-" + i + "@example.com", "203.0.113.10")).isEqualTo(404);
+        }
+        // 같은 클라이언트는 이메일을 바꿔도 잠긴다
+        assertThat(signIn("client-a-3@example.com", "203.0.113.10")).isEqualTo(429);
+
+        // 프록시(루프백) 주소가 아니라 실제 클라이언트 IP 로 세므로 다른 클라이언트는 영향이 없다
+        assertThat(signIn("client-b-0@example.com", "203.0.113.20")).isEqualTo(404);
+    }
+
+    private int signIn(String email, String forwardedFor) throws Exception {
+        String body = """
+                {"email": "%s", "password": "password123", "clientUuid": "test-client-uuid"}
+                """.formatted(email);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -1,11 +1,17 @@
 package com.farmguardian.farmguardian.controller;
 
 import tools.jackson.databind.ObjectMapper;
+import com.farmguardian.farmguardian.domain.RefreshToken;
+import com.farmguardian.farmguardian.domain.Role;
+import com.farmguardian.farmguardian.domain.User;
+import com.farmguardian.farmguardian.dto.request.RefreshTokenRequestDto;
 import com.farmguardian.farmguardian.dto.request.SignInRequestDto;
 import com.farmguardian.farmguardian.dto.request.SignOutRequestDto;
 import com.farmguardian.farmguardian.dto.request.SignUpRequestDto;
 import com.farmguardian.farmguardian.repository.RefreshTokenRepository;
+import com.farmguardian.farmguardian.repository.RevokedAccessTokenRepository;
 import com.farmguardian.farmguardian.repository.UserRepository;
+import com.farmguardian.farmguardian.util.TokenDigest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,11 +19,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -39,6 +49,12 @@ class AuthControllerIntegrationTest {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
     @BeforeEach
     void setUp() {
         refreshTokenRepository.deleteAll();
@@ -87,6 +103,30 @@ class AuthControllerIntegrationTest {
                 .andExpect(jsonPath("$.refreshToken").exists());
     }
 
+    @Test
+    @DisplayName("로그인 성공 - 설정보다 낮은 cost 로 저장된 비밀번호는 다시 해시한다")
+    void signIn_RehashesWeakPassword() throws Exception {
+        // given - cost 4 로 저장된 사용자
+        userRepository.save(new User("rehash@example.com", new BCryptPasswordEncoder(4).encode("password123"), Role.USER));
+
+        SignInRequestDto signInRequest = new SignInRequestDto();
+        signInRequest.setEmail("rehash@example.com");
+        signInRequest.setPassword("password123");
+        signInRequest.setClientUuid("test-client-uuid");
+
+        // when
+        mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andExpect(status().isOk());
+
+        // then
+        String stored = userRepository.findByEmail("rehash@example.com").orElseThrow().getPassword();
+        assertThat(stored).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches("password123", stored)).isTrue();
+        assertThat(refreshTokenRepository.findAll()).hasSize(1);
+    }
+
     @Test
     @DisplayName("로그아웃 성공")
     void signOut_Success() throws Exception {
@@ -126,6 +166,53 @@ class AuthControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("로그아웃하면 사용한 액세스 토큰이 폐기 목록에 오른다")
+    void signOut_RevokesAccessToken() throws Exception {
+        // given - 회원가입 및 로그인
+        SignUpRequestDto signUpRequest = new SignUpRequestDto();
+        signUpRequest.setEmail("test@example.com");
+        signUpRequest.setPassword("password123");
+
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signUpRequest)));
+
+        SignInRequestDto signInRequest = new SignInRequestDto();
+        signInRequest.setEmail("test@example.com");
+        signInRequest.setPassword("password123");
+        signInRequest.setClientUuid("test-client-uuid");
+
+        MvcResult signInResult = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andReturn();
+
+        String responseBody = signInResult.getResponse().getContentAsString();
+        String accessToken = objectMapper.readTree(responseBody).get("accessToken").asText();
+        String refreshToken = objectMapper.readTree(responseBody).get("refreshToken").asText();
+
+        SignOutRequestDto signOutRequest = new SignOutRequestDto();
+        signOutRequest.setRefreshToken(refreshToken);
+        signOutRequest.setClientUuid("test-client-uuid");
+
+        // when
+        mockMvc.perform(post("/api/auth/signout")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signOutRequest)))
+                .andExpect(status().isOk());
+
+        // then
+        Long userId = userRepository.findByEmail("test@example.com").orElseThrow().getId();
+        assertThat(revokedAccessTokenRepository.findAll())
+                .singleElement()
+                .satisfies(revoked -> {
+                    assertThat(revoked.getUserId()).isEqualTo(userId);
+                    assertThat(revoked.getJti()).hasSize(36);
+                });
+    }
+
     @Test
     @DisplayName("회원탈퇴 성공")
     void withdraw_Success() throws Exception {
@@ -156,4 +243,121 @@ class AuthControllerIntegrationTest {
                         .header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    @DisplayName("토큰 갱신 성공 - 리프레시 토큰은 다이제스트로만 저장된다")
+    void refresh_Success() throws Exception {
+        // given
+        SignUpRequestDto signUpRequest = new SignUpRequestDto();
+        signUpRequest.setEmail("test@example.com");
+        signUpRequest.setPassword("password123");
+
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signUpRequest)));
+
+        SignInRequestDto signInRequest = new SignInRequestDto();
+        signInRequest.setEmail("test@example.com");
+        signInRequest.setPassword("password123");
+        signInRequest.setClientUuid("test-client-uuid");
+
+        MvcResult signInResult = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andReturn();
+        String refreshToken = objectMapper.readTree(signInResult.getResponse().getContentAsString())
+                .get("refreshToken").asText();
+
+        // when
+        RefreshTokenRequestDto refreshRequest = new RefreshTokenRequestDto();
+        refreshRequest.setRefreshToken(refreshToken);
+        refreshRequest.setClientUuid("test-client-uuid");
+
+        MvcResult refreshResult = mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").exists())
+                .andReturn();
+        String rotatedToken = objectMapper.readTree(refreshResult.getResponse().getContentAsString())
+                .get("refreshToken").asText();
+
+        // then
+        List<RefreshToken> stored = refreshTokenRepository.findAll();
+        assertThat(stored).hasSize(1);
+        assertThat(stored.get(0).getTokenHash()).isEqualTo(TokenDigest.of(rotatedToken).toBytes());
+        assertThat(stored.get(0).getExpiresAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("토큰 갱신 실패 - 다른 기기(clientUuid)의 요청")
+    void refresh_ClientUuidMismatch() throws Exception {
+        // given
+        SignUpRequestDto signUpRequest = new SignUpRequestDto();
+        signUpRequest.setEmail("test@example.com");
+        signUpRequest.setPassword("password123");
+
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signUpRequest)));
+
+        SignInRequestDto signInRequest = new SignInRequestDto();
+        signInRequest.setEmail("test@example.com");
+        signInRequest.setPassword("password123");
+        signInRequest.setClientUuid("test-client-uuid");
+
+        MvcResult signInResult = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andReturn();
+        String refreshToken = objectMapper.readTree(signInResult.getResponse().getContentAsString())
+                .get("refreshToken").asText();
+
+        // when & then
+        RefreshTokenRequestDto refreshRequest = new RefreshTokenRequestDto();
+        refreshRequest.setRefreshToken(refreshToken);
+        refreshRequest.setClientUuid("other-client-uuid");
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("로그인 실패가 누적되면 비밀번호가 맞아도 잠시 거절")
+    void signIn_ThrottledAfterRepeatedFailures() throws Exception {
+        // given - 다른 테스트와 실패 기록이 섞이지 않도록 별도 이메일 사용
+        SignUpRequestDto signUpRequest = new SignUpRequestDto();
+        signUpRequest.setEmail("throttle@example.com");
+        signUpRequest.setPassword("password123");
+
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signUpRequest)));
+
+        SignInRequestDto wrongRequest = new SignInRequestDto();
+        wrongRequest.setEmail("throttle@example.com");
+        wrongRequest.setPassword("wrong-password");
+        wrongRequest.setClientUuid("test-client-uuid");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/auth/signin")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(wrongRequest)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // when & then
+        SignInRequestDto signInRequest = new SignInRequestDto();
+        signInRequest.setEmail("throttle@example.com");
+        signInRequest.setPassword("password123");
+        signInRequest.setClientUuid("test-client-uuid");
+
+        mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.code").value("AUTH_010"));
+    }
 }
@@ -1,13 +1,18 @@
 package com.farmguardian.farmguardian.controller;
 
 import tools.jackson.databind.ObjectMapper;
+import com.farmguardian.farmguardian.config.jwt.JwtTokenProvider;
 import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.Role;
 import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.domain.User;
 import com.farmguardian.farmguardian.dto.request.DeviceConnectRequestDto;
 import com.farmguardian.farmguardian.dto.request.DeviceUpdateRequestDto;
 import com.farmguardian.farmguardian.dto.request.SignInRequestDto;
 import com.farmguardian.farmguardian.dto.request.SignUpRequestDto;
 import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.DeviceRepository.DeviceIndexView;
 import com.farmguardian.farmguardian.repository.RefreshTokenRepository;
 import com.farmguardian.farmguardian.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,12 +22,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -48,6 +64,12 @@ class DeviceControllerIntegrationTest {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String accessToken;
 
     @BeforeEach
@@ -105,6 +127,105 @@ class DeviceControllerIntegrationTest {
                 .andExpect(jsonPath("$.deviceUuid").value("device-001"));
     }
 
+    @Test
+    @DisplayName("이미 연결된 디바이스를 다시 연결하면 409, 없는 디바이스는 404")
+    void connectDevice_AlreadyConnectedOrNotFound() throws Exception {
+        // given
+        DeviceConnectRequestDto request = new DeviceConnectRequestDto();
+        request.setDeviceUuid("device-001");
+        request.setTargetCrop(TargetCrop.POTATO);
+
+        mockMvc.perform(post("/api/devices/connect")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.targetCrop").value("POTATO"));
+
+        // when & then
+        mockMvc.perform(post("/api/devices/connect")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("DEVICE_002"));
+
+        request.setDeviceUuid("device-unknown");
+        mockMvc.perform(post("/api/devices/connect")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("DEVICE_001"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("같은 AVAILABLE 디바이스에 여러 사용자가 동시에 연결하면 한 요청만 성공하고 나머지는 409 (DEVICE_002)")
+    void connectDevice_ConcurrentClaimsHaveSingleWinner() throws Exception {
+        // 요청마다 별도 트랜잭션이 커밋되어야 하므로 테스트 트랜잭션 없이 실행하고, 만든 행은 끝나면 직접 지운다
+        int requests = 8;
+        List<Long> userIds = new ArrayList<>();
+        userIds.add(userRepository.findByEmail("test@example.com").orElseThrow().getId());
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<String> tokens = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                User user = userRepository.save(new User("claimer" + i + "@example.com", "password", Role.USER));
+                userIds.add(user.getId());
+                tokens.add(jwtTokenProvider.createAccessToken(user.getEmail(), Role.USER.name(), user.getId()));
+            }
+
+            DeviceConnectRequestDto request = new DeviceConnectRequestDto();
+            request.setDeviceUuid("device-001");
+            request.setTargetCrop(TargetCrop.POTATO);
+            String body = objectMapper.writeValueAsString(request);
+
+            // when
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<MvcResult>> futures = new ArrayList<>();
+            for (String token : tokens) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/devices/connect")
+                                    .header("Authorization", "Bearer " + token)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn();
+                }));
+            }
+            start.countDown();
+
+            // then
+            Long winnerId = null;
+            List<String> rejectedCodes = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                MvcResult result = futures.get(i).get(30, TimeUnit.SECONDS);
+                if (result.getResponse().getStatus() == 200) {
+                    assertThat(winnerId).isNull();
+                    winnerId = userIds.get(i + 1);
+                } else {
+                    assertThat(result.getResponse().getStatus()).isEqualTo(409);
+                    rejectedCodes.add(objectMapper.readTree(result.getResponse().getContentAsString()).get("code").asText());
+                }
+            }
+            assertThat(winnerId).isNotNull();
+            assertThat(rejectedCodes).hasSize(requests - 1).containsOnly("DEVICE_002");
+
+            DeviceIndexView device = deviceRepository.findIndexViewByDeviceUuid("device-001").orElseThrow();
+            assertThat(device.getStatus()).isEqualTo(DeviceStatus.CONNECTED);
+            assertThat(device.getUserId()).isEqualTo(winnerId);
+        } finally {
+            executor.shutdownNow();
+            for (Long userId : userIds) {
+                jdbcTemplate.update("DELETE FROM refresh_tokens WHERE user_id = ?", userId);
+                jdbcTemplate.update("DELETE FROM devices WHERE user_id = ?", userId);
+                jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", userId);
+            }
+            jdbcTemplate.update("DELETE FROM devices WHERE device_uuid = ?", "device-001");
+        }
+    }
+
     @Test
     @DisplayName("내 디바이스 목록 조회 성공")
     void getMyDevices_Success() throws Exception {
@@ -133,7 +254,47 @@ class DeviceControllerIntegrationTest {
         mockMvc.perform(get("/api/devices/available")
                         .header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.devices").isArray())
+                .andExpect(jsonPath("$.devices[0].deviceUuid").value("device-001"));
+    }
+
+    @Test
+    @DisplayName("연결 가능한 디바이스 목록은 cursor 로 이어서 조회한다")
+    void getAvailableDevices_CursorPaging() throws Exception {
+        // given - AVAILABLE 디바이스 3대 (device-001 포함)
+        deviceRepository.save(Device.builder().deviceUuid("device-002").build());
+        deviceRepository.save(Device.builder().deviceUuid("device-003").build());
+
+        // when & then
+        MvcResult firstPage = mockMvc.perform(get("/api/devices/available").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.devices.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+        long nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asLong();
+
+        mockMvc.perform(get("/api/devices/available")
+                        .param("size", "2")
+                        .param("cursor", String.valueOf(nextCursor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.devices.length()").value(1))
+                .andExpect(jsonPath("$.devices[0].deviceUuid").value("device-003"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("화이트리스트가 바뀌지 않았으면 If-None-Match 에 304")
+    void getAvailableDevices_NotModified() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/devices/available"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = result.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/devices/available")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
     }
 
     @Test
@@ -220,4 +381,72 @@ class DeviceControllerIntegrationTest {
                         .header("Authorization", "Bearer " + accessToken))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    @DisplayName("소유권 인덱스에 없는 연결(다른 인스턴스의 연결 유실 등)도 DB 로 확인해 허용")
+    void getDeviceById_IndexMissFallsBackToDb() throws Exception {
+        // given - 연결 API(grant)를 거치지 않고 DB 에만 연결
+        User user = userRepository.findByEmail("test@example.com").orElseThrow();
+        Device device = Device.builder().deviceUuid("device-direct").build();
+        device.connectToUser(user, "직접 연결", TargetCrop.CORN, null, null);
+        Long deviceId = deviceRepository.save(device).getId();
+
+        // when & then
+        mockMvc.perform(get("/api/devices/" + deviceId)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deviceUuid").value("device-direct"));
+    }
+
+    @Test
+    @DisplayName("다른 사용자의 디바이스 조회/수정/해제 시 403")
+    void otherUsersDevice_Forbidden() throws Exception {
+        // given - test@example.com 이 디바이스 연결
+        DeviceConnectRequestDto request = new DeviceConnectRequestDto();
+        request.setDeviceUuid("device-001");
+        request.setTargetCrop(TargetCrop.POTATO);
+        request.setLatitude(new BigDecimal("37.5665"));
+        request.setLongitude(new BigDecimal("126.9780"));
+
+        MvcResult connectResult = mockMvc.perform(post("/api/devices/connect")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+        Long deviceId = objectMapper.readTree(connectResult.getResponse().getContentAsString()).get("id").asLong();
+
+        // 다른 사용자 가입 및 로그인
+        SignUpRequestDto signUpRequest = new SignUpRequestDto();
+        signUpRequest.setEmail("other@example.com");
+        signUpRequest.setPassword("password123");
+        mockMvc.perform(post("/api/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(signUpRequest)));
+
+        SignInRequestDto signInRequest = new SignInRequestDto();
+        signInRequest.setEmail("other@example.com");
+        signInRequest.setPassword("password123");
+        signInRequest.setClientUuid("other-client-uuid");
+        MvcResult signInResult = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signInRequest)))
+                .andReturn();
+        String otherAccessToken = objectMapper.readTree(signInResult.getResponse().getContentAsString())
+                .get("accessToken").asText();
+
+        // when & then
+        mockMvc.perform(get("/api/devices/" + deviceId)
+                        .header("Authorization", "Bearer " + otherAccessToken))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value("DEVICE_003"));
+
+        mockMvc.perform(delete("/api/devices/" + deviceId)
+                        .header("Authorization", "Bearer " + otherAccessToken))
+                .andExpect(status().isForbidden());
+
+        // 소유자는 그대로 조회 가능
+        mockMvc.perform(get("/api/devices/" + deviceId)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+    }
 }
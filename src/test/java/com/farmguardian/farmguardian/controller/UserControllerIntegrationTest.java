@@ -1,18 +1,35 @@
 package com.farmguardian.farmguardian.controller;
 
+import tools.jackson.databind.ObjectMapper;
+import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.domain.Role;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.domain.User;
+import com.farmguardian.farmguardian.dto.request.FleetCaptureRequestDto;
+import com.farmguardian.farmguardian.gateway.MqttGateway;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.UserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// 일괄 촬영 지연 전송이 테스트 안에 끝나도록 window 를 줄인다
+@SpringBootTest(properties = "capture.fleet.max-stagger-window-millis=200")
 @AutoConfigureMockMvc
 @ActiveProfiles("local")
 @Transactional
@@ -21,6 +38,18 @@ class UserControllerIntegrationTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @MockitoBean
+    private MqttGateway mqttGateway;
+
     @Test
     @DisplayName("홈 엔드포인트 접근 성공")
     void home_Success() throws Exception {
@@ -28,4 +57,40 @@ class UserControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Welcome to API!"));
     }
+
+    @Test
+    @DisplayName("일괄 촬영 - 첫 디바이스는 바로 보내고 나머지는 window 안에 나눠 보내며, 소유하지 않은 디바이스는 거절")
+    void requestFleetCapture_StaggersWithinWindow() throws Exception {
+        // given
+        User user = userRepository.save(new User("fleet@example.com", "password", Role.USER));
+        Long first = connectedDevice(user);
+        Long second = connectedDevice(user);
+        Long third = connectedDevice(user);
+        Long foreign = deviceRepository.save(Device.builder().build()).getId();
+
+        FleetCaptureRequestDto request = new FleetCaptureRequestDto();
+        request.setDeviceIds(List.of(first, second, third, foreign));
+        request.setStaggerMillis(60000L);
+
+        // when & then
+        mockMvc.perform(post("/api/users/" + user.getId() + "/devices/capture")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(4))
+                .andExpect(jsonPath("$.sent").value(1))
+                .andExpect(jsonPath("$.scheduled").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[3].deviceId").value(foreign.intValue()))
+                .andExpect(jsonPath("$.results[3].status").value("REJECTED"));
+
+        // 요청한 간격(60초 × 2)이 아니라 200ms window 안에 모두 발행된다
+        verify(mqttGateway, timeout(5000).times(3)).sendToDevice(anyString(), anyString(), anyString(), anyString());
+    }
+
+    private Long connectedDevice(User user) {
+        Device device = Device.builder().build();
+        device.connectToUser(user, null, TargetCrop.POTATO, null, null);
+        return deviceRepository.save(device).getId();
+    }
 }
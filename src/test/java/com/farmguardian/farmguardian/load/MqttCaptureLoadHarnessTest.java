@@ -0,0 +1,153 @@
+package com.farmguardian.farmguardian.load;
+
+import com.farmguardian.farmguardian.config.EmbeddedMqttBrokerConfig;
+import com.farmguardian.farmguardian.service.MqttService;
+import com.hivemq.client.mqtt.MqttClient;
+import com.hivemq.client.mqtt.datatypes.MqttQos;
+import com.hivemq.client.mqtt.mqtt3.Mqtt3AsyncClient;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 촬영 명령 발행/구독 부하 측정 (./gradlew loadTest, 기본 test 태스크에서는 제외)
+ *
+ * 내장 브로커에 디바이스 수만큼 클라이언트를 붙여 각자 cmd/capture/{uuid} 를 구독시킨 뒤,
+ * MqttService 로 전체에 촬영 명령을 보내 발행 처리량, 전달 지연 백분위, 힙 사용량을 단계별로 출력한다.
+ * 단계(디바이스 수)는 -PfleetSizes=500,1000,2000 으로 바꿀 수 있다.
+ * 브로커와 디바이스 클라이언트가 같은 JVM 에 있으므로 힙 수치는 서버 단독 값보다 크게 나온다 (단계 간 증가량을 비교한다).
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles({"local", "mqtt-embedded"})
+@Import(EmbeddedMqttBrokerConfig.class)
+@DisplayName("MQTT 촬영 명령 부하 측정")
+class MqttCaptureLoadHarnessTest {
+
+    private static final int CONNECT_BATCH_SIZE = 200;
+    private static final long DELIVERY_TIMEOUT_SECONDS = 60;
+
+    @Autowired
+    private MqttService mqttService;
+
+    @Value("${mqtt.embedded.port}")
+    private int brokerPort;
+
+    @Value("${load.fleet-sizes:500,1000,2000}")
+    private String fleetSizes;
+
+    @Test
+    @DisplayName("디바이스 수를 늘려가며 발행 처리량과 전달 지연을 측정한다")
+    void captureFanOut() throws Exception {
+        List<String> rows = new ArrayList<>();
+        rows.add(String.format("%8s %14s %9s %9s %9s %9s %10s",
+                "devices", "publish msg/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "heap MB"));
+
+        for (String size : fleetSizes.split(",")) {
+            rows.add(runRound(Integer.parseInt(size.trim())));
+        }
+
+        log.info("MQTT capture load result\n{}", String.join("\n", rows));
+    }
+
+    private String runRound(int fleetSize) throws Exception {
+        Map<String, Long> sentAtNanos = new ConcurrentHashMap<>(fleetSize * 2);
+        long[] latencies = new long[fleetSize];
+        AtomicInteger receivedCount = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(fleetSize);
+
+        List<String> deviceUuids = new ArrayList<>(fleetSize);
+        List<Mqtt3AsyncClient> devices = new ArrayList<>(fleetSize);
+        try {
+            for (int from = 0; from < fleetSize; from += CONNECT_BATCH_SIZE) {
+                List<CompletableFuture<?>> batch = new ArrayList<>();
+                for (int i = from; i < Math.min(fleetSize, from + CONNECT_BATCH_SIZE); i++) {
+                    String deviceUuid = UUID.randomUUID().toString();
+                    Mqtt3AsyncClient device = MqttClient.builder()
+                            .useMqttVersion3()
+                            .identifier("load-" + deviceUuid)
+                            .serverHost("127.0.0.1")
+                            .serverPort(brokerPort)
+                            .buildAsync();
+                    deviceUuids.add(deviceUuid);
+                    devices.add(device);
+                    batch.add(device.connect().thenCompose(connAck -> device.subscribeWith()
+                            .topicFilter("cmd/capture/" + deviceUuid)
+                            .qos(MqttQos.AT_LEAST_ONCE)
+                            .callback(publish -> {
+                                Long sentAt = sentAtNanos.get(deviceUuid);
+                                int index = receivedCount.getAndIncrement();
+                                if (sentAt != null && index < fleetSize) {
+                                    latencies[index] = System.nanoTime() - sentAt;
+                                }
+                                delivered.countDown();
+                            })
+                            .send()));
+                }
+                CompletableFuture.allOf(batch.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+            }
+
+            long start = System.nanoTime();
+            for (String deviceUuid : deviceUuids) {
+                sentAtNanos.put(deviceUuid, System.nanoTime());
+                mqttService.sendScheduledCapture(deviceUuid);
+            }
+            long publishNanos = System.nanoTime() - start;
+
+            boolean completed = delivered.await(DELIVERY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            long heapUsedBytes = usedHeapAfterGc();
+            assertThat(completed)
+                    .as("%d devices, only %d commands delivered", fleetSize, receivedCount.get())
+                    .isTrue();
+
+            Arrays.sort(latencies);
+            return String.format("%8d %14.0f %9.1f %9.1f %9.1f %9.1f %10.1f",
+                    fleetSize,
+                    fleetSize / (publishNanos / 1e9),
+                    percentileMillis(latencies, 0.50),
+                    percentileMillis(latencies, 0.95),
+                    percentileMillis(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1e6,
+                    heapUsedBytes / (1024.0 * 1024.0));
+        } finally {
+            List<CompletableFuture<?>> disconnects = new ArrayList<>();
+            for (Mqtt3AsyncClient device : devices) {
+                disconnects.add(device.disconnect().exceptionally(e -> null));
+            }
+            CompletableFuture.allOf(disconnects.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,120 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.repository.CaptureScheduleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 촬영 빈도 조절 정책 단위 테스트 (배율 갱신 쿼리는 목 저장소로 대신한다)
+ * 기준 1개, boost 2.0, 최대 8.0, decay 0.5, 최소 주기 5분, 예산 분당 100건
+ */
+class AdaptiveCapturePolicyTest {
+
+    private static final long DEVICE_ID = 10L;
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+    private final CaptureScheduleRepository captureScheduleRepository = mock(CaptureScheduleRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("배율만큼 주기를 줄이되 최소 주기 아래로는 내리지 않고, 1.0 미만 배율은 기본 주기로 본다")
+    void effectiveIntervalMillis_AppliesMultiplier() {
+        AdaptiveCapturePolicy policy = newPolicy(true, 0);
+
+        assertThat(policy.effectiveIntervalMillis(HOUR, 1.0)).isEqualTo(HOUR);
+        assertThat(policy.effectiveIntervalMillis(HOUR, 4.0)).isEqualTo(15 * MINUTE);
+        assertThat(policy.effectiveIntervalMillis(HOUR, 8.0)).isEqualTo(7 * MINUTE + 30_000);
+        assertThat(policy.effectiveIntervalMillis(HOUR, 20.0)).isEqualTo(5 * MINUTE);
+        assertThat(policy.effectiveIntervalMillis(HOUR, 0.5)).isEqualTo(HOUR);
+        // 기본 주기가 최소 주기보다 짧으면 기본 주기를 유지한다
+        assertThat(policy.effectiveIntervalMillis(3 * MINUTE, 4.0)).isEqualTo(3 * MINUTE);
+    }
+
+    @Test
+    @DisplayName("꺼져 있으면 배율/예산과 관계없이 기본 주기를 쓰고 배율도 갱신하지 않는다")
+    void disabled_KeepsBaseInterval() {
+        AdaptiveCapturePolicy policy = newPolicy(false, 100);
+
+        policy.updateBudget(1000, 1.0);
+        policy.recordAnalysis(DEVICE_ID, 5);
+
+        assertThat(policy.effectiveIntervalMillis(HOUR, 8.0)).isEqualTo(HOUR);
+        assertThat(policy.getBudgetScale()).isEqualTo(1.0);
+        verify(captureScheduleRepository, never()).boostRateMultiplier(anyLong(), anyDouble(), anyDouble(), any());
+    }
+
+    @Test
+    @DisplayName("수요가 인스턴스 몫의 예산을 넘으면 그 비율만큼 주기를 늘리고, 수요가 줄면 되돌린다")
+    void updateBudget_ScalesToLocalShare() {
+        AdaptiveCapturePolicy policy = newPolicy(true, 100);
+
+        // 파티션 절반 → 분당 50건 예산, 수요 200건 → 0.25
+        policy.updateBudget(200, 0.5);
+        assertThat(policy.getBudgetScale()).isEqualTo(0.25);
+        assertThat(meterRegistry.get("capture.adaptive.demand").gauge().value()).isEqualTo(200);
+        // 예산 축소는 기본 주기보다 길어질 수 있다
+        assertThat(policy.effectiveIntervalMillis(10 * MINUTE, 1.0)).isEqualTo(40 * MINUTE);
+        assertThat(policy.effectiveIntervalMillis(HOUR, 8.0)).isEqualTo(30 * MINUTE);
+
+        policy.updateBudget(40, 0.5);
+        assertThat(policy.getBudgetScale()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("capture.adaptive.budget.scale").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("예산이 0 이면 수요와 관계없이 제한하지 않는다")
+    void updateBudget_UnlimitedWhenZero() {
+        AdaptiveCapturePolicy policy = newPolicy(true, 0);
+
+        policy.updateBudget(10_000, 1.0);
+
+        assertThat(policy.getBudgetScale()).isEqualTo(1.0);
+        assertThat(policy.effectiveIntervalMillis(HOUR, 1.0)).isEqualTo(HOUR);
+    }
+
+    @Test
+    @DisplayName("해충이 기준 이상이면 boost, 아니면 decay 로 배율을 갱신하고 실제로 바뀐 경우만 센다")
+    void recordAnalysis_BoostsOrDecays() {
+        AdaptiveCapturePolicy policy = newPolicy(true, 0);
+        when(captureScheduleRepository.boostRateMultiplier(eq(DEVICE_ID), eq(2.0), eq(8.0), any())).thenReturn(1, 0);
+        when(captureScheduleRepository.decayRateMultiplier(eq(DEVICE_ID), eq(0.5), eq(0.01), any())).thenReturn(1);
+
+        policy.recordAnalysis(DEVICE_ID, 1);
+        // 이미 최대 배율 → 갱신된 행 없음
+        policy.recordAnalysis(DEVICE_ID, 3);
+        policy.recordAnalysis(DEVICE_ID, 0);
+
+        assertThat(meterRegistry.get("capture.adaptive.boosted").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("capture.adaptive.decayed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("배율 갱신이 실패해도 예외를 던지지 않는다")
+    void recordAnalysis_SwallowsFailure() {
+        AdaptiveCapturePolicy policy = newPolicy(true, 0);
+        when(captureScheduleRepository.boostRateMultiplier(anyLong(), anyDouble(), anyDouble(), any()))
+                .thenThrow(new IllegalStateException("db down"));
+
+        policy.recordAnalysis(DEVICE_ID, 1);
+
+        assertThat(meterRegistry.get("capture.adaptive.boosted").counter().count()).isZero();
+    }
+
+    private AdaptiveCapturePolicy newPolicy(boolean enabled, double budgetPerMinute) {
+        return new AdaptiveCapturePolicy(captureScheduleRepository, meterRegistry, enabled, 1, 2.0, 8.0, 0.5, 5, budgetPerMinute);
+    }
+}
@@ -0,0 +1,152 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.config.NodeIdentity;
+import com.farmguardian.farmguardian.gateway.MqttGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CacheInvalidationBusTest {
+
+    private final MqttGateway mqttGateway = mock(MqttGateway.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("트랜잭션 밖 무효화는 바로 로컬에 반영하고, 중복을 제거해 한 메시지로 발행한다")
+    void flush_PublishesDeduplicatedBatch() {
+        CacheInvalidationBus bus = newBus(100, 1000);
+        List<String> evicted = new ArrayList<>();
+        bus.register(CacheInvalidationBus.DEVICE, evicted::add, () -> evicted.add(CacheInvalidationBus.ALL));
+
+        bus.invalidate(CacheInvalidationBus.DEVICE, 1L);
+        bus.invalidate(CacheInvalidationBus.DEVICE, 1L);
+        bus.invalidate(CacheInvalidationBus.DEVICE_OWNERSHIP, 2L);
+        assertThat(evicted).containsExactly("1", "1");
+
+        bus.flush(1_000);
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(mqttGateway).sendToMqtt(eq(CacheInvalidationBus.TOPIC), payload.capture());
+        assertThat(payload.getValue().split("\n"))
+                .containsExactly("node-a 1000", "device\t1", "deviceOwnership\t2");
+        assertThat(meterRegistry.get("cache.invalidation.published").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.invalidation.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스의 메시지만 반영하고 자기가 보낸 메시지는 무시한다")
+    void onMessage_IgnoresSelfEcho() {
+        CacheInvalidationBus bus = newBus(100, 1000);
+        List<String> evicted = new ArrayList<>();
+        bus.register(CacheInvalidationBus.DEVICE, evicted::add, () -> evicted.add(CacheInvalidationBus.ALL));
+
+        bus.onMessage("node-a 1000\ndevice\t1".getBytes(StandardCharsets.UTF_8));
+        assertThat(evicted).isEmpty();
+
+        bus.onMessage("node-b 1000\ndevice\t2\ndevice\t3".getBytes(StandardCharsets.UTF_8));
+        assertThat(evicted).containsExactly("2", "3");
+        assertThat(meterRegistry.get("cache.invalidation.received").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("발행에 실패하면 키를 버리지 않고 백오프 후 같은 순서로 다시 보낸다")
+    void flush_RetriesFailedBatchAfterBackoff() {
+        CacheInvalidationBus bus = newBus(100, 400);
+        doThrow(new IllegalStateException("broker down"))
+                .doThrow(new IllegalStateException("broker down"))
+                .doNothing()
+                .when(mqttGateway).sendToMqtt(anyString(), anyString());
+
+        bus.invalidate(CacheInvalidationBus.DEVICE, 1L);
+        bus.invalidate(CacheInvalidationBus.DEVICE_OWNERSHIP, 7L);
+
+        bus.flush(1_000);   // 실패 → 100ms 후 재시도
+        assertThat(meterRegistry.get("cache.invalidation.pending").gauge().value()).isEqualTo(2);
+
+        bus.flush(1_050);   // 백오프 중 (발행하지 않음)
+        verify(mqttGateway, times(1)).sendToMqtt(anyString(), anyString());
+
+        bus.flush(1_100);   // 두 번째 실패 → 200ms 후 재시도
+        bus.invalidate(CacheInvalidationBus.DEVICE, 2L);
+        bus.flush(1_250);
+        verify(mqttGateway, times(2)).sendToMqtt(anyString(), anyString());
+
+        bus.flush(1_300);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(mqttGateway, times(3)).sendToMqtt(eq(CacheInvalidationBus.TOPIC), payload.capture());
+        assertThat(payload.getValue().split("\n"))
+                .containsExactly("node-a 1300", "device\t1", "deviceOwnership\t7", "device\t2");
+        assertThat(meterRegistry.get("cache.invalidation.failed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.invalidation.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("원격 전파를 끄면 로컬에만 반영한다")
+    void invalidate_LocalOnlyWhenRemoteDisabled() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(mqttGateway, new NodeIdentity("node-a"), meterRegistry,
+                false, 200, 10000, 100, 1000);
+        List<String> evicted = new ArrayList<>();
+        bus.register(CacheInvalidationBus.DEVICE, evicted::add, () -> evicted.add(CacheInvalidationBus.ALL));
+
+        bus.invalidate(CacheInvalidationBus.DEVICE, 1L);
+        bus.flush(1_000);
+
+        assertThat(evicted).containsExactly("1");
+        verify(mqttGateway, never()).sendToMqtt(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("밀린 키가 max-pending 을 넘으면 캐시별 전체 무효화 하나로 바꾸고, 받는 쪽은 캐시 전체를 다시 맞춘다")
+    void flush_CollapsesBacklogToFullEviction() {
+        CacheInvalidationBus bus = new CacheInvalidationBus(mqttGateway, new NodeIdentity("node-a"), meterRegistry,
+                true, 200, 3, 100, 1000);
+        doThrow(new IllegalStateException("broker down"))
+                .doNothing()
+                .when(mqttGateway).sendToMqtt(anyString(), anyString());
+
+        bus.invalidate(CacheInvalidationBus.DEVICE, 1L);
+        bus.invalidate(CacheInvalidationBus.DEVICE_OWNERSHIP, 7L);
+        bus.flush(1_000);   // 실패 → 두 키를 되돌린다
+        bus.invalidate(CacheInvalidationBus.DEVICE, 1L);   // 이미 대기 중인 키는 한 번만
+        bus.invalidate(CacheInvalidationBus.DEVICE, 2L);
+        assertThat(meterRegistry.get("cache.invalidation.pending").gauge().value()).isEqualTo(3);
+
+        bus.invalidate(CacheInvalidationBus.DEVICE, 3L);   // 상한 초과 → 캐시별 전체 무효화
+        bus.invalidate(CacheInvalidationBus.DEVICE, 4L);   // 전체 무효화가 예정돼 있으면 더 모으지 않는다
+        assertThat(meterRegistry.get("cache.invalidation.pending").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.invalidation.overflow").counter().count()).isEqualTo(1);
+
+        bus.flush(1_100);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(mqttGateway, times(2)).sendToMqtt(eq(CacheInvalidationBus.TOPIC), payload.capture());
+        assertThat(payload.getValue().split("\n"))
+                .containsExactly("node-a 1100", "device\t*", "deviceOwnership\t*");
+
+        // 받는 쪽: 키별 evictor 대신 전체 evictor 를 부른다
+        CacheInvalidationBus receiver = new CacheInvalidationBus(mqttGateway, new NodeIdentity("node-b"), meterRegistry,
+                true, 200, 10000, 100, 1000);
+        List<String> evicted = new ArrayList<>();
+        receiver.register(CacheInvalidationBus.DEVICE, evicted::add, () -> evicted.add("all"));
+        receiver.onMessage(payload.getValue().getBytes(StandardCharsets.UTF_8));
+        assertThat(evicted).containsExactly("all");
+    }
+
+    private CacheInvalidationBus newBus(long flushMillis, long maxBackoffMillis) {
+        return new CacheInvalidationBus(mqttGateway, new NodeIdentity("node-a"), meterRegistry,
+                true, 200, 10000, flushMillis, maxBackoffMillis);
+    }
+}
@@ -0,0 +1,138 @@
+package com.farmguardian.farmguardian.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.mqtt.event.MqttMessageDeliveredEvent;
+import org.springframework.integration.mqtt.event.MqttMessageSentEvent;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 촬영 명령 추적 단위 테스트 (브로커 이벤트는 목 객체로 만든다)
+ */
+class CaptureCommandTrackerTest {
+
+    private static final String CLIENT_ID = "farmguardian-out";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CaptureCommandTracker tracker = new CaptureCommandTracker(meterRegistry, 600, 100);
+
+    @Test
+    @DisplayName("명령을 보낸 디바이스의 ack 만 기록한다")
+    void onAcknowledged_IgnoresOtherDevices() {
+        String correlationId = tracker.register("device-a");
+
+        tracker.onAcknowledged("device-b", correlationId);
+        assertThat(latencyCount("ack")).isZero();
+
+        tracker.onAcknowledged("device-a", correlationId);
+        tracker.onAcknowledged("device-a", correlationId);
+        assertThat(latencyCount("ack")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("correlationId 가 없는 ack/업로드는 해당 디바이스의 가장 최근 명령으로 매칭한다")
+    void onAcknowledged_FallsBackToLatestCommand() {
+        tracker.register("device-a");
+        String latest = tracker.register("device-a");
+
+        tracker.onAcknowledged("device-a", null);
+        tracker.onAcknowledged("device-b", null);
+
+        assertThat(latencyCount("ack")).isEqualTo(1);
+        assertThat(tracker.onUpload("device-a", null)).isEqualTo(latest);
+        assertThat(tracker.onUpload("device-b", latest)).isNull();
+    }
+
+    @Test
+    @DisplayName("발행 이벤트 뒤에 전달 완료가 오면 broker 단계를 기록한다")
+    void brokerStage_SentThenDelivered() {
+        String correlationId = tracker.register("device-a");
+
+        tracker.onApplicationEvent(sent(correlationId, 7));
+        assertThat(latencyCount("broker")).isZero();
+        tracker.onApplicationEvent(delivered(7));
+
+        assertThat(latencyCount("broker")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("전달 완료가 발행 이벤트보다 먼저 와도 broker 단계를 기록한다")
+    void brokerStage_DeliveredBeforeSent() {
+        String correlationId = tracker.register("device-a");
+
+        tracker.onApplicationEvent(delivered(8));
+        tracker.onApplicationEvent(sent(correlationId, 8));
+
+        assertThat(latencyCount("broker")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("추적하지 않는 메시지의 먼저 온 전달 완료는 이후 같은 messageId 의 명령에 잘못 매칭되지 않는다")
+    void brokerStage_UntrackedEarlyDeliveryIsDiscarded() {
+        tracker.onApplicationEvent(delivered(9));
+        tracker.onApplicationEvent(sent(null, 9));
+
+        String correlationId = tracker.register("device-a");
+        tracker.onApplicationEvent(sent(correlationId, 9));
+
+        assertThat(latencyCount("broker")).isZero();
+    }
+
+    @Test
+    @DisplayName("완료된 명령은 더 기록하지 않고 pending 에서 빠진다")
+    void complete_RemovesCommand() {
+        String correlationId = tracker.register("device-a");
+        assertThat(tracker.onUpload("device-a", correlationId)).isEqualTo(correlationId);
+
+        tracker.complete(correlationId);
+
+        assertThat(tracker.isPending(correlationId)).isFalse();
+        assertThat(tracker.onUpload("device-a", null)).isNull();
+        tracker.onAcknowledged("device-a", correlationId);
+        assertThat(latencyCount("ack")).isZero();
+        assertThat(meterRegistry.get("capture.tracking.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("제한 시간이 지난 명령은 마지막 단계별로 만료 처리한다")
+    void expireTimedOut_CountsByLastStage() {
+        CaptureCommandTracker expiring = new CaptureCommandTracker(meterRegistry, 0, 100);
+        String correlationId = expiring.register("device-a");
+        expiring.onAcknowledged("device-a", correlationId);
+
+        expiring.expireTimedOut();
+
+        assertThat(expiring.isPending(correlationId)).isFalse();
+        assertThat(meterRegistry.get("capture.tracking.expired").tag("stage", "ack").counter().count()).isEqualTo(1);
+    }
+
+    private double latencyCount(String stage) {
+        return meterRegistry.get("capture.latency").tag("stage", stage).timer().count();
+    }
+
+    private static MqttMessageSentEvent sent(String correlationId, int messageId) {
+        MessageBuilder<String> builder = MessageBuilder.withPayload("capture");
+        if (correlationId != null) {
+            builder.setHeader(CaptureCommandTracker.CORRELATION_ID, correlationId);
+        }
+        Message<String> message = builder.build();
+        MqttMessageSentEvent event = mock(MqttMessageSentEvent.class);
+        when(event.getMessage()).thenAnswer(invocation -> message);
+        when(event.getClientId()).thenReturn(CLIENT_ID);
+        when(event.getMessageId()).thenReturn(messageId);
+        return event;
+    }
+
+    private static MqttMessageDeliveredEvent delivered(int messageId) {
+        MqttMessageDeliveredEvent event = mock(MqttMessageDeliveredEvent.class);
+        when(event.getClientId()).thenReturn(CLIENT_ID);
+        when(event.getMessageId()).thenReturn(messageId);
+        return event;
+    }
+}
@@ -0,0 +1,181 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.dto.response.CaptureCommandResponseDto;
+import com.farmguardian.farmguardian.dto.response.FleetCaptureResponseDto.DispatchStatus;
+import com.farmguardian.farmguardian.exception.device.UnauthorizedDeviceAccessException;
+import com.farmguardian.farmguardian.exception.mqtt.MqttSendFailedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 촬영 요청 합치기 단위 테스트 (발행/명령 추적은 목 객체로 대신한다)
+ */
+class CaptureRequestCoalescerTest {
+
+    private static final long USER_ID = 1L;
+    private static final long DEVICE_ID = 10L;
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final MqttService mqttService = mock(MqttService.class);
+    private final CaptureCommandTracker captureCommandTracker = mock(CaptureCommandTracker.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("진행 중인 명령이 있으면 새로 발행하지 않고 이전 correlationId 를 돌려준다")
+    void requestCapture_CoalescesPendingCommand() {
+        CaptureRequestCoalescer coalescer = newCoalescer(30);
+        when(mqttService.requestCapture(USER_ID, DEVICE_ID)).thenReturn(response("corr-1"));
+        when(captureCommandTracker.isPending("corr-1")).thenReturn(true);
+
+        CaptureCommandResponseDto first = coalescer.requestCapture(USER_ID, DEVICE_ID);
+        CaptureCommandResponseDto second = coalescer.requestCapture(USER_ID, DEVICE_ID);
+
+        assertThat(first.isCoalesced()).isFalse();
+        assertThat(second.isCoalesced()).isTrue();
+        assertThat(second.getCorrelationId()).isEqualTo("corr-1");
+        verify(mqttService, times(1)).requestCapture(USER_ID, DEVICE_ID);
+        verify(mqttService, times(1)).checkCaptureAllowed(USER_ID, DEVICE_ID);
+        assertThat(meterRegistry.get("capture.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("합쳐지는 요청도 소유권을 확인하고, 통과하지 못하면 이전 명령을 돌려주지 않는다")
+    void requestCapture_ChecksOwnershipBeforeJoining() {
+        CaptureRequestCoalescer coalescer = newCoalescer(30);
+        when(mqttService.requestCapture(USER_ID, DEVICE_ID)).thenReturn(response("corr-1"));
+        when(captureCommandTracker.isPending("corr-1")).thenReturn(true);
+        coalescer.requestCapture(USER_ID, DEVICE_ID);
+
+        // 연결 해제 후
+        doThrow(new UnauthorizedDeviceAccessException()).when(mqttService).checkCaptureAllowed(USER_ID, DEVICE_ID);
+
+        assertThatThrownBy(() -> coalescer.requestCapture(USER_ID, DEVICE_ID))
+                .isInstanceOf(UnauthorizedDeviceAccessException.class);
+        assertThat(meterRegistry.get("capture.coalesced").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("window 가 지났거나 분석이 끝난 명령에는 합치지 않고 새로 발행한다")
+    void requestCapture_PublishesAgainAfterExpiryOrCompletion() {
+        when(mqttService.requestCapture(USER_ID, DEVICE_ID)).thenReturn(response("corr-1"), response("corr-2"), response("corr-3"));
+        when(captureCommandTracker.isPending(anyString())).thenReturn(true);
+
+        // window 0초 → 발행 직후 만료
+        CaptureRequestCoalescer expiring = newCoalescer(0);
+        expiring.requestCapture(USER_ID, DEVICE_ID);
+        assertThat(expiring.requestCapture(USER_ID, DEVICE_ID).getCorrelationId()).isEqualTo("corr-2");
+
+        // 분석까지 끝난 명령
+        CaptureRequestCoalescer completed = newCoalescer(30);
+        when(captureCommandTracker.isPending("corr-3")).thenReturn(false);
+        completed.requestCapture(USER_ID, DEVICE_ID);
+        when(mqttService.requestCapture(USER_ID, DEVICE_ID)).thenReturn(response("corr-4"));
+        assertThat(completed.requestCapture(USER_ID, DEVICE_ID).getCorrelationId()).isEqualTo("corr-4");
+
+        assertThat(meterRegistry.get("capture.coalesced").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 사용자의 요청은 합치지 않고 원래 경로로 보낸다")
+    void requestCapture_DoesNotCoalesceOtherUsers() {
+        CaptureRequestCoalescer coalescer = newCoalescer(30);
+        when(mqttService.requestCapture(USER_ID, DEVICE_ID)).thenReturn(response("corr-1"));
+        when(mqttService.requestCapture(2L, DEVICE_ID)).thenThrow(new UnauthorizedDeviceAccessException());
+        when(captureCommandTracker.isPending("corr-1")).thenReturn(true);
+        coalescer.requestCapture(USER_ID, DEVICE_ID);
+
+        assertThatThrownBy(() -> coalescer.requestCapture(2L, DEVICE_ID))
+                .isInstanceOf(UnauthorizedDeviceAccessException.class);
+    }
+
+    @Test
+    @DisplayName("발행이 실패하면 기다리던 요청도 같은 예외를 받고, 다음 요청은 새로 발행한다")
+    void requestCapture_PropagatesFailureToJoiners() throws Exception {
+        CaptureRequestCoalescer coalescer = newCoalescer(30);
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mqttService.requestCapture(USER_ID, DEVICE_ID)).thenAnswer(invocation -> {
+            publishing.countDown();
+            assertThat(release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+            throw new MqttSendFailedException("MQTT 메시지 전송 실패");
+        }).thenReturn(response("corr-2"));
+        when(captureCommandTracker.isPending("corr-2")).thenReturn(true);
+
+        CompletableFuture<CaptureCommandResponseDto> first =
+                CompletableFuture.supplyAsync(() -> coalescer.requestCapture(USER_ID, DEVICE_ID));
+        assertThat(publishing.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        // 두 번째 요청이 진행 중인 명령을 기다리기 시작한 뒤에 실패시킨다
+        AtomicReference<Throwable> joinerFailure = new AtomicReference<>();
+        Thread joiner = new Thread(() -> {
+            try {
+                coalescer.requestCapture(USER_ID, DEVICE_ID);
+            } catch (RuntimeException e) {
+                joinerFailure.set(e);
+            }
+        });
+        joiner.start();
+        awaitTrue(() -> joiner.getState() == Thread.State.WAITING);
+        release.countDown();
+        joiner.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+
+        assertThatThrownBy(() -> first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(MqttSendFailedException.class);
+        assertThat(joinerFailure.get()).isInstanceOf(MqttSendFailedException.class);
+        assertThat(meterRegistry.get("capture.coalesce.inflight").gauge().value()).isZero();
+
+        assertThat(coalescer.requestCapture(USER_ID, DEVICE_ID).getCorrelationId()).isEqualTo("corr-2");
+        verify(mqttService, times(2)).requestCapture(USER_ID, DEVICE_ID);
+    }
+
+    @Test
+    @DisplayName("오프라인이라 대기열에 보관된 명령은 합치지 않고 다시 요청을 넘긴다")
+    void requestCapture_DoesNotCoalesceQueuedCommand() {
+        CaptureRequestCoalescer coalescer = newCoalescer(30);
+        CaptureCommandResponseDto queued = new CaptureCommandResponseDto(
+                DEVICE_ID, "device-" + DEVICE_ID, null, DispatchStatus.QUEUED, false);
+        when(mqttService.requestCapture(USER_ID, DEVICE_ID)).thenReturn(queued);
+
+        coalescer.requestCapture(USER_ID, DEVICE_ID);
+        CaptureCommandResponseDto second = coalescer.requestCapture(USER_ID, DEVICE_ID);
+
+        assertThat(second.getStatus()).isEqualTo(DispatchStatus.QUEUED);
+        assertThat(second.isCoalesced()).isFalse();
+        verify(mqttService, times(2)).requestCapture(USER_ID, DEVICE_ID);
+        assertThat(meterRegistry.get("capture.coalesced").counter().count()).isZero();
+    }
+
+    private CaptureRequestCoalescer newCoalescer(long windowSeconds) {
+        return new CaptureRequestCoalescer(mqttService, captureCommandTracker, meterRegistry, windowSeconds);
+    }
+
+    private static CaptureCommandResponseDto response(String correlationId) {
+        return new CaptureCommandResponseDto(DEVICE_ID, "device-" + DEVICE_ID, correlationId, DispatchStatus.SENT, false);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %ds", TIMEOUT_SECONDS).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.config.NodeIdentity;
+import com.farmguardian.farmguardian.domain.CaptureSchedule;
+import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.repository.CaptureScheduleLeaseRepository;
+import com.farmguardian.farmguardian.repository.CaptureScheduleNodeRepository;
+import com.farmguardian.farmguardian.repository.CaptureScheduleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 실행 엔진 단위 테스트 (DB/브로커 대신 목 객체, 시각은 tick(nowMillis) 로 직접 진행)
+ */
+class CaptureScheduleEngineTest {
+
+    private static final int PARTITIONS = 4;
+    private static final long INTERVAL_MILLIS = Duration.ofMinutes(10).toMillis();
+
+    private final CaptureScheduleRepository captureScheduleRepository = mock(CaptureScheduleRepository.class);
+    private final CaptureScheduleLeaseRepository leaseRepository = mock(CaptureScheduleLeaseRepository.class);
+    private final CaptureScheduleNodeRepository nodeRepository = mock(CaptureScheduleNodeRepository.class);
+    private final MqttService mqttService = mock(MqttService.class);
+    private final AdaptiveCapturePolicy adaptiveCapturePolicy = mock(AdaptiveCapturePolicy.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 다음 실행 시각을 계산하는 순간(실행 도중)에 끼워 넣을 동작
+    private final AtomicReference<Runnable> duringReschedule = new AtomicReference<>();
+
+    private CaptureScheduleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(adaptiveCapturePolicy.effectiveIntervalMillis(anyLong(), anyDouble())).thenAnswer(invocation -> {
+            Runnable action = duringReschedule.getAndSet(null);
+            if (action != null) {
+                action.run();
+            }
+            return invocation.getArgument(0);
+        });
+        when(nodeRepository.countByExpiresAtAfter(any())).thenReturn(1L);
+        when(leaseRepository.findPartitionNosOwnedBy(eq("node-a"), any())).thenReturn(List.of(0, 1, 2, 3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("실행 중에 비활성화된 스케줄은 다시 등록되지 않는다")
+    void fire_DoesNotResurrectDisabledSchedule() {
+        engine = newEngine(30);
+        engine.maintainLeases();
+        CaptureSchedule schedule = schedule(1L, 10L);
+        engine.apply(schedule);
+        assertThat(timers()).isEqualTo(1);
+
+        CaptureSchedule disabled = schedule(1L, 10L);
+        disabled.disable();
+        duringReschedule.set(() -> engine.apply(disabled));
+        long now = System.currentTimeMillis();
+        engine.tick(now + INTERVAL_MILLIS * 2);
+
+        assertThat(executions()).isEqualTo(1);
+        assertThat(timers()).isZero();
+
+        engine.tick(now + INTERVAL_MILLIS * 4);
+        assertThat(executions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("실행 중에 교체된 스케줄은 새 등록만 남는다")
+    void fire_KeepsReplacedRegistration() {
+        engine = newEngine(30);
+        engine.maintainLeases();
+        engine.apply(schedule(1L, 10L));
+
+        duringReschedule.set(() -> engine.apply(schedule(1L, 10L)));
+        long now = System.currentTimeMillis();
+        engine.tick(now + INTERVAL_MILLIS * 2);
+
+        assertThat(executions()).isEqualTo(1);
+        assertThat(timers()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("로컬 임대가 만료되면 실행하지 않고 등록을 지운다")
+    void fire_SkipsWhenLocalLeaseExpired() {
+        // 임대 기간 0초 → 갱신 직후 로컬 임대가 이미 만료된 상태
+        engine = newEngine(0);
+        engine.maintainLeases();
+        engine.apply(schedule(1L, 10L));
+        assertThat(timers()).isEqualTo(1);
+
+        engine.tick(System.currentTimeMillis() + INTERVAL_MILLIS * 2);
+
+        assertThat(executions()).isZero();
+        assertThat(timers()).isZero();
+        verify(mqttService, never()).sendScheduledCapture(any());
+    }
+
+    @Test
+    @DisplayName("공정 분배량을 넘는 파티션은 반납하고, 반납한 파티션의 스케줄은 등록하지 않는다")
+    void maintainLeases_ReleasesSurplusPartitions() {
+        when(nodeRepository.countByExpiresAtAfter(any())).thenReturn(2L);
+        engine = newEngine(30);
+        engine.maintainLeases();
+
+        verify(leaseRepository, times(2)).release(anyInt(), eq("node-a"));
+        assertThat(meterRegistry.get("capture.schedule.partitions.owned").gauge().value()).isEqualTo(2);
+
+        // 0, 1 번 파티션을 반납 (HashSet 순서)
+        engine.apply(schedule(1L, 4L));
+        assertThat(timers()).isZero();
+        engine.apply(schedule(2L, 7L));
+        assertThat(timers()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("빈 파티션을 공정 분배량까지 획득하고 스케줄을 적재한다")
+    void maintainLeases_AcquiresPartitionsAndLoadsSchedules() {
+        when(leaseRepository.findPartitionNosOwnedBy(eq("node-a"), any())).thenReturn(List.of());
+        when(leaseRepository.findAcquirablePartitionNos(any())).thenReturn(List.of(0, 1, 2, 3));
+        when(leaseRepository.acquire(anyInt(), eq("node-a"), any(), any())).thenReturn(1);
+        when(captureScheduleRepository.findAllEnabledByPartition(PARTITIONS, 2)).thenReturn(List.of(schedule(1L, 6L)));
+        engine = newEngine(30);
+
+        engine.maintainLeases();
+
+        verify(captureScheduleRepository, times(PARTITIONS)).findAllEnabledByPartition(eq(PARTITIONS), anyInt());
+        assertThat(meterRegistry.get("capture.schedule.partitions.owned").gauge().value()).isEqualTo(PARTITIONS);
+        assertThat(timers()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("기준 격자는 기본 주기로만 정해져, 주기가 다른 인스턴스도 격자 시각에 다시 맞춰 실행한다")
+    void nextFireMillis_AlignsToBaseGrid() {
+        long deviceId = 10L;
+        long base = INTERVAL_MILLIS;
+        long gridPoint = CaptureScheduleEngine.nextFireMillis(deviceId, base, base, 0);
+        long quarter = base / 4;
+        long third = base / 3;
+
+        // 주기가 줄면 격자 사이를 나누고, 남은 간격이 모자라면 다음 격자 시각에 실행한다
+        assertThat(CaptureScheduleEngine.nextFireMillis(deviceId, base, quarter, gridPoint)).isEqualTo(gridPoint + quarter);
+        assertThat(CaptureScheduleEngine.nextFireMillis(deviceId, base, quarter, gridPoint + 3 * quarter)).isEqualTo(gridPoint + base);
+        assertThat(CaptureScheduleEngine.nextFireMillis(deviceId, base, base * 3 / 10, gridPoint + base * 9 / 10))
+                .isEqualTo(gridPoint + base);
+        // 예산 배율이 다른 인스턴스가 임대를 넘겨받아도 같은 격자 위에서 이어서 실행한다
+        assertThat(CaptureScheduleEngine.nextFireMillis(deviceId, base, third, gridPoint + quarter)).isEqualTo(gridPoint + third);
+
+        // 예산 부족으로 늘어난 주기는 같은 위상에서 늘어난 간격으로 실행한다
+        long doubled = base * 2;
+        long first = CaptureScheduleEngine.nextFireMillis(deviceId, base, doubled, gridPoint);
+        assertThat(Math.floorMod(first - gridPoint, base)).isZero();
+        assertThat(CaptureScheduleEngine.nextFireMillis(deviceId, base, doubled, first)).isEqualTo(first + doubled);
+    }
+
+    private CaptureScheduleEngine newEngine(long leaseDurationSeconds) {
+        return new CaptureScheduleEngine(captureScheduleRepository, leaseRepository, nodeRepository, mqttService,
+                adaptiveCapturePolicy, new NodeIdentity("node-a"), meterRegistry,
+                PARTITIONS, 100, 64, leaseDurationSeconds, 1, 100);
+    }
+
+    private static CaptureSchedule schedule(long scheduleId, long deviceId) {
+        Device device = Device.builder().deviceUuid("device-" + deviceId).build();
+        ReflectionTestUtils.setField(device, "id", deviceId);
+        CaptureSchedule schedule = CaptureSchedule.builder()
+                .device(device)
+                .intervalMinutes((int) Duration.ofMillis(INTERVAL_MILLIS).toMinutes())
+                .build();
+        ReflectionTestUtils.setField(schedule, "id", scheduleId);
+        return schedule;
+    }
+
+    // 발행 + 시간대 밖이라 건너뛴 횟수 (테스트 실행 시각과 무관하게 센다)
+    private double executions() {
+        return meterRegistry.get("capture.schedule.fired").counter().count()
+                + meterRegistry.get("capture.schedule.skipped").counter().count();
+    }
+
+    private double timers() {
+        return meterRegistry.get("capture.schedule.timers").gauge().value();
+    }
+}
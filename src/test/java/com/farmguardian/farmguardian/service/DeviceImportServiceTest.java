@@ -0,0 +1,65 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.dto.response.DeviceImportResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 일괄 등록 단위 테스트 (JDBC/트랜잭션은 목 객체, 기존 UUID 조회는 항상 빈 결과)
+ */
+class DeviceImportServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final FleetCounters fleetCounters = mock(FleetCounters.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("다른 등록과 계속 겹치는 묶음은 실패로 기록하고 나머지 묶음은 계속 등록한다")
+    void importDevices_RecordsRacingBatchAsFailed() throws Exception {
+        // 첫 묶음(2행)은 시도할 때마다 겹치고, 두 번째 묶음(1행)은 저장된다
+        DuplicateKeyException duplicate = new DuplicateKeyException("device_uuid");
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(duplicate, duplicate, duplicate)
+                .thenReturn(new int[][]{{1}});
+        DeviceImportService service = new DeviceImportService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                mock(ObjectMapper.class), mock(CacheInvalidationBus.class), fleetCounters, meterRegistry, 2, 100);
+
+        DeviceImportResponseDto response = service.importDevices(csv("camera-001\ncamera-002\ncamera-003\n"),
+                DeviceImportService.Format.CSV);
+
+        assertThat(response.getRead()).isEqualTo(3);
+        assertThat(response.getInserted()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getErrors()).extracting(DeviceImportResponseDto.RowError::getLine).containsExactly(1L, 2L);
+        assertThat(response.isErrorsTruncated()).isFalse();
+        assertThat(meterRegistry.get("device.import.rows").tag("result", "failed").counter().count()).isEqualTo(2);
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verify(fleetCounters).recordCreated(eq(DeviceStatus.AVAILABLE), isNull(), eq(1L));
+    }
+
+    private static ByteArrayInputStream csv(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,113 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.DevicePresence;
+import com.farmguardian.farmguardian.gateway.PayloadCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 접속 상태 단위 테스트 (디바이스 등록 여부는 목 DeviceRegistry 로 대신한다)
+ */
+class DevicePresenceRegistryTest {
+
+    private static final long TIMEOUT_SECONDS = 180;
+    private static final long RETENTION_SECONDS = Duration.ofHours(1).toSeconds();
+
+    private final DeviceRegistry deviceRegistry = mock(DeviceRegistry.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(deviceRegistry.isKnown(anyString())).thenAnswer(invocation -> invocation.<String>getArgument(0).startsWith("known-"));
+    }
+
+    @Test
+    @DisplayName("등록되지 않은 UUID 는 기록하지 않는다")
+    void markOnline_IgnoresUnknownDevice() {
+        DevicePresenceRegistry registry = newRegistry(10);
+        long now = System.currentTimeMillis();
+
+        registry.markOnline("known-1", now);
+        registry.markOnline("random-1", now);
+        registry.markOffline("random-2", now);
+        registry.setCodec("random-3", PayloadCodec.BINARY);
+
+        assertThat(registry.getPresence("known-1")).isEqualTo(DevicePresence.ONLINE);
+        assertThat(registry.getPresence("random-1")).isEqualTo(DevicePresence.UNKNOWN);
+        assertThat(registry.getCodec("random-3")).isEqualTo(PayloadCodec.JSON);
+        assertThat(tracked()).isEqualTo(1);
+        assertThat(untracked("unknown")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("이미 기록 중인 디바이스는 등록 여부를 다시 확인하지 않는다")
+    void markOnline_ChecksRegistryOnlyOnce() {
+        DevicePresenceRegistry registry = newRegistry(10);
+        long now = System.currentTimeMillis();
+
+        registry.markOnline("known-1", now);
+        registry.markOnline("known-1", now + 1000);
+        registry.markOffline("known-1", now + 2000);
+
+        verify(deviceRegistry, times(1)).isKnown("known-1");
+        assertThat(registry.getPresence("known-1")).isEqualTo(DevicePresence.OFFLINE);
+    }
+
+    @Test
+    @DisplayName("max-devices 를 넘는 새 디바이스는 기록하지 않고, 기존 디바이스는 계속 갱신한다")
+    void markOnline_CapsTrackedDevices() {
+        DevicePresenceRegistry registry = newRegistry(2);
+        long now = System.currentTimeMillis();
+
+        registry.markOnline("known-1", now);
+        registry.markOnline("known-2", now);
+        registry.markOnline("known-3", now);
+        registry.markOffline("known-1", now + 1000);
+
+        assertThat(tracked()).isEqualTo(2);
+        assertThat(registry.getPresence("known-3")).isEqualTo(DevicePresence.UNKNOWN);
+        assertThat(registry.getPresence("known-1")).isEqualTo(DevicePresence.OFFLINE);
+        assertThat(untracked("full")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("retention 동안 신호가 없던 디바이스는 지워 UNKNOWN 으로 되돌리고 자리를 비운다")
+    void evictStale_RemovesSilentDevices() {
+        DevicePresenceRegistry registry = newRegistry(2);
+        long now = System.currentTimeMillis();
+        registry.markOffline("known-stale", now - Duration.ofSeconds(RETENTION_SECONDS + 60).toMillis());
+        registry.markOnline("known-fresh", now);
+
+        registry.evictStale();
+
+        assertThat(registry.getPresence("known-stale")).isEqualTo(DevicePresence.UNKNOWN);
+        assertThat(registry.getPresence("known-fresh")).isEqualTo(DevicePresence.ONLINE);
+        assertThat(meterRegistry.get("device.presence.evicted").counter().count()).isEqualTo(1);
+
+        registry.markOnline("known-new", now);
+        assertThat(registry.getPresence("known-new")).isEqualTo(DevicePresence.ONLINE);
+    }
+
+    private DevicePresenceRegistry newRegistry(int maxDevices) {
+        return new DevicePresenceRegistry(deviceRegistry, meterRegistry, TIMEOUT_SECONDS, RETENTION_SECONDS, maxDevices);
+    }
+
+    private double tracked() {
+        return meterRegistry.get("device.presence.tracked").gauge().value();
+    }
+
+    private double untracked(String reason) {
+        return meterRegistry.get("device.presence.untracked").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,167 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.exception.device.DeviceNotFoundException;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.DeviceRepository.DeviceIndexView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 디바이스 인덱스 단위 테스트 (DB 대신 목 리포지토리, 무효화는 등록된 evictor 를 직접 호출)
+ */
+class DeviceRegistryTest {
+
+    private final DeviceRepository deviceRepository = mock(DeviceRepository.class);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DeviceRegistry registry;
+    private Consumer<String> deviceEvictor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new DeviceRegistry(deviceRepository, cacheInvalidationBus, meterRegistry, true, 16, 2);
+        ArgumentCaptor<Consumer<String>> evictor = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheInvalidationBus).register(eq(CacheInvalidationBus.DEVICE), evictor.capture(), any(Runnable.class));
+        deviceEvictor = evictor.getValue();
+    }
+
+    @Test
+    @DisplayName("시작 시 batch 단위로 적재하고, 적재된 디바이스는 DB 없이 조회한다")
+    void load_ThenResolveFromIndex() {
+        View first = view(1L, 7L, DeviceStatus.CONNECTED, TargetCrop.CORN);
+        View second = view(2L, null, DeviceStatus.AVAILABLE, null);
+        View third = view(3L, 8L, DeviceStatus.CONNECTED, TargetCrop.POTATO);
+        when(deviceRepository.findIndexViewsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(deviceRepository.findIndexViewsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(third));
+
+        registry.load();
+
+        assertThat(registry.resolve(first.deviceUuid()))
+                .isEqualTo(new DeviceRegistry.DeviceSummary(1L, first.deviceUuid(), 7L, DeviceStatus.CONNECTED, TargetCrop.CORN));
+        assertThat(registry.resolve(second.deviceUuid()))
+                .isEqualTo(new DeviceRegistry.DeviceSummary(2L, second.deviceUuid(), null, DeviceStatus.AVAILABLE, null));
+        assertThat(registry.resolve(third.deviceUuid()).targetCrop()).isEqualTo(TargetCrop.POTATO);
+        verify(deviceRepository, never()).findIndexViewByDeviceUuid(anyString());
+        assertThat(meterRegistry.get("device.registry.size").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("device.registry.lookups").tag("result", "hit").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("인덱스에 없으면 DB 에서 읽어 채우고, DB 에도 없으면 DeviceNotFoundException")
+    void resolve_MissLoadsFromDb() {
+        View view = view(1L, 7L, DeviceStatus.CONNECTED, TargetCrop.CORN);
+        when(deviceRepository.findIndexViewByDeviceUuid(view.deviceUuid())).thenReturn(Optional.of(view));
+
+        assertThat(registry.resolve(view.deviceUuid()).ownerId()).isEqualTo(7L);
+        assertThat(registry.resolve(view.deviceUuid()).ownerId()).isEqualTo(7L);
+        verify(deviceRepository, times(1)).findIndexViewByDeviceUuid(view.deviceUuid());
+
+        String unknown = UUID.randomUUID().toString();
+        when(deviceRepository.findIndexViewByDeviceUuid(unknown)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> registry.resolve(unknown)).isInstanceOf(DeviceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("인덱싱할 수 없는 UUID 형식은 매번 DB 로 조회한다")
+    void resolve_NonCanonicalKeyAlwaysHitsDb() {
+        View view = new View(1L, "camera-01", 7L, DeviceStatus.CONNECTED, null);
+        when(deviceRepository.findIndexViewByDeviceUuid("camera-01")).thenReturn(Optional.of(view));
+
+        registry.resolve("camera-01");
+        registry.resolve("camera-01");
+
+        verify(deviceRepository, times(2)).findIndexViewByDeviceUuid("camera-01");
+    }
+
+    @Test
+    @DisplayName("DEVICE 무효화를 받으면 DB 에서 다시 읽고, 삭제된 디바이스는 인덱스에서 뺀다")
+    void invalidation_RefreshesAndRemoves() {
+        View connected = view(1L, 7L, DeviceStatus.CONNECTED, TargetCrop.CORN);
+        when(deviceRepository.findIndexViewByDeviceUuid(connected.deviceUuid())).thenReturn(Optional.of(connected));
+        registry.resolve(connected.deviceUuid());
+
+        View disconnected = new View(1L, connected.deviceUuid(), null, DeviceStatus.AVAILABLE, null);
+        when(deviceRepository.findIndexViewById(1L)).thenReturn(Optional.of(disconnected));
+        deviceEvictor.accept("1");
+        assertThat(registry.resolve(connected.deviceUuid()).ownerId()).isNull();
+
+        when(deviceRepository.findIndexViewById(1L)).thenReturn(Optional.empty());
+        when(deviceRepository.findIndexViewByDeviceUuid(connected.deviceUuid())).thenReturn(Optional.empty());
+        deviceEvictor.accept("1");
+        assertThatThrownBy(() -> registry.resolve(connected.deviceUuid())).isInstanceOf(DeviceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("무효화를 놓쳐 인덱스가 틀려도 currentOwnerId 는 DB 값을 돌려주고 인덱스를 고친다")
+    void currentOwnerId_ReadsDbAndRepairsIndex() {
+        View stale = view(1L, 7L, DeviceStatus.CONNECTED, TargetCrop.CORN);
+        when(deviceRepository.findIndexViewByDeviceUuid(stale.deviceUuid())).thenReturn(Optional.of(stale));
+        registry.resolve(stale.deviceUuid());
+
+        View transferred = new View(1L, stale.deviceUuid(), 9L, DeviceStatus.CONNECTED, TargetCrop.CORN);
+        when(deviceRepository.findIndexViewById(1L)).thenReturn(Optional.of(transferred));
+
+        assertThat(registry.currentOwnerId(1L)).isEqualTo(9L);
+        assertThat(registry.resolve(stale.deviceUuid()).ownerId()).isEqualTo(9L);
+
+        when(deviceRepository.findIndexViewById(1L)).thenReturn(Optional.empty());
+        assertThat(registry.currentOwnerId(1L)).isNull();
+    }
+
+    private static View view(long deviceId, Long ownerId, DeviceStatus status, TargetCrop crop) {
+        return new View(deviceId, UUID.randomUUID().toString(), ownerId, status, crop);
+    }
+
+    private record View(Long id, String deviceUuid, Long userId, DeviceStatus status, TargetCrop targetCrop)
+            implements DeviceIndexView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getDeviceUuid() {
+            return deviceUuid;
+        }
+
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        public DeviceStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public TargetCrop getTargetCrop() {
+            return targetCrop;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.domain.DeviceStatus;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 트랜잭션 밖에서 기록하면 바로 신호가 가므로 @Transactional 을 붙이지 않는다 (만든 디바이스는 끝나면 지운다)
+ * 재집계는 테스트에서 직접 호출하도록 주기를 늘린다
+ */
+@SpringBootTest(properties = "device.fleet-counters.recount-debounce-millis=3600000")
+@ActiveProfiles("local")
+@DisplayName("FleetCounters 테스트")
+class FleetCountersTest {
+
+    @Autowired
+    private FleetCounters fleetCounters;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    private final List<Device> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        deviceRepository.deleteAll(created);
+        fleetCounters.reconcile();
+    }
+
+    @Test
+    @DisplayName("변경 신호는 더하지 않고 표시만 하며, 여러 번 와도 한 번 GROUP BY 로 DB 값을 다시 센다")
+    void recordThenRecount() {
+        fleetCounters.reconcile();
+        long total = fleetCounters.total();
+        long availablePotato = fleetCounters.count(DeviceStatus.AVAILABLE, TargetCrop.POTATO);
+
+        for (int i = 0; i < 3; i++) {
+            created.add(deviceRepository.save(Device.builder().targetCrop(TargetCrop.POTATO).build()));
+        }
+        fleetCounters.recordCreated(DeviceStatus.AVAILABLE, TargetCrop.POTATO, 3);
+        // 같은 신호가 중복되어도 이동량처럼 두 번 반영되지 않는다
+        fleetCounters.recordCreated(DeviceStatus.AVAILABLE, TargetCrop.POTATO, 3);
+
+        assertThat(fleetCounters.total()).isEqualTo(total);
+
+        fleetCounters.recountIfDirty();
+
+        assertThat(fleetCounters.total()).isEqualTo(total + 3);
+        assertThat(fleetCounters.count(DeviceStatus.AVAILABLE, TargetCrop.POTATO)).isEqualTo(availablePotato + 3);
+        assertThat(fleetCounters.snapshot().getByStatusAndCrop().get(DeviceStatus.AVAILABLE).get("POTATO"))
+                .isEqualTo(availablePotato + 3);
+    }
+
+    @Test
+    @DisplayName("같은 칸 안의 변경은 신호를 보내지 않아 다시 세지 않고, 보정 주기에는 다시 센다")
+    void sameCellTransition_DoesNotRecount() {
+        fleetCounters.reconcile();
+        long total = fleetCounters.total();
+
+        created.add(deviceRepository.save(Device.builder().targetCrop(TargetCrop.CORN).build()));
+        fleetCounters.recordTransition(DeviceStatus.CONNECTED, TargetCrop.CORN, DeviceStatus.CONNECTED, TargetCrop.CORN);
+        fleetCounters.recountIfDirty();
+
+        assertThat(fleetCounters.total()).isEqualTo(total);
+
+        fleetCounters.reconcile();
+        assertThat(fleetCounters.total()).isEqualTo(total + 1);
+    }
+}
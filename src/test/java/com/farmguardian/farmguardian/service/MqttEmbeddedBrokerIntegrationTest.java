@@ -0,0 +1,219 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.config.EmbeddedMqttBrokerConfig;
+import com.farmguardian.farmguardian.domain.Device;
+import com.farmguardian.farmguardian.domain.DevicePresence;
+import com.farmguardian.farmguardian.domain.Role;
+import com.farmguardian.farmguardian.domain.TargetCrop;
+import com.farmguardian.farmguardian.domain.User;
+import com.farmguardian.farmguardian.dto.response.CaptureCommandResponseDto;
+import com.farmguardian.farmguardian.dto.response.FleetCaptureResponseDto.DispatchStatus;
+import com.farmguardian.farmguardian.repository.DeviceRepository;
+import com.farmguardian.farmguardian.repository.UserRepository;
+import com.farmguardian.farmguardian.util.BinaryFrameCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 브로커를 통한 MQTT 왕복 테스트 (외부 브로커 없이 실행된다)
+ *
+ * 디바이스 역할의 Paho 클라이언트가 cmd/capture/{uuid} 를 구독하고 하트비트/상태 메시지를 발행한다.
+ */
+@SpringBootTest
+@ActiveProfiles({"local", "mqtt-embedded"})
+@Import(EmbeddedMqttBrokerConfig.class)
+@DisplayName("MQTT 내장 브로커 통합 테스트")
+class MqttEmbeddedBrokerIntegrationTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Autowired
+    private MqttService mqttService;
+
+    @Autowired
+    private DevicePresenceRegistry devicePresenceRegistry;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mqtt.embedded.port}")
+    private int brokerPort;
+
+    private final BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+    private String deviceUuid;
+    private Device registered;
+    private User owner;
+    private MqttClient device;
+
+    @BeforeEach
+    void setUp() throws MqttException {
+        deviceUuid = UUID.randomUUID().toString();
+        // 접속 상태는 등록된 디바이스만 기록한다
+        registered = deviceRepository.save(Device.builder().deviceUuid(deviceUuid).build());
+        device = new MqttClient("tcp://127.0.0.1:" + brokerPort, "device-" + deviceUuid, new MemoryPersistence());
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setCleanSession(true);
+        device.connect(options);
+        device.subscribe("cmd/capture/" + deviceUuid, 1, (topic, message) -> received.add(message.getPayload()));
+    }
+
+    @AfterEach
+    void tearDown() throws MqttException {
+        if (device.isConnected()) {
+            device.disconnect();
+        }
+        device.close();
+        deviceRepository.delete(registered);
+        if (owner != null) {
+            userRepository.delete(owner);
+        }
+    }
+
+    @Test
+    @DisplayName("촬영 명령이 correlationId 를 담은 JSON 으로 디바이스에 전달된다")
+    void sendScheduledCapture_DeliversJsonCommand() throws Exception {
+        // when
+        mqttService.sendScheduledCapture(deviceUuid);
+
+        // then
+        byte[] payload = received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(payload).isNotNull();
+        String json = new String(payload, StandardCharsets.UTF_8);
+        assertThat(json).contains("\"command\":\"capture\"");
+        assertThat(json).contains("\"deviceUuid\":\"" + deviceUuid + "\"");
+        assertThat(json).contains("\"correlationId\":\"");
+    }
+
+    @Test
+    @DisplayName("하트비트로 바이너리 형식을 협상하면 촬영 명령이 바이너리 프레임으로 전달된다")
+    void heartbeat_NegotiatesBinaryFrames() throws Exception {
+        // given
+        device.publish("device/" + deviceUuid + "/heartbeat", "{\"codec\":\"fgb1\"}".getBytes(StandardCharsets.UTF_8), 1, false);
+        awaitTrue(() -> devicePresenceRegistry.getPresence(deviceUuid) == DevicePresence.ONLINE);
+
+        // when
+        mqttService.sendScheduledCapture(deviceUuid);
+
+        // then
+        byte[] payload = received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(payload).hasSize(BinaryFrameCodec.CAPTURE_LENGTH);
+        BinaryFrameCodec.Frame frame = new BinaryFrameCodec.Frame();
+        assertThat(BinaryFrameCodec.decode(payload, 0, payload.length, frame)).isTrue();
+        assertThat(frame.getType()).isEqualTo(BinaryFrameCodec.TYPE_CAPTURE);
+    }
+
+    @Test
+    @DisplayName("오프라인 상태 메시지를 받은 디바이스에는 촬영 명령을 바로 보내지 않는다")
+    void offlineStatus_SkipsCapture() throws Exception {
+        // given
+        device.publish("device/" + deviceUuid + "/status", "offline".getBytes(StandardCharsets.UTF_8), 1, false);
+        awaitTrue(() -> devicePresenceRegistry.getPresence(deviceUuid) == DevicePresence.OFFLINE);
+
+        // when
+        mqttService.sendScheduledCapture(deviceUuid);
+
+        // then
+        assertThat(received.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("오프라인 중 받은 촬영 명령은 합쳐서 보관했다가 재접속 시 한 번 전달한다")
+    void offlineCapture_DeliveredOnceOnReconnect() throws Exception {
+        // given
+        device.publish("device/" + deviceUuid + "/status", "offline".getBytes(StandardCharsets.UTF_8), 1, false);
+        awaitTrue(() -> devicePresenceRegistry.getPresence(deviceUuid) == DevicePresence.OFFLINE);
+        mqttService.sendScheduledCapture(deviceUuid);
+        mqttService.sendScheduledCapture(deviceUuid);
+        assertThat(received.poll(300, TimeUnit.MILLISECONDS)).isNull();
+
+        // when
+        device.publish("device/" + deviceUuid + "/heartbeat", "{}".getBytes(StandardCharsets.UTF_8), 1, false);
+        awaitTrue(() -> devicePresenceRegistry.getPresence(deviceUuid) == DevicePresence.ONLINE);
+        mqttService.drainOfflineCommands();
+
+        // then
+        assertThat(received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isNotNull();
+        assertThat(received.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    @DisplayName("오프라인 디바이스의 단일 촬영 요청은 거절하지 않고 보관했다가 하트비트 후 전달한다")
+    void requestCapture_QueuedWhileOfflineAndDeliveredAfterHeartbeat() throws Exception {
+        // given
+        owner = userRepository.save(new User("capture-" + deviceUuid + "@example.com", "password", Role.USER));
+        registered.connectToUser(owner, null, TargetCrop.POTATO, null, null);
+        registered = deviceRepository.save(registered);
+        device.publish("device/" + deviceUuid + "/status", "offline".getBytes(StandardCharsets.UTF_8), 1, false);
+        awaitTrue(() -> devicePresenceRegistry.getPresence(deviceUuid) == DevicePresence.OFFLINE);
+
+        // when
+        CaptureCommandResponseDto response = mqttService.requestCapture(owner.getId(), registered.getId());
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(DispatchStatus.QUEUED);
+        assertThat(response.getCorrelationId()).isNull();
+        assertThat(received.poll(300, TimeUnit.MILLISECONDS)).isNull();
+
+        device.publish("device/" + deviceUuid + "/heartbeat", "{}".getBytes(StandardCharsets.UTF_8), 1, false);
+        awaitTrue(() -> devicePresenceRegistry.getPresence(deviceUuid) == DevicePresence.ONLINE);
+        mqttService.drainOfflineCommands();
+
+        byte[] payload = received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(payload).isNotNull();
+        assertThat(new String(payload, StandardCharsets.UTF_8)).contains("\"deviceUuid\":\"" + deviceUuid + "\"");
+    }
+
+    @Test
+    @DisplayName("업로드 토픽의 바이너리 프레임과 cloudUrl 없는 JSON 은 분석하지 않고 malformed 로 센다")
+    void upload_RejectsBinaryFrameAndMissingCloudUrl() throws Exception {
+        // given
+        Counter malformed = meterRegistry.get("mqtt.inbound.malformed").counter();
+        double before = malformed.count();
+        byte[] frame = new byte[BinaryFrameCodec.TELEMETRY_LENGTH];
+        BinaryFrameCodec.encodeTelemetry(frame, 0, 21.5, 60.0, System.currentTimeMillis());
+
+        // when
+        device.publish("device/" + deviceUuid + "/upload", frame, 1, false);
+        device.publish("device/" + deviceUuid + "/upload",
+                "{\"temperature\":21.5,\"humidity\":60.0}".getBytes(StandardCharsets.UTF_8), 1, false);
+
+        // then
+        awaitTrue(() -> malformed.count() >= before + 2);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %ds", TIMEOUT_SECONDS).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.farmguardian.farmguardian.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 오프라인 명령 대기열 단위 테스트 (접속 상태는 목 객체로, 모든 디바이스를 오프라인으로 둔다)
+ */
+class OfflineCommandQueueTest {
+
+    private final DevicePresenceRegistry devicePresenceRegistry = mock(DevicePresenceRegistry.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(devicePresenceRegistry.isOffline(anyString())).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("같은 디바이스의 명령은 한 건으로 합치고, 재접속하면 한 번만 꺼낸다")
+    void enqueue_CollapsesPerDevice() {
+        OfflineCommandQueue queue = new OfflineCommandQueue(devicePresenceRegistry, meterRegistry, 900, 10, 10);
+
+        assertThat(queue.enqueue("device-a")).isTrue();
+        assertThat(queue.enqueue("device-a")).isTrue();
+        queue.onOnline("device-a");
+
+        assertThat(queue.pollReady()).containsExactly("device-a");
+        assertThat(queue.pollReady()).isEmpty();
+        assertThat(meterRegistry.get("capture.offline-queue.collapsed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 넣어도 max-devices 를 넘지 않고, 빠진 만큼 다시 받는다")
+    void enqueue_NeverExceedsMaxDevicesConcurrently() throws Exception {
+        int maxDevices = 100;
+        int threads = 8;
+        int devicesPerThread = 200;
+        OfflineCommandQueue queue = new OfflineCommandQueue(devicePresenceRegistry, meterRegistry, 900, maxDevices, 1000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int accepted = 0;
+                    for (int i = 0; i < devicesPerThread; i++) {
+                        if (queue.enqueue("device-" + thread + "-" + i)) {
+                            accepted++;
+                        }
+                    }
+                    return accepted;
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Integer> result : results) {
+                accepted += result.get(10, TimeUnit.SECONDS);
+            }
+
+            assertThat(accepted).isEqualTo(maxDevices);
+            assertThat(waiting()).isEqualTo(maxDevices);
+            assertThat(meterRegistry.get("capture.offline-queue.rejected").counter().count())
+                    .isEqualTo(threads * devicesPerThread - maxDevices);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 한 대가 재접속해 빠지면 새 디바이스 한 대를 받을 수 있다
+        reconnectOneDevice(queue, threads, devicesPerThread);
+        assertThat(queue.enqueue("device-new")).isTrue();
+        assertThat(queue.enqueue("device-new-2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("ttl 이 지난 명령은 정리되고 자리를 비운다")
+    void expireStale_FreesCapacity() {
+        OfflineCommandQueue queue = new OfflineCommandQueue(devicePresenceRegistry, meterRegistry, 0, 1, 10);
+        assertThat(queue.enqueue("device-a")).isTrue();
+        assertThat(queue.enqueue("device-b")).isFalse();
+
+        awaitExpiry();
+        queue.expireStale();
+
+        assertThat(waiting()).isZero();
+        assertThat(queue.enqueue("device-b")).isTrue();
+    }
+
+    private double waiting() {
+        return meterRegistry.get("capture.offline-queue.size").tag("state", "waiting").gauge().value();
+    }
+
+    // 대기 중인 디바이스 하나를 재접속시켜 꺼낸다 (어느 스레드의 것이 들어갔는지는 실행마다 다르다)
+    private void reconnectOneDevice(OfflineCommandQueue queue, int threads, int devicesPerThread) {
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < devicesPerThread; i++) {
+                String deviceUuid = "device-" + t + "-" + i;
+                queue.onOnline(deviceUuid);
+                if (!queue.pollReady().isEmpty()) {
+                    return;
+                }
+            }
+        }
+        throw new AssertionError("no waiting device");
+    }
+
+    // ttl 0초 → 요청 시각보다 1ms 만 지나면 만료
+    private static void awaitExpiry() {
+        long requestedAt = System.currentTimeMillis();
+        while (System.currentTimeMillis() <= requestedAt) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.farmguardian.farmguardian.service;
+
+import com.farmguardian.farmguardian.exception.BusinessException;
+import com.farmguardian.farmguardian.exception.ErrorCode;
+import com.farmguardian.farmguardian.exception.auth.AuthBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 비밀번호 해시 실행기 단위 테스트 (해시 스레드 1개, 첫 작업을 latch 로 붙잡아 대기열을 채운다)
+ */
+class PasswordHashingServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger encoded = new AtomicInteger();
+    // 풀어 줄 때까지 해시를 붙잡는 인코더
+    private final BCryptPasswordEncoder blockingEncoder = mock(BCryptPasswordEncoder.class);
+
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        when(blockingEncoder.encode(any())).thenAnswer(invocation -> {
+            assertThat(release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+            encoded.incrementAndGet();
+            return "hashed-" + invocation.getArgument(0);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.destroy();
+    }
+
+    @Test
+    @DisplayName("전용 풀에서 해시하고 검증하며, 낮은 cost 의 해시는 재해시 대상이다")
+    void encodeAndMatches() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(5), meterRegistry, 1, 4, 2000);
+
+        String hash = service.encode("password123");
+
+        assertThat(service.matches("password123", hash)).isTrue();
+        assertThat(service.matches("wrong", hash)).isFalse();
+        assertThat(service.needsRehash(hash)).isFalse();
+        assertThat(service.needsRehash(new BCryptPasswordEncoder(4).encode("password123"))).isTrue();
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 해시하지 않고 바로 AUTH_009 로 거절한다")
+    void encode_RejectsWhenQueueFull() throws Exception {
+        service = new PasswordHashingService(blockingEncoder, meterRegistry, 1, 1, 60_000);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("first"));
+        awaitTrue(() -> gauge("auth.password.active") == 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("second"));
+        awaitTrue(() -> gauge("auth.password.queue.size") == 1);
+
+        assertThatThrownBy(() -> service.encode("third"))
+                .isInstanceOf(AuthBusyException.class)
+                .extracting(e -> ((BusinessException) e).getErrorCode())
+                .isEqualTo(ErrorCode.AUTH_BUSY);
+        assertThat(rejected("queue-full")).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isNotBlank();
+        assertThat(queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isNotBlank();
+        assertThat(encoded.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("대기열에서 max-queue-millis 이상 기다린 작업은 해시하지 않고 AUTH_009 로 거절한다")
+    void encode_RejectsWhenQueuedTooLong() throws Exception {
+        service = new PasswordHashingService(blockingEncoder, meterRegistry, 1, 4, 50);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("first"));
+        awaitTrue(() -> gauge("auth.password.active") == 1);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("second"));
+        awaitTrue(() -> gauge("auth.password.queue.size") == 1);
+
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(running.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isNotBlank();
+        assertThatThrownBy(() -> queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AuthBusyException.class);
+        assertThat(rejected("queue-timeout")).isEqualTo(1);
+        assertThat(encoded.get()).isEqualTo(1);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("auth.password.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %ds", TIMEOUT_SECONDS).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.farmguardian.farmguardian.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryFrameCodecTest {
+
+    @Test
+    @DisplayName("촬영 명령 프레임은 correlationId 와 시각을 그대로 복원한다")
+    void capture_RoundTrip() {
+        String correlationId = UUID.randomUUID().toString();
+        byte[] buffer = new byte[BinaryFrameCodec.CAPTURE_LENGTH];
+
+        int length = BinaryFrameCodec.encodeCapture(buffer, 0, correlationId, 1_700_000_000_000L);
+
+        BinaryFrameCodec.Frame frame = new BinaryFrameCodec.Frame();
+        assertThat(length).isEqualTo(BinaryFrameCodec.CAPTURE_LENGTH);
+        assertThat(BinaryFrameCodec.isFrame(buffer)).isTrue();
+        assertThat(BinaryFrameCodec.decode(buffer, 0, length, frame)).isTrue();
+        assertThat(frame.getType()).isEqualTo(BinaryFrameCodec.TYPE_CAPTURE);
+        assertThat(frame.correlationId()).isEqualTo(correlationId);
+        assertThat(frame.getTimestampMillis()).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    @DisplayName("텔레메트리 프레임은 0.01 단위로 온습도를 복원하고, 없는 값은 NaN 이다")
+    void telemetry_RoundTrip() {
+        byte[] buffer = new byte[BinaryFrameCodec.TELEMETRY_LENGTH];
+
+        int length = BinaryFrameCodec.encodeTelemetry(buffer, 0, -3.456, Double.NaN, 5L);
+
+        BinaryFrameCodec.Frame frame = new BinaryFrameCodec.Frame();
+        assertThat(BinaryFrameCodec.decode(buffer, 0, length, frame)).isTrue();
+        assertThat(frame.getType()).isEqualTo(BinaryFrameCodec.TYPE_TELEMETRY);
+        assertThat(frame.getTemperature()).isEqualTo(-3.46);
+        assertThat(frame.getHumidity()).isNaN();
+    }
+
+    @Test
+    @DisplayName("JSON 이나 다른 버전의 프레임은 해석하지 않는다")
+    void decode_RejectsUnknownPayloads() {
+        byte[] json = "{\"correlationId\":\"x\"}".getBytes();
+        byte[] buffer = new byte[BinaryFrameCodec.ACK_LENGTH];
+        BinaryFrameCodec.encodeAck(buffer, 0, UUID.randomUUID().toString(), 0L);
+        buffer[1] = 2;
+
+        BinaryFrameCodec.Frame frame = new BinaryFrameCodec.Frame();
+        assertThat(BinaryFrameCodec.isFrame(json)).isFalse();
+        assertThat(BinaryFrameCodec.decode(buffer, 0, buffer.length, frame)).isFalse();
+    }
+}
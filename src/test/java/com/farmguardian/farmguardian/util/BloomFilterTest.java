@@ -0,0 +1,46 @@
+package com.farmguardian.farmguardian.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("넣은 키는 항상 있다고 답한다")
+    void mightContain_NoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        String[] keys = new String[1_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filter.put(keys[i]);
+        }
+
+        for (String key : keys) {
+            assertThat(filter.mightContain(key)).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("예상 개수만큼 넣었을 때 오탐률이 목표 근처다")
+    void mightContain_FalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFpp()).isLessThan(0.02);
+    }
+}
@@ -0,0 +1,55 @@
+package com.farmguardian.farmguardian.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    @Test
+    @DisplayName("같은 키는 항상 같은 노드로 간다")
+    void nodeFor_IsDeterministic() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, 64);
+        ConsistentHashRing other = new ConsistentHashRing(4, 64);
+
+        for (int i = 0; i < 100; i++) {
+            String key = UUID.randomUUID().toString();
+            assertThat(ring.nodeFor(key)).isEqualTo(other.nodeFor(key));
+        }
+    }
+
+    @Test
+    @DisplayName("키가 모든 노드에 고르게 분산된다")
+    void nodeFor_SpreadsKeys() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, 128);
+        int[] counts = new int[4];
+        for (int i = 0; i < 10_000; i++) {
+            counts[ring.nodeFor("device-" + i)]++;
+        }
+
+        for (int count : counts) {
+            assertThat(count).isBetween(1_500, 3_500);
+        }
+    }
+
+    @Test
+    @DisplayName("노드가 하나 늘어도 대부분의 키는 기존 노드에 남는다")
+    void nodeFor_MovesFewKeysWhenNodeAdded() {
+        ConsistentHashRing before = new ConsistentHashRing(4, 128);
+        ConsistentHashRing after = new ConsistentHashRing(5, 128);
+
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String key = "device-" + i;
+            if (before.nodeFor(key) != after.nodeFor(key)) {
+                moved++;
+            }
+        }
+
+        // 이상적으로는 1/5 (2,000개) 정도만 이동
+        assertThat(moved).isLessThan(3_000);
+    }
+}
@@ -0,0 +1,54 @@
+package com.farmguardian.farmguardian.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    @Test
+    @DisplayName("만료 시각이 지난 작업만 실행된다")
+    void advance_ExpiresOnlyDueTasks() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule("early", 250);
+        wheel.schedule("late", 950);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(300, expired::add);
+
+        assertThat(expired).containsExactly("early");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("한 바퀴 이상 남은 작업은 남은 바퀴 수만큼 대기 후 실행된다")
+    void advance_HandlesMultipleRounds() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, 0);
+        wheel.schedule("after-two-rounds", 1000);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(900, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(1000, expired::add);
+        assertThat(expired).containsExactly("after-two-rounds");
+    }
+
+    @Test
+    @DisplayName("취소된 작업은 실행되지 않는다")
+    void cancel_PreventsExpiration() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("cancelled", 200);
+
+        assertThat(timeout.cancel()).isTrue();
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(500, expired::add);
+        assertThat(expired).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+}
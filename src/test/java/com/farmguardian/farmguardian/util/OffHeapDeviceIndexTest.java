@@ -0,0 +1,131 @@
+package com.farmguardian.farmguardian.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapDeviceIndexTest {
+
+    @Test
+    @DisplayName("UUID 와 모바일 디바이스 키를 저장하고 조회한다")
+    void put_ThenGet() {
+        OffHeapDeviceIndex index = new OffHeapDeviceIndex(16);
+        String uuid = UUID.randomUUID().toString();
+
+        index.put(uuid, 1L, 7L, 1, OffHeapDeviceIndex.NO_VALUE);
+        index.put("mobile-user-7", 2L, 7L, 1, 3);
+
+        assertThat(index.get(uuid)).isEqualTo(new OffHeapDeviceIndex.Entry(1L, 7L, 1, OffHeapDeviceIndex.NO_VALUE));
+        assertThat(index.get("mobile-user-7")).isEqualTo(new OffHeapDeviceIndex.Entry(2L, 7L, 1, 3));
+        assertThat(index.get("mobile-user-8")).isNull();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("표준 형식이 아닌 키는 인덱싱하지 않는다")
+    void put_RejectsNonCanonicalKeys() {
+        OffHeapDeviceIndex index = new OffHeapDeviceIndex(16);
+
+        assertThat(index.put("not-a-uuid", 1L, 0, 0, 0)).isFalse();
+        assertThat(index.put(UUID.randomUUID().toString().toUpperCase(), 1L, 0, 0, 0)).isFalse();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("크기를 넘겨 늘어나도 삭제/갱신 후 값이 정확하다")
+    void put_GrowsAndKeepsEntries() {
+        OffHeapDeviceIndex index = new OffHeapDeviceIndex(16);
+        Map<String, Long> expected = new HashMap<>();
+        for (long id = 1; id <= 10_000; id++) {
+            String uuid = UUID.randomUUID().toString();
+            index.put(uuid, id, 0, 0, OffHeapDeviceIndex.NO_VALUE);
+            expected.put(uuid, id);
+        }
+        String removed = expected.keySet().iterator().next();
+        index.remove(removed);
+        expected.remove(removed);
+        String updated = expected.keySet().iterator().next();
+        index.put(updated, expected.get(updated), 42L, 1, 2);
+
+        assertThat(index.capacity()).isGreaterThanOrEqualTo(16_384);
+        assertThat(index.size()).isEqualTo(expected.size());
+        assertThat(index.get(removed)).isNull();
+        assertThat(index.get(updated).ownerId()).isEqualTo(42L);
+        expected.forEach((uuid, id) -> assertThat(index.get(uuid).deviceId()).isEqualTo(id));
+    }
+
+    @Test
+    @DisplayName("쓰기(갱신/삭제/확장)와 동시에 낙관적 읽기를 해도 찢어진 값이나 잘못된 결과를 보지 않는다")
+    void get_ConcurrentWithWrites() throws Exception {
+        OffHeapDeviceIndex index = new OffHeapDeviceIndex(16);
+        // 항상 있는 키 (값은 계속 바뀌지만 deviceId 와 ownerId/status/crop 의 관계는 유지)
+        List<String> stable = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            String uuid = UUID.randomUUID().toString();
+            stable.add(uuid);
+            putConsistent(index, uuid, i);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                long version = 64;
+                // 새 키를 계속 넣어 확장을 일으키고, 넣은 키를 바로 지워 삭제 슬롯도 만든다
+                for (int round = 0; round < 20_000; round++) {
+                    putConsistent(index, stable.get(round % stable.size()), version++);
+                    String churn = UUID.randomUUID().toString();
+                    putConsistent(index, churn, version++);
+                    if (round % 2 == 0) {
+                        index.remove(churn);
+                    }
+                }
+                running.set(false);
+            });
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    int reads = 0;
+                    while (running.get()) {
+                        for (String uuid : stable) {
+                            OffHeapDeviceIndex.Entry entry = index.get(uuid);
+                            assertThat(entry).isNotNull();
+                            assertConsistent(entry);
+                            reads++;
+                        }
+                    }
+                    return reads;
+                }));
+            }
+            writer.get(60, TimeUnit.SECONDS);
+            for (Future<Integer> reader : readers) {
+                assertThat(reader.get(60, TimeUnit.SECONDS)).isPositive();
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        assertThat(index.size()).isEqualTo(stable.size() + 10_000);
+    }
+
+    private static void putConsistent(OffHeapDeviceIndex index, String uuid, long deviceId) {
+        index.put(uuid, deviceId, deviceId * 31, (int) (deviceId % 3), (int) (deviceId % 5));
+    }
+
+    private static void assertConsistent(OffHeapDeviceIndex.Entry entry) {
+        assertThat(entry.ownerId()).isEqualTo(entry.deviceId() * 31);
+        assertThat(entry.status()).isEqualTo((int) (entry.deviceId() % 3));
+        assertThat(entry.crop()).isEqualTo((int) (entry.deviceId() % 5));
+    }
+}
@@ -0,0 +1,47 @@
+package com.farmguardian.farmguardian.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SortedLongArraysTest {
+
+    @Test
+    @DisplayName("추가/삭제는 정렬을 유지한 새 배열을 돌려주고 원본은 바꾸지 않는다")
+    void insertAndRemove_CopyOnWrite() {
+        long[] original = SortedLongArrays.insert(SortedLongArrays.insert(SortedLongArrays.EMPTY, 30), 10);
+        long[] inserted = SortedLongArrays.insert(original, 20);
+
+        assertThat(original).containsExactly(10, 30);
+        assertThat(inserted).containsExactly(10, 20, 30);
+        assertThat(SortedLongArrays.insert(inserted, 20)).isSameAs(inserted);
+
+        long[] removed = SortedLongArrays.remove(inserted, 10);
+        assertThat(removed).containsExactly(20, 30);
+        assertThat(inserted).containsExactly(10, 20, 30);
+        assertThat(SortedLongArrays.remove(removed, 99)).isSameAs(removed);
+    }
+
+    @Test
+    @DisplayName("contains 는 넣은 값만 찾는다")
+    void contains() {
+        long[] values = SortedLongArrays.of(new long[]{5, 1, 3, 3, 1}, 5);
+
+        assertThat(values).containsExactly(1, 3, 5);
+        assertThat(SortedLongArrays.contains(values, 3)).isTrue();
+        assertThat(SortedLongArrays.contains(values, 4)).isFalse();
+        assertThat(SortedLongArrays.contains(null, 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("합집합은 중복 없이 정렬된다")
+    void union() {
+        long[] left = {1, 4, 7};
+        long[] right = {2, 4, 8, 9};
+
+        assertThat(SortedLongArrays.union(left, right)).containsExactly(1, 2, 4, 7, 8, 9);
+        assertThat(SortedLongArrays.union(null, right)).isSameAs(right);
+        assertThat(SortedLongArrays.union(left, SortedLongArrays.EMPTY)).isSameAs(left);
+    }
+}
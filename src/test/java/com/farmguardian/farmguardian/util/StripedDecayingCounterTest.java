@@ -0,0 +1,63 @@
+package com.farmguardian.farmguardian.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StripedDecayingCounterTest {
+
+    @Test
+    @DisplayName("같은 시각의 기록은 그대로 누적된다")
+    void record_Accumulates() {
+        StripedDecayingCounter counter = new StripedDecayingCounter(4, 16, 60_000);
+
+        counter.record("a@example.com", 1_000);
+        counter.record("a@example.com", 1_000);
+        double score = counter.record("a@example.com", 1_000);
+
+        assertThat(score).isEqualTo(3.0);
+        assertThat(counter.get("a@example.com").lastEventMillis()).isEqualTo(1_000);
+        assertThat(counter.get("b@example.com")).isNull();
+    }
+
+    @Test
+    @DisplayName("반감기가 지나면 값이 절반으로 줄어든다")
+    void record_DecaysByHalfLife() {
+        StripedDecayingCounter counter = new StripedDecayingCounter(4, 16, 60_000);
+
+        counter.record("key", 0);
+        counter.record("key", 0);
+        double score = counter.record("key", 60_000);
+
+        assertThat(score).isCloseTo(2.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("stripe 당 보관 개수를 넘으면 가장 오래 접근하지 않은 키를 버린다")
+    void record_EvictsLeastRecentlyUsed() {
+        StripedDecayingCounter counter = new StripedDecayingCounter(1, 2, 60_000);
+
+        counter.record("first", 0);
+        counter.record("second", 0);
+        counter.get("first");
+        counter.record("third", 0);
+
+        assertThat(counter.get("first")).isNotNull();
+        assertThat(counter.get("second")).isNull();
+        assertThat(counter.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("reset 하면 기록이 사라진다")
+    void reset_RemovesKey() {
+        StripedDecayingCounter counter = new StripedDecayingCounter(4, 16, 60_000);
+        counter.record("key", 0);
+
+        counter.reset("key");
+
+        assertThat(counter.get("key")).isNull();
+        assertThat(counter.size()).isZero();
+    }
+}
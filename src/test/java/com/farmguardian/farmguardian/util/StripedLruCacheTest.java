@@ -0,0 +1,60 @@
+package com.farmguardian.farmguardian.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedLruCacheTest {
+
+    @Test
+    @DisplayName("가득 차면 가장 오래 접근하지 않은 항목을 버리고 새 항목은 저장한다")
+    void put_EvictsLeastRecentlyUsed() {
+        StripedLruCache<String, Integer> cache = new StripedLruCache<>(1, 2);
+
+        cache.put("first", 1);
+        cache.put("second", 2);
+        cache.get("first");
+        cache.put("third", 3);
+
+        assertThat(cache.get("first")).isEqualTo(1);
+        assertThat(cache.get("second")).isNull();
+        assertThat(cache.get("third")).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("stripe 로 나눠도 전체 보관 개수는 maxSize 를 크게 넘지 않는다")
+    void put_BoundedAcrossStripes() {
+        StripedLruCache<Integer, Integer> cache = new StripedLruCache<>(4, 100);
+
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.evictions()).isEqualTo(10_000 - cache.size());
+    }
+
+    @Test
+    @DisplayName("값이 같을 때만 지우는 remove 와 조건 제거, 전체 비우기")
+    void remove_AndRemoveIf() {
+        StripedLruCache<String, Integer> cache = new StripedLruCache<>(4, 16);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        cache.remove("a", 9);
+        cache.removeIf(value -> value >= 3);
+
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("c")).isNull();
+
+        cache.remove("a");
+        cache.clear();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.evictions()).isZero();
+    }
+}